@@ -0,0 +1,174 @@
+package ru.yandex.practicum.filmorate;
+
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import ru.yandex.practicum.filmorate.capacity.SyntheticDataGenerator;
+import ru.yandex.practicum.filmorate.dao.FilmRepository;
+import ru.yandex.practicum.filmorate.dao.ReviewRepository;
+import ru.yandex.practicum.filmorate.dao.UserRepository;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Review;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.service.FilmService;
+import ru.yandex.practicum.filmorate.service.UserService;
+
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Горячие пути чтения на встроенной H2, заполненной {@link SyntheticDataGenerator}.
+ * Для запросов, которые сервис обслуживает из индексов в памяти, отдельно измеряется SQL-реализация хранилища.
+ * Запуск: {@code mvn -P benchmark -DskipTests test-compile exec:exec -Djmh.args="HotPathBenchmark"};
+ * результаты записываются в JSON-файл {@code target/jmh-result.json} для сравнения между коммитами.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class HotPathBenchmark {
+    private static final String[] SEARCH_QUERIES = {"the", "dar", "sta", "lov", "kni", "war", "cit", "dre", "riv", "gho"};
+
+    @Param({"10000"})
+    private int usersCount;
+
+    @Param({"5000"})
+    private int filmsCount;
+
+    @Param({"20"})
+    private double likesPerUser;
+
+    @Param({"20"})
+    private double friendsPerUser;
+
+    @Param({"10"})
+    private double reviewsPerFilm;
+
+    private ConfigurableApplicationContext context;
+    private FilmRepository filmRepository;
+    private UserRepository userRepository;
+    private ReviewRepository reviewRepository;
+    private FilmService filmService;
+    private UserService userService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String url = "jdbc:h2:mem:hot-path-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(url, "sa", "password");
+        Flyway.configure().dataSource(dataSource).load().migrate();
+        SyntheticDataGenerator.Settings settings = SyntheticDataGenerator.Settings.builder()
+                .users(this.usersCount)
+                .films(this.filmsCount)
+                .directors(Math.max(1, this.filmsCount / 10))
+                .likesPerUser(this.likesPerUser)
+                .friendsPerUser(this.friendsPerUser)
+                .reviewsPerFilm(this.reviewsPerFilm)
+                .build();
+        new SyntheticDataGenerator(new JdbcTemplate(dataSource), settings).generate();
+
+        // Индексы в памяти строятся при запуске контекста, поэтому данные заполняются до него.
+        this.context = new SpringApplicationBuilder(FilmorateApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=" + url, "--spring.main.banner-mode=off", "--logging.level.root=WARN");
+        this.filmRepository = this.context.getBean(FilmRepository.class);
+        this.userRepository = this.context.getBean(UserRepository.class);
+        this.reviewRepository = this.context.getBean(ReviewRepository.class);
+        this.filmService = this.context.getBean(FilmService.class);
+        this.userService = this.context.getBean(UserService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.context.close();
+    }
+
+    /**
+     * Популярные фильмы запросом к БД.
+     */
+    @Benchmark
+    public Collection<Film> popularFilmsQuery() {
+        return this.filmRepository.getPopularFilms(10, null, null);
+    }
+
+    /**
+     * Популярные фильмы через сервис: индекс популярности и загрузка фильмов по идентификаторам.
+     */
+    @Benchmark
+    public Collection<Film> popularFilms() {
+        return this.filmService.getPopularFilms(10, null, null);
+    }
+
+    /**
+     * Рекомендации фильмов случайному пользователю.
+     */
+    @Benchmark
+    public Collection<Film> recommendedFilms() {
+        return this.filmService.getRecommendedFilms(this.randomUserId());
+    }
+
+    /**
+     * Поиск по названию и режиссёру запросом к БД.
+     */
+    @Benchmark
+    public Collection<Film> searchFilmsQuery() {
+        return this.filmRepository.searchFilms(this.randomQuery(), "title,director");
+    }
+
+    /**
+     * Поиск по названию и режиссёру через сервис: поисковый индекс и загрузка фильмов по идентификаторам.
+     */
+    @Benchmark
+    public Collection<Film> searchFilms() {
+        return this.filmService.searchFilms(this.randomQuery(), "title,director");
+    }
+
+    /**
+     * Общие друзья запросом к БД.
+     */
+    @Benchmark
+    public Collection<User> commonFriendsQuery() {
+        return this.userRepository.getCommonFriends(this.randomUserId(), this.randomUserId());
+    }
+
+    /**
+     * Общие друзья через сервис: пересечение списков в графе друзей и загрузка пользователей по идентификаторам.
+     */
+    @Benchmark
+    public Collection<User> commonFriends() {
+        return this.userService.getCommonFriends(this.randomUserId(), this.randomUserId());
+    }
+
+    /**
+     * Первая страница отзывов к случайному фильму.
+     */
+    @Benchmark
+    public Collection<Review> filmReviews() {
+        return this.reviewRepository.getFilmReviews(ThreadLocalRandom.current().nextLong(1, this.filmsCount + 1), null, 10);
+    }
+
+    //region Facilities
+
+    private long randomUserId() {
+        return ThreadLocalRandom.current().nextLong(1, this.usersCount + 1);
+    }
+
+    private String randomQuery() {
+        return SEARCH_QUERIES[ThreadLocalRandom.current().nextInt(SEARCH_QUERIES.length)];
+    }
+
+    //endregion
+}
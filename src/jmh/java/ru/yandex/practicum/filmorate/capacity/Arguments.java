@@ -0,0 +1,41 @@
+package ru.yandex.practicum.filmorate.capacity;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Аргументы командной строки вида {@code --name=value}.
+ */
+final class Arguments {
+    private final Map<String, String> values = new HashMap<>();
+
+    Arguments(String[] args) {
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Аргумент должен иметь вид --name=value: " + arg);
+            }
+            this.values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+    }
+
+    String getString(String name, String defaultValue) {
+        return this.values.getOrDefault(name, defaultValue);
+    }
+
+    int getInt(String name, int defaultValue) {
+        String value = this.values.get(name);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+
+    double getDouble(String name, double defaultValue) {
+        String value = this.values.get(name);
+        return value == null ? defaultValue : Double.parseDouble(value);
+    }
+
+    Duration getDuration(String name, Duration defaultValue) {
+        String value = this.values.get(name);
+        return value == null ? defaultValue : Duration.parse(value);
+    }
+}
@@ -0,0 +1,110 @@
+package ru.yandex.practicum.filmorate.capacity;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Гистограмма задержек в микросекундах с логарифмически-линейными корзинами: каждый интервал от 2^k до 2^(k+1)
+ * разбит на {@value #SUB_BUCKETS} равных корзин, поэтому погрешность перцентиля не превышает 1/{@value #SUB_BUCKETS}.
+ * Запись потокобезопасна и не требует блокировок.
+ */
+final class LatencyHistogram {
+    private static final int SUB_BUCKETS = 16;
+    private static final int SUB_BUCKET_BITS = Integer.numberOfTrailingZeros(SUB_BUCKETS);
+
+    private final AtomicLongArray counts = new AtomicLongArray((64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    void record(long micros) {
+        long value = Math.max(0, micros);
+        this.counts.incrementAndGet(bucket(value));
+        this.count.increment();
+        this.sum.add(value);
+        this.max.accumulate(value);
+    }
+
+    long count() {
+        return this.count.sum();
+    }
+
+    double mean() {
+        long count = this.count();
+        return count == 0 ? 0 : (double) this.sum.sum() / count;
+    }
+
+    long max() {
+        return this.max.get();
+    }
+
+    /**
+     * Получить перцентиль как верхнюю границу корзины, в которую он попадает.
+     *
+     * @param percentile перцентиль от 0 до 100.
+     */
+    long percentile(double percentile) {
+        long count = this.count();
+        if (count == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(count * percentile / 100));
+        long seen = 0;
+        for (int bucket = 0; bucket < this.counts.length(); bucket++) {
+            seen += this.counts.get(bucket);
+            if (seen >= rank) {
+                return Math.min(upperBound(bucket), this.max());
+            }
+        }
+        return this.max();
+    }
+
+    /**
+     * Получить количество значений, не превышающих каждую из границ.
+     *
+     * @param bounds границы по возрастанию.
+     * @return количество значений в интервале до каждой границы, последний элемент — значения больше последней границы.
+     */
+    long[] distribution(long[] bounds) {
+        long[] result = new long[bounds.length + 1];
+        for (int bucket = 0; bucket < this.counts.length(); bucket++) {
+            long bucketCount = this.counts.get(bucket);
+            if (bucketCount == 0) {
+                continue;
+            }
+
+            int position = 0;
+            while (position < bounds.length && upperBound(bucket) > bounds[position]) {
+                position++;
+            }
+            result[position] += bucketCount;
+        }
+        return result;
+    }
+
+    //region Facilities
+
+    private static int bucket(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+
+        int exponent = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> exponent) - SUB_BUCKETS;
+        return (exponent + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    private static long upperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+
+        int exponent = bucket / SUB_BUCKETS - 1;
+        long subBucket = bucket % SUB_BUCKETS + SUB_BUCKETS;
+        return ((subBucket + 1) << exponent) - 1;
+    }
+
+    //endregion
+}
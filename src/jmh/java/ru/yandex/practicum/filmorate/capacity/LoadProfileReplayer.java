@@ -0,0 +1,262 @@
+package ru.yandex.practicum.filmorate.capacity;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Воспроизведение смеси REST-операций против запущенного приложения.
+ * Каждый поток в цикле выбирает операцию по весам смеси и ждёт ответа (замкнутая модель нагрузки).
+ * Идентификаторы берутся из диапазонов, созданных {@link SyntheticDataGenerator}; фильмы выбираются по закону Ципфа.
+ * После прогрева печатаются пропускная способность, перцентили и гистограмма задержек по каждой операции.
+ * Запуск: {@code mvn -P benchmark -DskipTests test-compile exec:exec@replay -Dcapacity.args="--threads=32 --duration=PT5M"};
+ * смесь задаётся как {@code --mix=popular-films:50,add-like:10}, операции не из списка не выполняются.
+ */
+public final class LoadProfileReplayer {
+    /**
+     * Границы гистограммы в микросекундах.
+     */
+    private static final long[] HISTOGRAM_BOUNDS = {1_000, 2_000, 5_000, 10_000, 20_000, 50_000, 100_000, 200_000,
+            500_000, 1_000_000};
+
+    private static final String[] SEARCH_QUERIES = {"the", "dar", "sta", "lov", "kni", "war", "cit", "dre", "riv", "gho"};
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final int usersCount;
+    private final int reviewsCount;
+    private final ZipfSampler films;
+    private final Operation[] schedule;
+    private final AtomicReference<Map<Operation, Statistics>> statistics = new AtomicReference<>();
+
+    private LoadProfileReplayer(Arguments arguments) {
+        SyntheticDataGenerator.Settings defaults = SyntheticDataGenerator.Settings.builder().build();
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.baseUrl = arguments.getString("base-url", "http://localhost:8080");
+        this.usersCount = arguments.getInt("users", defaults.getUsers());
+        this.reviewsCount = arguments.getInt("reviews", (int) (defaults.getFilms() * defaults.getReviewsPerFilm()));
+        this.films = new ZipfSampler(arguments.getInt("films", defaults.getFilms()),
+                arguments.getDouble("likes-skew", defaults.getLikesSkew()), new Random(42));
+        this.schedule = schedule(arguments.getString("mix", null));
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        Arguments arguments = new Arguments(args);
+        new LoadProfileReplayer(arguments).run(arguments.getInt("threads", 16),
+                arguments.getDuration("warmup", Duration.ofSeconds(10)),
+                arguments.getDuration("duration", Duration.ofMinutes(1)));
+    }
+
+    /**
+     * Операции смеси с весами по умолчанию.
+     */
+    private enum Operation {
+        POPULAR_FILMS("popular-films", 20),
+        FILM("film", 15),
+        SEARCH_FILMS("search-films", 8),
+        RECOMMENDATIONS("recommendations", 5),
+        FRIENDS("friends", 10),
+        COMMON_FRIENDS("common-friends", 5),
+        FRIEND_SUGGESTIONS("friend-suggestions", 3),
+        FEED("feed", 5),
+        FILM_REVIEWS("film-reviews", 10),
+        ADD_LIKE("add-like", 8),
+        DELETE_LIKE("delete-like", 3),
+        ADD_FRIEND("add-friend", 3),
+        LIKE_REVIEW("like-review", 5);
+
+        private final String title;
+        private final int weight;
+
+        Operation(String title, int weight) {
+            this.title = title;
+            this.weight = weight;
+        }
+    }
+
+    /**
+     * Статистика операции за период измерения.
+     */
+    private static final class Statistics {
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder clientErrors = new LongAdder();
+        private final LongAdder serverErrors = new LongAdder();
+    }
+
+    //region Facilities
+
+    private void run(int threads, Duration warmup, Duration duration) throws InterruptedException {
+        this.statistics.set(newStatistics());
+        long warmupEnd = System.nanoTime() + warmup.toNanos();
+        long end = warmupEnd + duration.toNanos();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int i = 0; i < threads; i++) {
+            executor.execute(() -> {
+                while (System.nanoTime() < end) {
+                    this.execute(this.schedule[ThreadLocalRandom.current().nextInt(this.schedule.length)]);
+                }
+            });
+        }
+
+        TimeUnit.NANOSECONDS.sleep(Math.max(0, warmupEnd - System.nanoTime()));
+        this.statistics.set(newStatistics());
+        long measurementStart = System.nanoTime();
+        executor.shutdown();
+        executor.awaitTermination(duration.toSeconds() + 60, TimeUnit.SECONDS);
+
+        this.report(this.statistics.get(), (System.nanoTime() - measurementStart) / 1e9, threads);
+    }
+
+    private void execute(Operation operation) {
+        Statistics statistics = this.statistics.get().get(operation);
+        long started = System.nanoTime();
+        try {
+            HttpResponse<Void> response = this.client.send(this.request(operation), HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() >= 500) {
+                statistics.serverErrors.increment();
+            } else if (response.statusCode() >= 400) {
+                statistics.clientErrors.increment();
+            }
+        } catch (IOException e) {
+            statistics.serverErrors.increment();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        statistics.latency.record((System.nanoTime() - started) / 1_000);
+    }
+
+    private HttpRequest request(Operation operation) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long userId = 1 + random.nextInt(this.usersCount);
+        long filmId = this.films.next(random);
+        return switch (operation) {
+            case POPULAR_FILMS -> this.get("/films/popular?count=10");
+            case FILM -> this.get("/films/" + filmId);
+            case SEARCH_FILMS -> this.get("/films/search?by=title,director&query=" + SEARCH_QUERIES[random.nextInt(SEARCH_QUERIES.length)]);
+            case RECOMMENDATIONS -> this.get("/users/" + userId + "/recommendations");
+            case FRIENDS -> this.get("/users/" + userId + "/friends");
+            case COMMON_FRIENDS -> this.get("/users/" + userId + "/friends/common/" + (1 + random.nextInt(this.usersCount)));
+            case FRIEND_SUGGESTIONS -> this.get("/users/" + userId + "/suggestions");
+            case FEED -> this.get("/users/" + userId + "/feed");
+            case FILM_REVIEWS -> this.get("/reviews?count=10&filmId=" + filmId);
+            case ADD_LIKE -> this.send("PUT", "/films/" + filmId + "/like/" + userId);
+            case DELETE_LIKE -> this.send("DELETE", "/films/" + filmId + "/like/" + userId);
+            case ADD_FRIEND -> this.send("PUT", "/users/" + userId + "/friends/" + (1 + random.nextInt(this.usersCount)));
+            case LIKE_REVIEW -> this.send("PUT", "/reviews/" + (1 + random.nextInt(Math.max(1, this.reviewsCount))) + "/like/" + userId);
+        };
+    }
+
+    private HttpRequest get(String path) {
+        return this.send("GET", path);
+    }
+
+    private HttpRequest send(String method, String path) {
+        return HttpRequest.newBuilder(URI.create(this.baseUrl + path))
+                .method(method, HttpRequest.BodyPublishers.noBody())
+                .timeout(Duration.ofSeconds(30))
+                .build();
+    }
+
+    private void report(Map<Operation, Statistics> statistics, double seconds, int threads) {
+        System.out.printf("Потоков: %d, измерение: %.1f с%n%n", threads, seconds);
+        System.out.printf("%-20s %9s %9s %6s %6s %9s %9s %9s %9s %9s %9s%n",
+                "operation", "count", "ops/s", "4xx", "5xx", "mean,ms", "p50,ms", "p90,ms", "p99,ms", "p99.9,ms", "max,ms");
+
+        LatencyHistogram total = new LatencyHistogram();
+        statistics.forEach((operation, operationStatistics) -> {
+            LatencyHistogram latency = operationStatistics.latency;
+            if (latency.count() == 0) {
+                return;
+            }
+
+            System.out.printf("%-20s %9d %9.1f %6d %6d %9.2f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    operation.title, latency.count(), latency.count() / seconds,
+                    operationStatistics.clientErrors.sum(), operationStatistics.serverErrors.sum(),
+                    latency.mean() / 1_000, latency.percentile(50) / 1_000.0, latency.percentile(90) / 1_000.0,
+                    latency.percentile(99) / 1_000.0, latency.percentile(99.9) / 1_000.0, latency.max() / 1_000.0);
+        });
+
+        System.out.printf("%nГистограмма задержек, количество запросов до границы в мс:%n%-20s", "operation");
+        for (long bound : HISTOGRAM_BOUNDS) {
+            System.out.printf(" %8s", "<=" + bound / 1_000);
+        }
+        System.out.printf(" %8s%n", ">" + HISTOGRAM_BOUNDS[HISTOGRAM_BOUNDS.length - 1] / 1_000);
+        statistics.forEach((operation, operationStatistics) -> {
+            if (operationStatistics.latency.count() == 0) {
+                return;
+            }
+
+            System.out.printf("%-20s", operation.title);
+            for (long count : operationStatistics.latency.distribution(HISTOGRAM_BOUNDS)) {
+                System.out.printf(" %8d", count);
+            }
+            System.out.println();
+        });
+    }
+
+    private static Map<Operation, Statistics> newStatistics() {
+        Map<Operation, Statistics> statistics = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            statistics.put(operation, new Statistics());
+        }
+        return statistics;
+    }
+
+    /**
+     * Развернуть смесь в массив операций, где каждая операция повторена по своему весу.
+     */
+    private static Operation[] schedule(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        if (mix == null) {
+            for (Operation operation : Operation.values()) {
+                weights.put(operation, operation.weight);
+            }
+        } else {
+            for (String entry : mix.split(",")) {
+                String[] parts = entry.split(":");
+                weights.put(operation(parts[0].trim()), parts.length > 1 ? Integer.parseInt(parts[1].trim()) : 1);
+            }
+        }
+
+        List<Operation> schedule = new ArrayList<>();
+        weights.forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                schedule.add(operation);
+            }
+        });
+        if (schedule.isEmpty()) {
+            throw new IllegalArgumentException("Смесь операций пуста");
+        }
+        return schedule.toArray(new Operation[0]);
+    }
+
+    private static Operation operation(String title) {
+        for (Operation operation : Operation.values()) {
+            if (operation.title.equals(title)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Неизвестная операция: " + title);
+    }
+
+    //endregion
+}
@@ -0,0 +1,375 @@
+package ru.yandex.practicum.filmorate.capacity;
+
+import lombok.Builder;
+import lombok.Value;
+import org.flywaydb.core.Flyway;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import ru.yandex.practicum.filmorate.dao.queries.FilmQueries;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.LongSupplier;
+
+/**
+ * Генератор синтетических данных для нагрузочного тестирования.
+ * <ul>
+ *     <li>Фильмы выбираются для лайков и отзывов по закону Ципфа: у немногих фильмов большинство лайков.</li>
+ *     <li>Активность пользователей (количество лайков, друзей, отзывов) и количество оценок отзыва
+ *     распределены по Парето с заданным средним.</li>
+ *     <li>Пользователи разбиты на сообщества последовательных идентификаторов; большинство друзей
+ *     выбирается внутри своего сообщества.</li>
+ * </ul>
+ * Данные записываются пакетами с явными идентификаторами, после чего счётчики идентификаторов сдвигаются
+ * за сгенерированные. Заполняется только пустая БД. Лента событий не генерируется.
+ * Запуск при остановленном приложении:
+ * {@code mvn -P benchmark -DskipTests test-compile exec:exec@generate -Dcapacity.args="--users=1000000"}.
+ */
+public final class SyntheticDataGenerator {
+    private static final String[] WORDS = {"the", "dark", "knight", "star", "wars", "love", "story", "return",
+            "night", "day", "last", "first", "man", "woman", "city", "king", "queen", "war", "peace", "game",
+            "red", "blue", "river", "mountain", "dream", "ghost", "summer", "winter", "road", "house"};
+
+    /**
+     * Количество жанров и рейтингов MPA, созданных миграциями.
+     */
+    private static final int GENRES_COUNT = 6;
+    private static final int MPA_COUNT = 5;
+
+    private final JdbcTemplate jdbc;
+    private final Settings settings;
+    private final Random random;
+
+    public SyntheticDataGenerator(JdbcTemplate jdbc, Settings settings) {
+        this.jdbc = jdbc;
+        this.settings = settings;
+        this.random = new Random(settings.getSeed());
+    }
+
+    /**
+     * Заполнить БД по адресу из аргументов {@code --url}, {@code --username}, {@code --password};
+     * остальные аргументы соответствуют полям {@link Settings}.
+     */
+    public static void main(String[] args) {
+        Arguments arguments = new Arguments(args);
+        String url = arguments.getString("url", "jdbc:h2:file:./db/filmorate");
+        // Одно соединение на всё время генерации: файловая H2 закрывается и уплотняется при закрытии последнего соединения.
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource(
+                url,
+                arguments.getString("username", "sa"),
+                arguments.getString("password", "password"),
+                true);
+        // Как и приложение: БД, созданная прежним schema.sql, принимается за версию 1 и доводится миграциями.
+        Flyway.configure().dataSource(dataSource).baselineOnMigrate(true).baselineVersion("1").load().migrate();
+
+        Settings defaults = Settings.builder().build();
+        Settings settings = Settings.builder()
+                .users(arguments.getInt("users", defaults.getUsers()))
+                .films(arguments.getInt("films", defaults.getFilms()))
+                .directors(arguments.getInt("directors", defaults.getDirectors()))
+                .likesPerUser(arguments.getDouble("likes-per-user", defaults.getLikesPerUser()))
+                .likesSkew(arguments.getDouble("likes-skew", defaults.getLikesSkew()))
+                .friendsPerUser(arguments.getDouble("friends-per-user", defaults.getFriendsPerUser()))
+                .clusterSize(arguments.getInt("cluster-size", defaults.getClusterSize()))
+                .crossClusterShare(arguments.getDouble("cross-cluster-share", defaults.getCrossClusterShare()))
+                .reviewsPerFilm(arguments.getDouble("reviews-per-film", defaults.getReviewsPerFilm()))
+                .votesPerReview(arguments.getDouble("votes-per-review", defaults.getVotesPerReview()))
+                .batchSize(arguments.getInt("batch-size", defaults.getBatchSize()))
+                .seed(arguments.getInt("seed", (int) defaults.getSeed()))
+                .build();
+
+        long started = System.nanoTime();
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        new SyntheticDataGenerator(jdbc, settings).generate();
+        if (url.startsWith("jdbc:h2:file:")) {
+            // Каждый пакет фиксируется отдельно, и старые версии страниц раздувают файл БД.
+            jdbc.execute("SHUTDOWN COMPACT");
+        }
+        dataSource.destroy();
+        System.out.printf("Данные сгенерированы за %d с%n", (System.nanoTime() - started) / 1_000_000_000);
+    }
+
+    /**
+     * Заполнить пустую БД.
+     *
+     * @throws IllegalStateException если в БД уже есть пользователи или фильмы.
+     */
+    public void generate() {
+        Long existing = this.jdbc.queryForObject("SELECT (SELECT COUNT(*) FROM users) + (SELECT COUNT(*) FROM films)", Long.class);
+        if (existing != null && existing > 0) {
+            throw new IllegalStateException("Генератор заполняет только пустую БД");
+        }
+
+        ZipfSampler films = new ZipfSampler(this.settings.getFilms(), this.settings.getLikesSkew(), this.random);
+
+        this.generateUsers();
+        this.generateDirectors();
+        this.generateFilms();
+        this.generateLikes(films);
+        this.generateFriends();
+        this.generateReviews(films);
+
+        this.jdbc.update(FilmQueries.RECONCILE_FILMS_LIKES_COUNT_QUERY);
+        this.restartIdentity("users", this.settings.getUsers());
+        this.restartIdentity("directors", this.settings.getDirectors());
+        this.restartIdentity("films", this.settings.getFilms());
+        this.restartIdentity("reviews", this.jdbc.queryForObject("SELECT COALESCE(MAX(id), 0) FROM reviews", Long.class));
+    }
+
+    /**
+     * Размеры и распределения генерируемых данных.
+     */
+    @Value
+    @Builder
+    public static class Settings {
+        @Builder.Default
+        int users = 100_000;
+
+        @Builder.Default
+        int films = 20_000;
+
+        @Builder.Default
+        int directors = 2_000;
+
+        /**
+         * Среднее количество лайков пользователя.
+         */
+        @Builder.Default
+        double likesPerUser = 30;
+
+        /**
+         * Показатель закона Ципфа для выбора фильма; 0 — все фильмы одинаково популярны.
+         */
+        @Builder.Default
+        double likesSkew = 1.0;
+
+        /**
+         * Среднее количество друзей пользователя.
+         */
+        @Builder.Default
+        double friendsPerUser = 20;
+
+        /**
+         * Размер сообщества пользователей.
+         */
+        @Builder.Default
+        int clusterSize = 200;
+
+        /**
+         * Доля друзей из других сообществ.
+         */
+        @Builder.Default
+        double crossClusterShare = 0.1;
+
+        /**
+         * Среднее количество отзывов к фильму.
+         */
+        @Builder.Default
+        double reviewsPerFilm = 5;
+
+        /**
+         * Среднее количество оценок отзыва.
+         */
+        @Builder.Default
+        double votesPerReview = 10;
+
+        @Builder.Default
+        int batchSize = 1_000;
+
+        @Builder.Default
+        long seed = 42;
+    }
+
+    //region Facilities
+
+    private void generateUsers() {
+        try (Batch users = new Batch("users", "INSERT INTO users (id, email, login, name, birthday) VALUES (?, ?, ?, ?, ?)", null)) {
+            for (long id = 1; id <= this.settings.getUsers(); id++) {
+                LocalDate birthday = LocalDate.of(1950, 1, 1).plusDays(this.random.nextInt(365 * 55));
+                users.add(id, "user" + id + "@mail.ru", "user" + id, this.words(2), Date.valueOf(birthday));
+            }
+        }
+    }
+
+    private void generateDirectors() {
+        try (Batch directors = new Batch("directors", "INSERT INTO directors (id, name) VALUES (?, ?)", null)) {
+            for (long id = 1; id <= this.settings.getDirectors(); id++) {
+                directors.add(id, this.words(2));
+            }
+        }
+    }
+
+    private void generateFilms() {
+        ZipfSampler directorIds = new ZipfSampler(Math.max(1, this.settings.getDirectors()), 1.0, this.random);
+        try (Batch films = new Batch("films", "INSERT INTO films (id, name, description, release_date, duration, mpa_id) VALUES (?, ?, ?, ?, ?, ?)", null);
+             Batch genres = new Batch("film_genres", "INSERT INTO film_genres (film_id, genre_id) VALUES (?, ?)", films);
+             Batch directors = new Batch("film_directors", "INSERT INTO film_directors (film_id, director_id) VALUES (?, ?)", films)) {
+            for (long id = 1; id <= this.settings.getFilms(); id++) {
+                LocalDate releaseDate = LocalDate.of(1930, 1, 1).plusDays(this.random.nextInt(365 * 95));
+                films.add(id, this.words(1 + this.random.nextInt(3)), this.words(8), Date.valueOf(releaseDate),
+                        60 + this.random.nextInt(120), 1 + this.random.nextInt(MPA_COUNT));
+
+                for (long genreId : this.distinct(1 + this.random.nextInt(3), GENRES_COUNT, () -> 1 + this.random.nextInt(GENRES_COUNT))) {
+                    genres.add(id, genreId);
+                }
+                if (this.settings.getDirectors() > 0 && this.random.nextDouble() < 0.8) {
+                    directors.add(id, directorIds.next(this.random));
+                }
+            }
+        }
+    }
+
+    private void generateLikes(ZipfSampler films) {
+        try (Batch likes = new Batch("film_likes", "INSERT INTO film_likes (film_id, user_id) VALUES (?, ?)", null)) {
+            for (long userId = 1; userId <= this.settings.getUsers(); userId++) {
+                int count = this.heavyTailed(this.settings.getLikesPerUser(), films.size());
+                for (long filmId : this.distinct(count, films.size(), () -> films.next(this.random))) {
+                    likes.add(filmId, userId);
+                }
+            }
+        }
+    }
+
+    private void generateFriends() {
+        int usersCount = this.settings.getUsers();
+        try (Batch friends = new Batch("friends", "INSERT INTO friends (user_id, friend_id) VALUES (?, ?)", null)) {
+            for (long userId = 1; userId <= usersCount; userId++) {
+                long clusterStart = (userId - 1) / this.settings.getClusterSize() * this.settings.getClusterSize() + 1;
+                int clusterSize = (int) Math.min(this.settings.getClusterSize(), usersCount - clusterStart + 1);
+                LongSupplier friendIds = () -> this.random.nextDouble() < this.settings.getCrossClusterShare()
+                        ? 1 + this.random.nextInt(usersCount)
+                        : clusterStart + this.random.nextInt(clusterSize);
+
+                int count = this.heavyTailed(this.settings.getFriendsPerUser(), usersCount - 1);
+                for (long friendId : this.distinct(count, usersCount, friendIds)) {
+                    if (friendId != userId) {
+                        friends.add(userId, friendId);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Отзывы пишутся вместе с оценками, поэтому полезность отзыва известна при его вставке.
+     */
+    private void generateReviews(ZipfSampler films) {
+        int usersCount = this.settings.getUsers();
+        double reviewsPerUser = this.settings.getReviewsPerFilm() * this.settings.getFilms() / Math.max(1, usersCount);
+        long reviewId = 0;
+        try (Batch reviews = new Batch("reviews", "INSERT INTO reviews (id, content, is_positive, user_id, film_id, useful) VALUES (?, ?, ?, ?, ?, ?)", null);
+             Batch votes = new Batch("review_likes", "INSERT INTO review_likes (review_id, user_id, is_liked) VALUES (?, ?, ?)", reviews)) {
+            for (long userId = 1; userId <= usersCount; userId++) {
+                int count = this.heavyTailed(reviewsPerUser, films.size());
+                for (long filmId : this.distinct(count, films.size(), () -> films.next(this.random))) {
+                    reviewId++;
+                    List<Object[]> reviewVotes = new ArrayList<>();
+                    int useful = 0;
+                    int votesCount = this.heavyTailed(this.settings.getVotesPerReview(), usersCount - 1);
+                    for (long voterId : this.distinct(votesCount, usersCount, () -> 1 + this.random.nextInt(usersCount))) {
+                        if (voterId != userId) {
+                            boolean liked = this.random.nextDouble() < 0.7;
+                            useful += liked ? 1 : -1;
+                            reviewVotes.add(new Object[]{reviewId, voterId, liked});
+                        }
+                    }
+
+                    reviews.add(reviewId, this.words(12), this.random.nextDouble() < 0.6, userId, filmId, useful);
+                    reviewVotes.forEach(votes::add);
+                }
+            }
+        }
+    }
+
+    private void restartIdentity(String table, long maxId) {
+        this.jdbc.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + (maxId + 1));
+    }
+
+    /**
+     * Количество по Парето с показателем 2 и заданным средним, не больше {@code max}.
+     */
+    private int heavyTailed(double mean, int max) {
+        if (mean <= 0 || max <= 0) {
+            return 0;
+        }
+
+        double value = mean / 2 / Math.sqrt(1 - this.random.nextDouble());
+        return (int) Math.min(max, Math.round(value));
+    }
+
+    /**
+     * Выбрать до {@code count} различных идентификаторов из {@code bound}; при сильном перекосе распределения
+     * идентификаторов может оказаться меньше.
+     */
+    private Set<Long> distinct(int count, int bound, LongSupplier ids) {
+        int target = Math.min(count, bound);
+        Set<Long> result = new LinkedHashSet<>();
+        for (int attempt = 0; result.size() < target && attempt < target * 10; attempt++) {
+            result.add(ids.getAsLong());
+        }
+        return result;
+    }
+
+    private String words(int count) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                builder.append(' ');
+            }
+            builder.append(WORDS[this.random.nextInt(WORDS.length)]);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Пакетная запись строк таблицы. Перед записью пакета записываются строки родительской таблицы,
+     * на которые он может ссылаться.
+     */
+    private final class Batch implements AutoCloseable {
+        private final String table;
+        private final String query;
+        private final Batch parent;
+        private final List<Object[]> rows = new ArrayList<>();
+        private final long started = System.nanoTime();
+        private long written;
+
+        Batch(String table, String query, Batch parent) {
+            this.table = table;
+            this.query = query;
+            this.parent = parent;
+        }
+
+        void add(Object... row) {
+            this.rows.add(row);
+            if (this.rows.size() >= SyntheticDataGenerator.this.settings.getBatchSize()) {
+                this.flush();
+            }
+        }
+
+        void flush() {
+            if (this.rows.isEmpty()) {
+                return;
+            }
+            if (this.parent != null) {
+                this.parent.flush();
+            }
+
+            SyntheticDataGenerator.this.jdbc.batchUpdate(this.query, this.rows);
+            this.written += this.rows.size();
+            this.rows.clear();
+        }
+
+        @Override
+        public void close() {
+            this.flush();
+            System.out.printf("%s: %d строк за %d мс%n", this.table, this.written, (System.nanoTime() - this.started) / 1_000_000);
+        }
+    }
+
+    //endregion
+}
@@ -0,0 +1,58 @@
+package ru.yandex.practicum.filmorate.capacity;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Выбор идентификатора по закону Ципфа: вероятность идентификатора ранга {@code k} пропорциональна {@code 1 / k^s}.
+ * Ранги сопоставлены идентификаторам случайной перестановкой, чтобы популярность не совпадала с порядком создания.
+ */
+final class ZipfSampler {
+    /**
+     * Накопленные вероятности по рангу.
+     */
+    private final double[] cumulative;
+
+    /**
+     * Идентификатор по рангу.
+     */
+    private final long[] ids;
+
+    /**
+     * @param count    количество идентификаторов, идентификаторы от 1 до {@code count}.
+     * @param exponent показатель распределения; 0 — равномерное распределение.
+     * @param random   генератор для перестановки рангов.
+     */
+    ZipfSampler(int count, double exponent, Random random) {
+        this.cumulative = new double[count];
+        double sum = 0;
+        for (int rank = 0; rank < count; rank++) {
+            sum += 1 / Math.pow(rank + 1, exponent);
+            this.cumulative[rank] = sum;
+        }
+        for (int rank = 0; rank < count; rank++) {
+            this.cumulative[rank] /= sum;
+        }
+
+        this.ids = new long[count];
+        for (int rank = 0; rank < count; rank++) {
+            this.ids[rank] = rank + 1;
+        }
+        for (int rank = count - 1; rank > 0; rank--) {
+            int other = random.nextInt(rank + 1);
+            long swap = this.ids[rank];
+            this.ids[rank] = this.ids[other];
+            this.ids[other] = swap;
+        }
+    }
+
+    long next(Random random) {
+        int position = Arrays.binarySearch(this.cumulative, random.nextDouble());
+        int rank = position >= 0 ? position : Math.min(-position - 1, this.ids.length - 1);
+        return this.ids[rank];
+    }
+
+    int size() {
+        return this.ids.length;
+    }
+}
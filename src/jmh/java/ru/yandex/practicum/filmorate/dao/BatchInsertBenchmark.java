@@ -0,0 +1,103 @@
+package ru.yandex.practicum.filmorate.dao;
+
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import ru.yandex.practicum.filmorate.dao.queries.FilmQueries;
+
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Сравнение построчной и пакетной записи жанров фильма.
+ * Запуск: {@code mvn -P benchmark -DskipTests test-compile exec:exec}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class BatchInsertBenchmark {
+    private static final long FILM_ID = 1;
+
+    /**
+     * Количество жанров фильма.
+     */
+    @Param({"5", "20", "100"})
+    private int genresCount;
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbc;
+    private BenchmarkRepository repository;
+    private List<Long> genreIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .setName("batch-insert-" + UUID.randomUUID())
+                .build();
+        Flyway.configure().dataSource(this.database).load().migrate();
+        this.jdbc = new JdbcTemplate(this.database);
+
+        this.jdbc.update("INSERT INTO films (id, name, description, release_date, duration, mpa_id) VALUES (?, 'film', 'film', DATE '2000-01-01', 100, 1)", FILM_ID);
+        this.genreIds = LongStream.rangeClosed(1, this.genresCount).boxed().toList();
+        this.genreIds.forEach(genreId -> this.jdbc.update("MERGE INTO genres KEY (id) VALUES (?, ?)", genreId, "genre " + genreId));
+
+        this.repository = new BenchmarkRepository();
+        this.repository.jdbc = this.jdbc;
+        this.repository.batchSize = 100;
+    }
+
+    @Setup(Level.Invocation)
+    public void clearGenres() {
+        this.jdbc.update("DELETE FROM film_genres WHERE film_id = ?", FILM_ID);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.database.shutdown();
+    }
+
+    /**
+     * Прежняя запись: отдельный запрос на каждый жанр с получением сгенерированного ключа.
+     */
+    @Benchmark
+    public void rowByRow() {
+        this.genreIds.forEach(genreId -> {
+            GeneratedKeyHolder keyHolder = new GeneratedKeyHolder();
+            this.jdbc.update(connection -> {
+                PreparedStatement preparedStatement = connection.prepareStatement(FilmQueries.ADD_GENRE_TO_FILM_QUERY, Statement.RETURN_GENERATED_KEYS);
+                preparedStatement.setObject(1, FILM_ID);
+                preparedStatement.setObject(2, genreId);
+                return preparedStatement;
+            }, keyHolder);
+        });
+    }
+
+    /**
+     * Пакетная запись через {@link BaseRepository#batchInsert}.
+     */
+    @Benchmark
+    public void batch() {
+        this.repository.batchInsert(FilmQueries.ADD_GENRE_TO_FILM_QUERY, this.genreIds, genreId -> List.of(FILM_ID, genreId));
+    }
+
+    private static final class BenchmarkRepository extends BaseRepository {
+    }
+}
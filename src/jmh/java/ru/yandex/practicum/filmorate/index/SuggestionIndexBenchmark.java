@@ -0,0 +1,92 @@
+package ru.yandex.practicum.filmorate.index;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import ru.yandex.practicum.filmorate.model.Director;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Suggestion;
+import ru.yandex.practicum.filmorate.storage.DirectorStorage;
+import ru.yandex.practicum.filmorate.storage.FilmStorage;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Задержка подсказок автодополнения при изменении весов.
+ * Запуск: {@code mvn -P benchmark -DskipTests test-compile exec:exec -Djmh.args="SuggestionIndexBenchmark"}.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class SuggestionIndexBenchmark {
+    private static final String[] WORDS = {"the", "dark", "knight", "star", "wars", "love", "story", "return",
+            "night", "day", "last", "first", "man", "woman", "city", "king", "queen", "war", "peace", "game"};
+
+    /**
+     * Количество фильмов в индексе.
+     */
+    @Param({"100000"})
+    private int filmsCount;
+
+    private SuggestionIndex index;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        List<Director> directors = LongStream.rangeClosed(1, this.filmsCount / 10)
+                .mapToObj(id -> new Director(id, WORDS[random.nextInt(WORDS.length)] + " director " + id))
+                .toList();
+        List<Film> films = LongStream.rangeClosed(1, this.filmsCount)
+                .mapToObj(id -> Film.builder()
+                        .id(id)
+                        .name(WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + id)
+                        .directors(List.of(directors.get(random.nextInt(directors.size()))))
+                        .build())
+                .toList();
+
+        FilmStorage filmStorage = mock(FilmStorage.class);
+        when(filmStorage.getAllFilms()).thenReturn(films);
+        when(filmStorage.getFilmsLikesCount()).thenReturn(films.stream()
+                .collect(Collectors.toMap(Film::getId, film -> random.nextLong(1000))));
+        DirectorStorage directorStorage = mock(DirectorStorage.class);
+        when(directorStorage.getAllDirectors()).thenReturn(directors);
+        PopularityIndex popularityIndex = mock(PopularityIndex.class);
+        when(popularityIndex.getLikes(anyLong())).thenAnswer(invocation -> random.nextLong(1000));
+
+        this.index = new SuggestionIndex(filmStorage, directorStorage, popularityIndex, new IndexUpdateGate());
+        this.index.init();
+    }
+
+    /**
+     * Подсказки по короткому префиксу сразу после изменения веса: кэш пересчитывается на пути от корня.
+     */
+    @Benchmark
+    public List<Suggestion> suggestAfterLike() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        this.index.changeLikes(random.nextLong(1, this.filmsCount + 1), 1);
+        return this.index.suggest(WORDS[random.nextInt(WORDS.length)].substring(0, 2), 10);
+    }
+
+    /**
+     * Подсказки по префиксу без изменений индекса.
+     */
+    @Benchmark
+    public List<Suggestion> suggest() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return this.index.suggest(WORDS[random.nextInt(WORDS.length)].substring(0, 2), 10);
+    }
+}
@@ -0,0 +1,203 @@
+package ru.yandex.practicum.filmorate.cache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.dao.DirectorRepository;
+import ru.yandex.practicum.filmorate.model.Director;
+import ru.yandex.practicum.filmorate.storage.DirectorStorage;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Кэширующее хранилище режиссёров.
+ * Режиссёры загружаются из БД при первом обращении и затем отдаются из памяти.
+ * Создание, обновление и удаление режиссёра выполняются в БД и сбрасывают соответствующую запись кэша.
+ */
+@Component
+@Primary
+@RequiredArgsConstructor
+@Slf4j
+public class CachedDirectorStorage implements DirectorStorage {
+    /**
+     * Хранилище режиссёров в БД.
+     */
+    private final DirectorRepository directorRepository;
+
+    /**
+     * Загруженные режиссёры по идентификатору.
+     */
+    private final Map<Long, Director> directorById = new ConcurrentHashMap<>();
+
+    /**
+     * Номер изменения справочника, позволяющий не сохранять в кэш данные, прочитанные до изменения.
+     */
+    private final AtomicLong version = new AtomicLong();
+
+    /**
+     * Блокировка, под которой проверяется номер изменения и сохраняются режиссёры в кэш либо сбрасываются записи кэша.
+     */
+    private final Object lock = new Object();
+
+    /**
+     * Создать нового режиссёра.
+     *
+     * @param director режиссёр.
+     * @return режиссёр.
+     */
+    @Override
+    public Director createDirector(Director director) {
+        Director created = this.directorRepository.createDirector(director);
+        this.invalidate(created.getId());
+
+        return created;
+    }
+
+    /**
+     * Получить список всех режиссёров.
+     *
+     * @return список режиссёров.
+     */
+    @Override
+    public Collection<Director> getAllDirectors() {
+        long loadedVersion = this.version.get();
+        Collection<Director> directors = this.directorRepository.getAllDirectors();
+        this.cache(directors, loadedVersion);
+
+        return directors;
+    }
+
+    /**
+     * Получить режиссёра по его идентификатору.
+     *
+     * @param directorId идентификатор режиссёра.
+     * @return режиссёр.
+     */
+    @Override
+    public Optional<Director> getDirectorById(long directorId) {
+        Director cached = this.directorById.get(directorId);
+        if (cached != null) {
+            return Optional.of(cached.toBuilder().build());
+        }
+
+        long loadedVersion = this.version.get();
+        Optional<Director> director = this.directorRepository.getDirectorById(directorId);
+        director.ifPresent(loaded -> this.cache(List.of(loaded), loadedVersion));
+
+        return director;
+    }
+
+    /**
+     * Получить режиссёров по их идентификаторам.
+     * Из БД одним запросом загружаются только отсутствующие в кэше режиссёры.
+     *
+     * @param directorIds идентификаторы режиссёров.
+     * @return список найденных режиссёров.
+     */
+    @Override
+    public Collection<Director> getDirectorsByIds(Collection<Long> directorIds) {
+        List<Director> directors = new ArrayList<>();
+        List<Long> missingIds = new ArrayList<>();
+
+        directorIds.stream().distinct().forEach(directorId -> {
+            Director cached = this.directorById.get(directorId);
+            if (cached != null) {
+                directors.add(cached.toBuilder().build());
+            } else {
+                missingIds.add(directorId);
+            }
+        });
+
+        if (!missingIds.isEmpty()) {
+            long loadedVersion = this.version.get();
+            Collection<Director> loaded = this.directorRepository.getDirectorsByIds(missingIds);
+            this.cache(loaded, loadedVersion);
+            directors.addAll(loaded);
+        }
+
+        return directors;
+    }
+
+    /**
+     * Обновить режиссёра.
+     *
+     * @param director режиссёр.
+     */
+    @Override
+    public void updateDirector(Director director) {
+        try {
+            this.directorRepository.updateDirector(director);
+        } finally {
+            this.invalidate(director.getId());
+        }
+    }
+
+    /**
+     * Удалить режиссёра.
+     *
+     * @param directorId идентификатор режиссёра.
+     */
+    @Override
+    public void deleteDirector(long directorId) {
+        try {
+            this.directorRepository.deleteDirector(directorId);
+        } finally {
+            this.invalidate(directorId);
+        }
+    }
+
+    /**
+     * Сбросить запись кэша о режиссёре.
+     *
+     * @param directorId идентификатор режиссёра.
+     */
+    public void invalidate(long directorId) {
+        synchronized (this.lock) {
+            this.version.incrementAndGet();
+            this.directorById.remove(directorId);
+        }
+        log.debug("Сброшена запись кэша о режиссёре с id = {}", directorId);
+    }
+
+    /**
+     * Сбросить кэш режиссёров целиком.
+     */
+    public void invalidateAll() {
+        synchronized (this.lock) {
+            this.version.incrementAndGet();
+            this.directorById.clear();
+        }
+        log.debug("Кэш режиссёров сброшен");
+    }
+
+    //region Facilities
+
+    /**
+     * Сохранить режиссёров в кэш, если справочник не менялся с момента их чтения из БД.
+     * Проверка и сохранение выполняются под блокировкой: сброс записи не может произойти между ними.
+     *
+     * @param directors     режиссёры.
+     * @param loadedVersion номер изменения справочника на момент чтения.
+     */
+    private void cache(Collection<Director> directors, long loadedVersion) {
+        synchronized (this.lock) {
+            if (this.version.get() != loadedVersion) {
+                return;
+            }
+
+            directors.stream()
+                    .filter(Objects::nonNull)
+                    .forEach(director -> this.directorById.putIfAbsent(director.getId(), director.toBuilder().build()));
+        }
+    }
+
+    //endregion
+}
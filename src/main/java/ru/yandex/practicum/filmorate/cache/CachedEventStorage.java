@@ -0,0 +1,124 @@
+package ru.yandex.practicum.filmorate.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.dao.EventRepository;
+import ru.yandex.practicum.filmorate.model.Event;
+import ru.yandex.practicum.filmorate.model.EventOperation;
+import ru.yandex.practicum.filmorate.model.EventType;
+import ru.yandex.practicum.filmorate.storage.EventStorage;
+import ru.yandex.practicum.filmorate.task.EventJournalWriter;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Кэширующее хранилище событий.
+ * Для пользователей, чью ленту недавно читали, в памяти хранится кольцевой буфер последних событий:
+ * при первом чтении он заполняется из БД, а затем пополняется новыми событиями при их создании.
+ * Чтение недавней ленты обслуживается из буфера, в БД уходят только запросы глубже буфера;
+ * перед чтением из БД дописываются события, ещё ожидающие фоновой записи.
+ * Количество пользователей с буфером ограничено, давно не читавшиеся буферы вытесняются.
+ */
+@Component
+@Primary
+@Slf4j
+public class CachedEventStorage implements EventStorage {
+    /**
+     * Хранилище событий в БД.
+     */
+    private final EventRepository eventRepository;
+
+    /**
+     * Фоновая запись журнала событий.
+     */
+    private final EventJournalWriter eventJournalWriter;
+
+    /**
+     * Количество последних событий пользователя, хранимых в буфере.
+     */
+    private final int bufferSize;
+
+    /**
+     * Буферы событий по идентификатору пользователя в порядке последнего обращения.
+     */
+    private final Map<Long, EventBuffer> buffers;
+
+    public CachedEventStorage(EventRepository eventRepository,
+                              EventJournalWriter eventJournalWriter,
+                              @Value("${filmorate.feed.buffer-size:100}") int bufferSize,
+                              @Value("${filmorate.feed.cached-users:10000}") int cachedUsers) {
+        this.eventRepository = eventRepository;
+        this.eventJournalWriter = eventJournalWriter;
+        this.bufferSize = bufferSize;
+        this.buffers = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, EventBuffer> eldest) {
+                return this.size() > cachedUsers;
+            }
+        });
+    }
+
+    /**
+     * Создать новое событие: поставить его в очередь на запись в БД и добавить в буфер пользователя, если буфер загружен.
+     * Внутри транзакции событие попадает в очередь и в буфер после её фиксации.
+     *
+     * @param userId    идентификатор пользователя.
+     * @param eventType тип события.
+     * @param operation тип операции.
+     * @param entityId  идентификатор сущности, связанной с событием.
+     * @return событие.
+     */
+    @Override
+    public Event createEvent(long userId, EventType eventType, EventOperation operation, long entityId) {
+        Event event = this.eventJournalWriter.append(userId, eventType, operation, entityId);
+
+        this.eventJournalWriter.afterCommit(() -> {
+            EventBuffer buffer = this.buffers.get(userId);
+            if (buffer != null) {
+                buffer.append(event);
+            }
+        });
+
+        return event;
+    }
+
+    /**
+     * Получить события пользователя в порядке их появления.
+     * Запрос обслуживается из буфера, если буфер гарантированно содержит все запрошенные события.
+     *
+     * @param userId  идентификатор пользователя.
+     * @param sinceId идентификатор события, после которого начинается список, если предоставлен.
+     * @param limit   максимальное количество событий.
+     * @return список событий.
+     */
+    @Override
+    public Collection<Event> getUserEvents(long userId, Long sinceId, int limit) {
+        EventBuffer buffer = this.buffers.computeIfAbsent(userId, id -> new EventBuffer(this.bufferSize));
+
+        List<Event> events = buffer.read(sinceId, limit, () -> {
+            this.eventJournalWriter.flush();
+            return this.eventRepository.getUserEvents(userId, null, this.bufferSize);
+        });
+        if (events != null) {
+            return events;
+        }
+
+        log.debug("Лента пользователя с id = {} запрошена глубже буфера, чтение из БД", userId);
+        this.eventJournalWriter.flush();
+        return this.eventRepository.getUserEvents(userId, sinceId, limit);
+    }
+
+    /**
+     * Сбросить буферы событий всех пользователей.
+     */
+    public void invalidateAll() {
+        this.buffers.clear();
+        log.debug("Буферы событий сброшены");
+    }
+}
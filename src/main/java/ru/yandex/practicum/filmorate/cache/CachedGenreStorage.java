@@ -0,0 +1,100 @@
+package ru.yandex.practicum.filmorate.cache;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.dao.GenreRepository;
+import ru.yandex.practicum.filmorate.model.Genre;
+import ru.yandex.practicum.filmorate.storage.GenreStorage;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Кэширующее хранилище жанров.
+ * Справочник загружается из БД целиком при запуске и хранится в виде неизменяемого словаря,
+ * поэтому чтение и валидация жанров не обращаются к БД. После изменения справочника
+ * в БД необходимо вызвать {@link #invalidate()}.
+ */
+@Component
+@Primary
+@RequiredArgsConstructor
+@Slf4j
+public class CachedGenreStorage implements GenreStorage {
+    /**
+     * Хранилище жанров в БД.
+     */
+    private final GenreRepository genreRepository;
+
+    /**
+     * Жанры по идентификатору в порядке, возвращаемом БД.
+     */
+    private volatile Map<Long, Genre> genreById = Map.of();
+
+    /**
+     * Загрузить справочник при запуске приложения.
+     */
+    @PostConstruct
+    public void init() {
+        this.invalidate();
+    }
+
+    /**
+     * Перечитать справочник жанров из БД.
+     */
+    public void invalidate() {
+        Map<Long, Genre> loaded = new LinkedHashMap<>();
+        this.genreRepository.getAllGenres().forEach(genre -> loaded.put(genre.getId(), genre));
+
+        this.genreById = Collections.unmodifiableMap(loaded);
+        log.debug("Справочник жанров загружен, записей: {}", loaded.size());
+    }
+
+    /**
+     * Получить список всех жанров.
+     *
+     * @return список жанров.
+     */
+    @Override
+    public Collection<Genre> getAllGenres() {
+        return this.genreById.values().stream()
+                .map(genre -> genre.toBuilder().build())
+                .toList();
+    }
+
+    /**
+     * Получить жанр по его идентификатору.
+     *
+     * @param genreId идентификатор жанра.
+     * @return жанр.
+     */
+    @Override
+    public Optional<Genre> getGenreById(long genreId) {
+        return Optional.ofNullable(this.genreById.get(genreId))
+                .map(genre -> genre.toBuilder().build());
+    }
+
+    /**
+     * Получить жанры по их идентификаторам.
+     *
+     * @param genreIds идентификаторы жанров.
+     * @return список найденных жанров.
+     */
+    @Override
+    public Collection<Genre> getGenresByIds(Collection<Long> genreIds) {
+        Map<Long, Genre> genreById = this.genreById;
+
+        return genreIds.stream()
+                .distinct()
+                .map(genreById::get)
+                .filter(Objects::nonNull)
+                .map(genre -> genre.toBuilder().build())
+                .toList();
+    }
+}
@@ -0,0 +1,81 @@
+package ru.yandex.practicum.filmorate.cache;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.dao.MpaRepository;
+import ru.yandex.practicum.filmorate.model.Mpa;
+import ru.yandex.practicum.filmorate.storage.MpaStorage;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Кэширующее хранилище оценок Ассоциации кинокомпаний.
+ * Справочник загружается из БД целиком при запуске и хранится в виде неизменяемого словаря,
+ * поэтому чтение и валидация оценок не обращаются к БД. После изменения справочника
+ * в БД необходимо вызвать {@link #invalidate()}.
+ */
+@Component
+@Primary
+@RequiredArgsConstructor
+@Slf4j
+public class CachedMpaStorage implements MpaStorage {
+    /**
+     * Хранилище оценок Ассоциации кинокомпаний в БД.
+     */
+    private final MpaRepository mpaRepository;
+
+    /**
+     * Оценки Ассоциации кинокомпаний по идентификатору в порядке, возвращаемом БД.
+     */
+    private volatile Map<Long, Mpa> mpaById = Map.of();
+
+    /**
+     * Загрузить справочник при запуске приложения.
+     */
+    @PostConstruct
+    public void init() {
+        this.invalidate();
+    }
+
+    /**
+     * Перечитать справочник оценок Ассоциации кинокомпаний из БД.
+     */
+    public void invalidate() {
+        Map<Long, Mpa> loaded = new LinkedHashMap<>();
+        this.mpaRepository.getAllMpa().forEach(mpa -> loaded.put(mpa.getId(), mpa));
+
+        this.mpaById = Collections.unmodifiableMap(loaded);
+        log.debug("Справочник оценок Ассоциации кинокомпаний загружен, записей: {}", loaded.size());
+    }
+
+    /**
+     * Получить список оценок Ассоциации кинокомпаний.
+     *
+     * @return список оценок Ассоциации кинокомпаний.
+     */
+    @Override
+    public Collection<Mpa> getAllMpa() {
+        return this.mpaById.values().stream()
+                .map(mpa -> mpa.toBuilder().build())
+                .toList();
+    }
+
+    /**
+     * Получить оценку Ассоциации кинокомпаний по её идентификатору.
+     *
+     * @param mpaId идентификатор оценки Ассоциации кинокомпаний.
+     * @return оценка Ассоциации кинокомпаний.
+     */
+    @Override
+    public Optional<Mpa> getMpaById(long mpaId) {
+        return Optional.ofNullable(this.mpaById.get(mpaId))
+                .map(mpa -> mpa.toBuilder().build());
+    }
+}
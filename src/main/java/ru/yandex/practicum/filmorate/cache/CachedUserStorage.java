@@ -0,0 +1,227 @@
+package ru.yandex.practicum.filmorate.cache;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.dao.UserRepository;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.UserStorage;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Хранилище пользователей с графом друзей в памяти.
+ * Граф загружается из БД при запуске приложения, изменяется вместе с таблицей друзей
+ * и периодически перечитывается, чтобы исправить расхождения с БД.
+ * Списки друзей и общих друзей вычисляются по графу, а пользователи загружаются из БД одним запросом по списку идентификаторов.
+ */
+@Component
+@Primary
+@RequiredArgsConstructor
+@Slf4j
+public class CachedUserStorage implements UserStorage {
+    /**
+     * Хранилище пользователей в БД.
+     */
+    private final UserRepository userRepository;
+
+    /**
+     * Граф друзей.
+     */
+    private final FriendGraph friendGraph = new FriendGraph();
+
+    /**
+     * Загрузить граф друзей при запуске приложения.
+     */
+    @PostConstruct
+    public void init() {
+        this.reloadFriendGraph();
+    }
+
+    /**
+     * Перечитать граф друзей из БД. Записи в таблицу друзей на время чтения приостанавливаются.
+     */
+    public void reloadFriendGraph() {
+        this.friendGraph.write(() -> {
+            Map<Long, List<Long>> friendIds = this.userRepository.getAllFriendIds();
+            this.friendGraph.load(friendIds);
+            log.debug("Граф друзей загружен, пользователей с друзьями: {}", friendIds.size());
+        });
+    }
+
+    //region Пользователи
+
+    /**
+     * Создать нового пользователя.
+     *
+     * @param user пользователь.
+     * @return пользователь.
+     */
+    @Override
+    public User createUser(User user) {
+        return this.userRepository.createUser(user);
+    }
+
+    /**
+     * Получить список всех пользователей.
+     *
+     * @return список пользователей.
+     */
+    @Override
+    public Collection<User> getAllUsers() {
+        return this.userRepository.getAllUsers();
+    }
+
+    /**
+     * Получить пользователя по его идентификатору.
+     *
+     * @param userId идентификатор пользователя.
+     * @return пользователь.
+     */
+    @Override
+    public Optional<User> getUserById(long userId) {
+        return this.userRepository.getUserById(userId);
+    }
+
+    /**
+     * Проверить существование пользователя, не загружая его.
+     *
+     * @param userId идентификатор пользователя.
+     * @return признак, существует ли пользователь.
+     */
+    @Override
+    public boolean isUserExist(long userId) {
+        return this.userRepository.isUserExist(userId);
+    }
+
+    /**
+     * Получить пользователей по списку идентификаторов.
+     *
+     * @param userIds список идентификаторов пользователей.
+     * @return список пользователей в порядке следования идентификаторов; отсутствующие пользователи пропускаются.
+     */
+    @Override
+    public Collection<User> getUsersByIds(List<Long> userIds) {
+        return this.userRepository.getUsersByIds(userIds);
+    }
+
+    /**
+     * Обновить пользователя.
+     *
+     * @param user пользователь.
+     */
+    @Override
+    public void updateUser(User user) {
+        this.userRepository.updateUser(user);
+    }
+
+    /**
+     * Удалить пользователя вместе с его связями в графе друзей.
+     *
+     * @param userId идентификатор пользователя.
+     */
+    @Override
+    public void deleteUser(long userId) {
+        this.friendGraph.write(() -> {
+            this.userRepository.deleteUser(userId);
+            this.friendGraph.removeUser(userId);
+        });
+    }
+
+    //endregion
+
+    //region Друзья
+
+    /**
+     * Добавить пользователя в друзья.
+     *
+     * @param userId   идентификатор пользователя.
+     * @param friendId идентификатор друга.
+     */
+    @Override
+    public void addFriend(long userId, long friendId) {
+        this.friendGraph.write(() -> {
+            this.userRepository.addFriend(userId, friendId);
+            this.friendGraph.add(userId, friendId);
+        });
+    }
+
+    /**
+     * Получить список друзей пользователя в порядке возрастания идентификатора.
+     *
+     * @param userId идентификатор пользователя.
+     * @return список пользователей.
+     */
+    @Override
+    public Collection<User> getFriends(long userId) {
+        return this.getUsers(this.friendGraph.get(userId));
+    }
+
+    /**
+     * Получить идентификаторы друзей пользователя из графа.
+     *
+     * @param userId идентификатор пользователя.
+     * @return идентификаторы друзей по возрастанию.
+     */
+    @Override
+    public long[] getFriendIds(long userId) {
+        return this.friendGraph.get(userId).clone();
+    }
+
+    /**
+     * Получить идентификаторы друзей всех пользователей из БД.
+     *
+     * @return идентификаторы друзей по возрастанию по идентификатору пользователя.
+     */
+    @Override
+    public Map<Long, List<Long>> getAllFriendIds() {
+        return this.userRepository.getAllFriendIds();
+    }
+
+    /**
+     * Получить список общих друзей двух пользователей в порядке возрастания идентификатора.
+     * Общие друзья находятся слиянием отсортированных списков друзей.
+     *
+     * @param firstUserId  идентификатор первого пользователя.
+     * @param secondUserId идентификатор второго пользователя.
+     * @return список пользователей.
+     */
+    @Override
+    public Collection<User> getCommonFriends(long firstUserId, long secondUserId) {
+        return this.getUsers(FriendGraph.intersect(this.friendGraph.get(firstUserId), this.friendGraph.get(secondUserId)));
+    }
+
+    /**
+     * Удалить пользователя из друзей.
+     *
+     * @param userId   идентификатор пользователя.
+     * @param friendId идентификатор друга.
+     */
+    @Override
+    public void deleteFriend(long userId, long friendId) {
+        this.friendGraph.write(() -> {
+            this.userRepository.deleteFriend(userId, friendId);
+            this.friendGraph.remove(userId, friendId);
+        });
+    }
+
+    //endregion
+
+    //region Facilities
+
+    private Collection<User> getUsers(long[] userIds) {
+        if (userIds.length == 0) {
+            return List.of();
+        }
+
+        return this.userRepository.getUsersByIds(Arrays.stream(userIds).boxed().toList());
+    }
+
+    //endregion
+}
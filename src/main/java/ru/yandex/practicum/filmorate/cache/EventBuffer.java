@@ -0,0 +1,127 @@
+package ru.yandex.practicum.filmorate.cache;
+
+import ru.yandex.practicum.filmorate.model.Event;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Кольцевой буфер последних событий ленты.
+ * Буфер загружается из БД при первом чтении, затем пополняется событиями в порядке возрастания идентификатора
+ * и гарантированно содержит все события ленты с идентификатором больше {@code floorId}.
+ */
+final class EventBuffer {
+    private final Event[] events;
+    private int start;
+    private int size;
+    private boolean loaded;
+    private long floorId;
+
+    EventBuffer(int capacity) {
+        this.events = new Event[capacity];
+    }
+
+    synchronized void append(Event event) {
+        if (!this.loaded) {
+            return;
+        }
+
+        long lastId = this.size > 0 ? this.get(this.size - 1).getId() : this.floorId;
+        if (event.getId() == lastId) {
+            return;
+        }
+        if (event.getId() < lastId) {
+            // Событие записано раньше уже попавшего в буфер: порядок нарушен, буфер перечитается из БД.
+            this.loaded = false;
+            return;
+        }
+
+        if (this.size < this.events.length) {
+            this.events[(this.start + this.size) % this.events.length] = event;
+            this.size++;
+            return;
+        }
+
+        this.floorId = this.events[this.start].getId();
+        this.events[this.start] = event;
+        this.start = (this.start + 1) % this.events.length;
+    }
+
+    /**
+     * Удалить из буфера события пользователя. Буфер по-прежнему содержит все остальные события ленты
+     * с идентификатором больше {@code floorId}.
+     *
+     * @param userId идентификатор автора событий.
+     */
+    synchronized void removeUserEvents(long userId) {
+        if (!this.loaded) {
+            return;
+        }
+
+        Event[] kept = new Event[this.events.length];
+        int size = 0;
+        for (int i = 0; i < this.size; i++) {
+            Event event = this.get(i);
+            if (event.getUserId() != userId) {
+                kept[size++] = event;
+            }
+        }
+
+        System.arraycopy(kept, 0, this.events, 0, this.events.length);
+        this.start = 0;
+        this.size = size;
+    }
+
+    /**
+     * Прочитать события из буфера, предварительно загрузив его при необходимости.
+     *
+     * @return список событий или {@code null}, если буфер не содержит всех запрошенных событий.
+     */
+    synchronized List<Event> read(Long sinceId, int limit, Supplier<Collection<Event>> loader) {
+        if (!this.loaded) {
+            this.load(loader.get());
+        }
+
+        if (sinceId == null) {
+            if (limit > this.size && this.floorId > 0) {
+                return null;
+            }
+
+            List<Event> events = new ArrayList<>();
+            for (int i = Math.max(0, this.size - limit); i < this.size; i++) {
+                events.add(this.get(i));
+            }
+            return events;
+        }
+
+        if (sinceId < this.floorId) {
+            return null;
+        }
+
+        List<Event> events = new ArrayList<>();
+        for (int i = 0; i < this.size && events.size() < limit; i++) {
+            Event event = this.get(i);
+            if (event.getId() > sinceId) {
+                events.add(event);
+            }
+        }
+        return events;
+    }
+
+    private void load(Collection<Event> loaded) {
+        this.start = 0;
+        this.size = 0;
+        for (Event event : loaded) {
+            this.events[this.size++] = event;
+        }
+
+        this.floorId = this.size == this.events.length ? this.events[0].getId() - 1 : 0;
+        this.loaded = true;
+    }
+
+    private Event get(int index) {
+        return this.events[(this.start + index) % this.events.length];
+    }
+}
@@ -0,0 +1,294 @@
+package ru.yandex.practicum.filmorate.cache;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.dao.TimelineRepository;
+import ru.yandex.practicum.filmorate.exception.InternalServerException;
+import ru.yandex.practicum.filmorate.model.Event;
+import ru.yandex.practicum.filmorate.storage.EventStorage;
+import ru.yandex.practicum.filmorate.storage.FriendFeedStorage;
+import ru.yandex.practicum.filmorate.storage.UserStorage;
+import ru.yandex.practicum.filmorate.task.EventJournalWriter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Хранилище лент событий друзей с рассылкой событий при записи.
+ * Записанное в журнал событие добавляется в ленты всех подписчиков его автора — пользователей, у которых автор в друзьях:
+ * в БД и в буферы подписчиков, чью ленту недавно читали. Чтение ленты — одно последовательное чтение буфера или ленты в БД.
+ * События пользователей, у которых подписчиков больше допустимого, не рассылаются: при чтении они
+ * запрашиваются у таких друзей отдельно и объединяются с лентой.
+ * Разосланные события попадают в ленту, только если записаны после добавления автора в друзья,
+ * и удаляются из неё при удалении автора из друзей.
+ */
+@Component
+@Primary
+@ConditionalOnProperty(value = "filmorate.feed.fan-out.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class FanOutFriendFeedStorage implements FriendFeedStorage {
+    /**
+     * Хранилище лент в БД.
+     */
+    private final TimelineRepository timelineRepository;
+
+    /**
+     * Хранилище событий.
+     */
+    private final EventStorage eventStorage;
+
+    /**
+     * Хранилище пользователей.
+     */
+    private final UserStorage userStorage;
+
+    /**
+     * Фоновая запись журнала событий.
+     */
+    private final EventJournalWriter eventJournalWriter;
+
+    /**
+     * Количество подписчиков, начиная с которого события пользователя не рассылаются.
+     */
+    private final int maxFollowers;
+
+    /**
+     * Количество последних событий ленты, хранимых в буфере.
+     */
+    private final int bufferSize;
+
+    /**
+     * Буферы лент по идентификатору пользователя в порядке последнего обращения.
+     */
+    private final Map<Long, EventBuffer> buffers;
+
+    /**
+     * Идентификаторы пользователей, чьи события не рассылаются.
+     */
+    private final Set<Long> popularUserIds = ConcurrentHashMap.newKeySet();
+
+    public FanOutFriendFeedStorage(TimelineRepository timelineRepository,
+                                   EventStorage eventStorage,
+                                   UserStorage userStorage,
+                                   EventJournalWriter eventJournalWriter,
+                                   @Value("${filmorate.feed.fan-out.max-followers:1000}") int maxFollowers,
+                                   @Value("${filmorate.feed.buffer-size:100}") int bufferSize,
+                                   @Value("${filmorate.feed.cached-users:10000}") int cachedUsers) {
+        this.timelineRepository = timelineRepository;
+        this.eventStorage = eventStorage;
+        this.userStorage = userStorage;
+        this.eventJournalWriter = eventJournalWriter;
+        this.maxFollowers = maxFollowers;
+        this.bufferSize = bufferSize;
+        this.buffers = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, EventBuffer> eldest) {
+                return this.size() > cachedUsers;
+            }
+        });
+    }
+
+    /**
+     * Загрузить популярных пользователей и подписаться на записанные события.
+     */
+    @PostConstruct
+    public void init() {
+        this.refreshPopularUsers();
+        this.eventJournalWriter.addListener(this::fanOut);
+    }
+
+    /**
+     * Получить события друзей пользователя в порядке их появления.
+     * Лента читается из буфера, если буфер гарантированно содержит все запрошенные события, иначе из БД,
+     * и дополняется событиями популярных друзей.
+     *
+     * @param userId  идентификатор пользователя.
+     * @param sinceId идентификатор события, после которого начинается список, если предоставлен.
+     * @param limit   максимальное количество событий.
+     * @return список событий.
+     */
+    @Override
+    public Collection<Event> getFriendEvents(long userId, Long sinceId, int limit) {
+        EventBuffer buffer = this.buffers.computeIfAbsent(userId, id -> new EventBuffer(this.bufferSize));
+
+        // Буфер загружается без ожидания журнала: рассылка записанных после загрузки событий сама пополняет буфер.
+        Collection<Event> events = buffer.read(sinceId, limit,
+                () -> this.timelineRepository.getTimelineEvents(userId, null, this.bufferSize));
+        if (events == null) {
+            log.debug("Лента друзей пользователя с id = {} запрошена глубже буфера, чтение из БД", userId);
+            this.eventJournalWriter.flush();
+            events = this.timelineRepository.getTimelineEvents(userId, sinceId, limit);
+        }
+
+        if (this.popularUserIds.isEmpty()) {
+            return events;
+        }
+
+        List<Long> popularFriendIds = Arrays.stream(this.userStorage.getFriendIds(userId))
+                .filter(this.popularUserIds::contains)
+                .boxed()
+                .toList();
+        if (popularFriendIds.isEmpty()) {
+            return events;
+        }
+
+        // События популярных друзей читаются из журнала, поэтому сначала дописываются и рассылаются ожидающие записи события.
+        this.eventJournalWriter.flush();
+        NavigableMap<Long, Event> merged = new TreeMap<>();
+        events.forEach(event -> merged.put(event.getId(), event));
+        popularFriendIds.forEach(friendId -> this.eventStorage.getUserEvents(friendId, sinceId, limit)
+                .forEach(event -> merged.put(event.getId(), event)));
+
+        List<Event> result = new ArrayList<>(merged.values());
+        return sinceId == null
+                ? result.subList(Math.max(0, result.size() - limit), result.size())
+                : result.subList(0, Math.min(limit, result.size()));
+    }
+
+    /**
+     * Удалить ленту пользователя и его события из лент подписчиков.
+     * Сначала дожидается рассылки уже записанных событий, чтобы она не вернула удалённые записи.
+     *
+     * @param userId идентификатор пользователя.
+     */
+    @Override
+    public void removeUser(long userId) {
+        this.eventJournalWriter.flush();
+        this.timelineRepository.removeUser(userId);
+
+        this.popularUserIds.remove(userId);
+        this.buffers.remove(userId);
+        List<EventBuffer> buffers;
+        synchronized (this.buffers) {
+            buffers = List.copyOf(this.buffers.values());
+        }
+        buffers.forEach(buffer -> buffer.removeUserEvents(userId));
+    }
+
+    /**
+     * Удалить события бывшего друга из ленты пользователя.
+     * Сначала дожидается рассылки уже записанных событий, чтобы она не вернула удалённые записи.
+     *
+     * @param userId   идентификатор пользователя.
+     * @param friendId идентификатор бывшего друга.
+     */
+    @Override
+    public void removeFriend(long userId, long friendId) {
+        this.eventJournalWriter.flush();
+        this.timelineRepository.removeFriend(userId, friendId);
+
+        EventBuffer buffer = this.buffers.get(userId);
+        if (buffer != null) {
+            buffer.removeUserEvents(friendId);
+        }
+    }
+
+    /**
+     * Перечитать из БД пользователей, чьи события не рассылаются.
+     */
+    public void refreshPopularUsers() {
+        Set<Long> userIds = Set.copyOf(this.timelineRepository.getPopularUserIds(this.maxFollowers));
+        this.popularUserIds.retainAll(userIds);
+        this.popularUserIds.addAll(userIds);
+        log.debug("Пользователей, чьи события не рассылаются: {}", userIds.size());
+    }
+
+    //region Facilities
+
+    /**
+     * Разослать записанные события в ленты подписчиков их авторов.
+     * Вызывается потоком, записавшим события.
+     */
+    private void fanOut(List<Event> events) {
+        List<Long> authorIds = events.stream().map(Event::getUserId).distinct().toList();
+
+        Map<Long, Long> followersCount = this.timelineRepository.getFollowersCount(authorIds);
+        List<Long> fanOutAuthorIds = new ArrayList<>();
+        authorIds.forEach(authorId -> {
+            long count = followersCount.getOrDefault(authorId, 0L);
+            if (count > this.maxFollowers) {
+                this.popularUserIds.add(authorId);
+            } else {
+                this.popularUserIds.remove(authorId);
+                if (count > 0) {
+                    fanOutAuthorIds.add(authorId);
+                }
+            }
+        });
+        if (fanOutAuthorIds.isEmpty()) {
+            return;
+        }
+
+        Map<Long, List<Long>> followerIds = this.timelineRepository.getFollowerIds(fanOutAuthorIds);
+        Map<Long, List<Long>> followerIdsByEventId = new LinkedHashMap<>();
+        events.forEach(event -> {
+            List<Long> eventFollowerIds = followerIds.get(event.getUserId());
+            if (eventFollowerIds != null) {
+                followerIdsByEventId.put(event.getId(), eventFollowerIds);
+            }
+        });
+
+        Map<Long, List<Long>> savedFollowerIds = this.saveTimelineEntries(followerIdsByEventId);
+        events.forEach(event -> savedFollowerIds.getOrDefault(event.getId(), List.of()).forEach(followerId -> {
+            EventBuffer buffer = this.buffers.get(followerId);
+            if (buffer != null) {
+                buffer.append(event);
+            }
+        }));
+    }
+
+    /**
+     * Добавить события в ленты подписчиков одним пакетом. Если пакет не записан, например подписчик удалён
+     * одновременно с рассылкой, события записываются по одному, а не записанное событие — по одному подписчику;
+     * пропускаются только не записанные строки.
+     *
+     * @return идентификаторы подписчиков, в ленты которых добавлено событие, по идентификатору события.
+     */
+    private Map<Long, List<Long>> saveTimelineEntries(Map<Long, List<Long>> followerIdsByEventId) {
+        try {
+            this.timelineRepository.saveTimelineEntries(followerIdsByEventId);
+            return followerIdsByEventId;
+        } catch (InternalServerException ex) {
+            log.warn("События не разосланы в ленты подписчиков пакетом, событий: {}", followerIdsByEventId.size());
+        }
+
+        Map<Long, List<Long>> savedFollowerIds = new LinkedHashMap<>();
+        followerIdsByEventId.forEach((eventId, followerIds) -> {
+            try {
+                this.timelineRepository.saveTimelineEntries(Map.of(eventId, followerIds));
+                savedFollowerIds.put(eventId, followerIds);
+                return;
+            } catch (InternalServerException ex) {
+                log.warn("Событие с id = {} не разослано в ленты подписчиков пакетом", eventId);
+            }
+
+            List<Long> saved = new ArrayList<>(followerIds.size());
+            for (Long followerId : followerIds) {
+                try {
+                    this.timelineRepository.saveTimelineEntries(Map.of(eventId, List.of(followerId)));
+                    saved.add(followerId);
+                } catch (InternalServerException ex) {
+                    log.warn("Событие с id = {} не добавлено в ленту пользователя с id = {}", eventId, followerId);
+                }
+            }
+            savedFollowerIds.put(eventId, saved);
+        });
+
+        return savedFollowerIds;
+    }
+
+    //endregion
+}
@@ -0,0 +1,171 @@
+package ru.yandex.practicum.filmorate.cache;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Граф друзей в памяти: для каждого пользователя — отсортированный массив идентификаторов его друзей.
+ * Массивы не изменяются после публикации: изменение списка друзей заменяет массив пользователя копией,
+ * поэтому прочитанный массив можно использовать без блокировки.
+ * Запись в таблицу друзей и соответствующее изменение графа выполняются внутри {@link #write(Runnable)}:
+ * записи следуют по одной, поэтому граф изменяется в том же порядке, что и таблица.
+ */
+final class FriendGraph {
+    private static final long[] EMPTY = new long[0];
+
+    /**
+     * Блокировка, разделяющая чтение графа и его изменение.
+     */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Блокировка, упорядочивающая записи в таблицу друзей вместе с изменениями графа.
+     * Чтение графа во время записи в БД не блокируется.
+     */
+    private final Lock writeLock = new ReentrantLock();
+
+    /**
+     * Идентификаторы друзей по идентификатору пользователя.
+     */
+    private Map<Long, long[]> friendIds = new HashMap<>();
+
+    /**
+     * Выполнить запись в таблицу друзей вместе с изменением графа, не допуская одновременных записей.
+     *
+     * @param write запись в БД и изменение графа.
+     */
+    void write(Runnable write) {
+        this.writeLock.lock();
+        try {
+            write.run();
+        } finally {
+            this.writeLock.unlock();
+        }
+    }
+
+    /**
+     * Заменить граф целиком.
+     *
+     * @param friendIds идентификаторы друзей по возрастанию по идентификатору пользователя.
+     */
+    void load(Map<Long, List<Long>> friendIds) {
+        Map<Long, long[]> loaded = new HashMap<>(friendIds.size() * 4 / 3 + 1);
+        friendIds.forEach((userId, ids) -> loaded.put(userId, ids.stream().mapToLong(Long::longValue).sorted().toArray()));
+
+        this.lock.writeLock().lock();
+        try {
+            this.friendIds = loaded;
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Получить идентификаторы друзей пользователя по возрастанию. Массив не должен изменяться.
+     */
+    long[] get(long userId) {
+        this.lock.readLock().lock();
+        try {
+            return this.friendIds.getOrDefault(userId, EMPTY);
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    void add(long userId, long friendId) {
+        this.lock.writeLock().lock();
+        try {
+            long[] ids = this.friendIds.getOrDefault(userId, EMPTY);
+            int position = Arrays.binarySearch(ids, friendId);
+            if (position >= 0) {
+                return;
+            }
+
+            int insertAt = -position - 1;
+            long[] updated = new long[ids.length + 1];
+            System.arraycopy(ids, 0, updated, 0, insertAt);
+            updated[insertAt] = friendId;
+            System.arraycopy(ids, insertAt, updated, insertAt + 1, ids.length - insertAt);
+            this.friendIds.put(userId, updated);
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    void remove(long userId, long friendId) {
+        this.lock.writeLock().lock();
+        try {
+            this.removeFriendId(userId, friendId);
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Удалить пользователя вместе со всеми связями, ведущими к нему. Требует просмотра всего графа.
+     */
+    void removeUser(long userId) {
+        this.lock.writeLock().lock();
+        try {
+            this.friendIds.remove(userId);
+            for (Long id : List.copyOf(this.friendIds.keySet())) {
+                this.removeFriendId(id, userId);
+            }
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Пересечь два отсортированных массива идентификаторов слиянием.
+     *
+     * @return идентификаторы, входящие в оба массива, по возрастанию.
+     */
+    static long[] intersect(long[] first, long[] second) {
+        long[] common = new long[Math.min(first.length, second.length)];
+        int size = 0;
+        int i = 0;
+        int j = 0;
+        while (i < first.length && j < second.length) {
+            if (first[i] < second[j]) {
+                i++;
+            } else if (first[i] > second[j]) {
+                j++;
+            } else {
+                common[size++] = first[i];
+                i++;
+                j++;
+            }
+        }
+
+        return Arrays.copyOf(common, size);
+    }
+
+    private void removeFriendId(long userId, long friendId) {
+        long[] ids = this.friendIds.get(userId);
+        if (ids == null) {
+            return;
+        }
+
+        int position = Arrays.binarySearch(ids, friendId);
+        if (position < 0) {
+            return;
+        }
+
+        if (ids.length == 1) {
+            this.friendIds.remove(userId);
+            return;
+        }
+
+        long[] updated = new long[ids.length - 1];
+        System.arraycopy(ids, 0, updated, 0, position);
+        System.arraycopy(ids, position + 1, updated, position, ids.length - position - 1);
+        this.friendIds.put(userId, updated);
+    }
+}
@@ -0,0 +1,117 @@
+package ru.yandex.practicum.filmorate.cache;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.LongFunction;
+import java.util.function.LongPredicate;
+
+/**
+ * Карта сущностей, загруженных в рамках текущего HTTP-запроса.
+ * Каждая сущность загружается из хранилища не больше одного раза за запрос, а подтверждённое существование
+ * сущности не проверяется повторно. Вне HTTP-запроса (фоновые задачи, запуск приложения) хранилище вызывается напрямую.
+ * Сущность, изменённая или удалённая в ходе запроса, должна быть исключена из карты.
+ */
+@Component
+public class RequestIdentityMap {
+    private static final String ATTRIBUTE = RequestIdentityMap.class.getName();
+
+    /**
+     * Отметка сущности, существование которой подтверждено, но которая не загружалась.
+     */
+    private static final Object EXISTS = new Object();
+
+    /**
+     * Получить сущность, загрузив её, если она ещё не загружалась в рамках запроса.
+     *
+     * @param type   тип сущности.
+     * @param id     идентификатор сущности.
+     * @param loader загрузка сущности из хранилища.
+     * @return сущность.
+     */
+    public <T> Optional<T> get(Class<T> type, long id, LongFunction<Optional<T>> loader) {
+        Map<Long, Object> entities = this.entities(type);
+        if (entities == null) {
+            return loader.apply(id);
+        }
+
+        Object entity = entities.get(id);
+        if (type.isInstance(entity)) {
+            return Optional.of(type.cast(entity));
+        }
+
+        Optional<T> loaded = loader.apply(id);
+        loaded.ifPresent(value -> entities.put(id, value));
+
+        return loaded;
+    }
+
+    /**
+     * Проверить существование сущности, если оно ещё не подтверждено в рамках запроса.
+     *
+     * @param type  тип сущности.
+     * @param id    идентификатор сущности.
+     * @param probe проверка существования сущности в хранилище.
+     * @return признак, существует ли сущность.
+     */
+    public boolean exists(Class<?> type, long id, LongPredicate probe) {
+        Map<Long, Object> entities = this.entities(type);
+        if (entities == null) {
+            return probe.test(id);
+        }
+
+        if (entities.containsKey(id)) {
+            return true;
+        }
+
+        boolean exists = probe.test(id);
+        if (exists) {
+            entities.put(id, EXISTS);
+        }
+
+        return exists;
+    }
+
+    /**
+     * Исключить сущность из карты после её изменения или удаления.
+     *
+     * @param type тип сущности.
+     * @param id   идентификатор сущности.
+     */
+    public void evict(Class<?> type, long id) {
+        Map<Long, Object> entities = this.entities(type);
+        if (entities != null) {
+            entities.remove(id);
+        }
+    }
+
+    //region Facilities
+
+    /**
+     * Получить сущности типа, загруженные в рамках текущего запроса.
+     *
+     * @return сущности по идентификатору или {@code null} вне HTTP-запроса.
+     */
+    @SuppressWarnings("unchecked")
+    private Map<Long, Object> entities(Class<?> type) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+
+        Map<Class<?>, Map<Long, Object>> entitiesByType =
+                (Map<Class<?>, Map<Long, Object>>) attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (entitiesByType == null) {
+            entitiesByType = new HashMap<>();
+            attributes.setAttribute(ATTRIBUTE, entitiesByType, RequestAttributes.SCOPE_REQUEST);
+        }
+
+        return entitiesByType.computeIfAbsent(type, key -> new HashMap<>());
+    }
+
+    //endregion
+}
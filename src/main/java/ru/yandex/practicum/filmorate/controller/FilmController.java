@@ -1,18 +1,29 @@
 package ru.yandex.practicum.filmorate.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.yandex.practicum.filmorate.dto.film.CreateFilmRequestDto;
 import ru.yandex.practicum.filmorate.dto.film.FilmDto;
 import ru.yandex.practicum.filmorate.dto.film.UpdateFilmRequestDto;
+import ru.yandex.practicum.filmorate.dto.suggestion.SuggestionDto;
 import ru.yandex.practicum.filmorate.mapper.FilmMapper;
+import ru.yandex.practicum.filmorate.mapper.SuggestionMapper;
 import ru.yandex.practicum.filmorate.model.SortBy;
 import ru.yandex.practicum.filmorate.service.FilmService;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Collection;
 
 /**
@@ -23,11 +34,21 @@ import java.util.Collection;
 @RestController
 @Slf4j
 public final class FilmController {
+    /**
+     * Размер страницы по умолчанию при постраничном получении фильмов.
+     */
+    private static final int DEFAULT_PAGE_SIZE = 100;
+
     /**
      * Сервис для работы с фильмами.
      */
     private final FilmService filmService;
 
+    /**
+     * Сериализатор для потоковой выдачи фильмов.
+     */
+    private final ObjectMapper objectMapper;
+
     //region Фильмы
 
     /**
@@ -45,13 +66,44 @@ public final class FilmController {
 
     /**
      * Получить список всех фильмов.
+     * Если передан хотя бы один из параметров {@code after} и {@code limit}, возвращается страница фильмов,
+     * упорядоченных по идентификатору. Для получения следующей страницы в {@code after} передаётся
+     * идентификатор последнего фильма текущей страницы.
      *
+     * @param after идентификатор фильма, после которого начинается страница.
+     * @param limit максимальное количество фильмов на странице.
      * @return список фильмов.
      */
     @GetMapping
-    public Collection<FilmDto> getAllFilms() {
-        log.info("Запрос на получение списка всех фильмов");
-        return FilmMapper.mapToFilmDtoCollection(this.filmService.getAllFilms());
+    public Collection<FilmDto> getAllFilms(@PositiveOrZero(message = "after не может быть отрицательным") @RequestParam(required = false) Long after,
+                                           @Positive(message = "limit должен быть положительным числом") @Max(value = 1000, message = "limit не может быть больше 1000") @RequestParam(required = false) Integer limit) {
+        if (after == null && limit == null) {
+            log.info("Запрос на получение списка всех фильмов");
+            return FilmMapper.mapToFilmDtoCollection(this.filmService.getAllFilms());
+        }
+
+        log.info("Запрос на получение страницы из {} фильмов после фильма с id = {}", limit, after);
+        return FilmMapper.mapToFilmDtoCollection(this.filmService.getFilmsPage(after == null ? 0 : after, limit == null ? DEFAULT_PAGE_SIZE : limit));
+    }
+
+    /**
+     * Получить список всех фильмов в виде потока NDJSON: по одному фильму в строке.
+     * Фильмы читаются из хранилища постранично и сразу записываются в ответ.
+     *
+     * @return поток фильмов.
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllFilms() {
+        log.info("Запрос на потоковое получение списка всех фильмов");
+        StreamingResponseBody body = outputStream -> this.filmService.forEachFilm(film -> {
+            try {
+                outputStream.write(this.objectMapper.writeValueAsBytes(FilmMapper.mapToFilmDto(film)));
+                outputStream.write('\n');
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
     }
 
     /**
@@ -120,6 +172,21 @@ public final class FilmController {
         return FilmMapper.mapToFilmDtoCollection(filmService.searchFilms(query, by));
     }
 
+    /**
+     * Получить подсказки автодополнения по началу названия фильма или имени режиссёра.
+     * Подсказки упорядочены по убыванию количества лайков фильма или суммы лайков фильмов режиссёра.
+     *
+     * @param prefix начало названия фильма или имени режиссёра.
+     * @param limit  максимальное количество подсказок.
+     * @return список подсказок.
+     */
+    @GetMapping("/suggest")
+    public Collection<SuggestionDto> suggest(@NotNull(message = "prefix не может быть пустым") @RequestParam String prefix,
+                                             @Positive(message = "limit должен быть положительным числом") @Max(value = 20, message = "limit не может быть больше 20") @RequestParam(defaultValue = "10") int limit) {
+        log.info("Запрос на получение {} подсказок по префиксу \"{}\"", limit, prefix);
+        return SuggestionMapper.mapToSuggestionDtoCollection(this.filmService.suggest(prefix, limit));
+    }
+
     /**
      * Обновить фильм.
      *
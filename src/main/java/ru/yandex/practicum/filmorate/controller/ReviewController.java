@@ -1,14 +1,19 @@
 package ru.yandex.practicum.filmorate.controller;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Positive;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.yandex.practicum.filmorate.dto.review.CreateReviewRequestDto;
 import ru.yandex.practicum.filmorate.dto.review.ReviewDto;
 import ru.yandex.practicum.filmorate.dto.review.UpdateReviewRequestDto;
 import ru.yandex.practicum.filmorate.mapper.ReviewMapper;
+import ru.yandex.practicum.filmorate.model.Review;
+import ru.yandex.practicum.filmorate.model.ReviewCursor;
 import ru.yandex.practicum.filmorate.service.ReviewService;
 
 import java.util.Collection;
@@ -21,6 +26,11 @@ import java.util.Collection;
 @RestController
 @Slf4j
 public final class ReviewController {
+    /**
+     * Заголовок ответа с позицией следующей страницы отзывов.
+     */
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     /**
      * Сервис для работы с отзывами.
      */
@@ -42,22 +52,34 @@ public final class ReviewController {
     }
 
     /**
-     * Получить список отзывов.
+     * Получить страницу отзывов, упорядоченных по убыванию полезности, затем по идентификатору.
+     * Если страница заполнена полностью, в заголовке {@value NEXT_CURSOR_HEADER} возвращается позиция
+     * для получения следующей страницы; её нужно передать в параметре {@code cursor}.
      *
      * @param filmId идентификатор фильма.
      * @param count  количество отзывов, которое необходимо получить.
+     * @param cursor позиция, полученная вместе с предыдущей страницей.
      * @return список отзывов.
      */
     @GetMapping()
-    public Collection<ReviewDto> getReviews(@RequestParam(required = false) Long filmId, @RequestParam(defaultValue = "10") int count) {
+    public ResponseEntity<Collection<ReviewDto>> getReviews(@RequestParam(required = false) Long filmId,
+                                                            @Positive(message = "count должен быть положительным числом") @Max(value = 1000, message = "count не может быть больше 1000") @RequestParam(defaultValue = "10") int count,
+                                                            @RequestParam(required = false) String cursor) {
+        Collection<Review> reviews;
         if (filmId == null) {
             log.info("Запрос на получение {} отзывов", count);
-            return ReviewMapper.mapToReviewDtoCollection(this.reviewService.getReviews(count));
+            reviews = this.reviewService.getReviews(cursor, count);
+        } else {
+            log.info("Запрос на получение {} отзывов к фильму с id = {}", count, filmId);
+            reviews = this.reviewService.getFilmReviews(filmId, cursor, count);
         }
 
-        log.info("Запрос на получение {} отзывов к фильму с id = {}", count, filmId);
-        return ReviewMapper.mapToReviewDtoCollection(this.reviewService.getFilmReviews(filmId, count));
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (reviews.size() == count) {
+            response.header(NEXT_CURSOR_HEADER, ReviewCursor.after(reviews.stream().reduce((first, second) -> second).orElseThrow()).encode());
+        }
 
+        return response.body(ReviewMapper.mapToReviewDtoCollection(reviews));
     }
 
     /**
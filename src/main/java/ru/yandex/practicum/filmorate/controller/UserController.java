@@ -1,6 +1,9 @@
 package ru.yandex.practicum.filmorate.controller;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
@@ -146,6 +149,20 @@ public class UserController {
         return UserMapper.mapToUserCollectionDto(this.userService.getCommonFriends(firstUserId, secondUserId));
     }
 
+    /**
+     * Получить пользователей, рекомендуемых в друзья: друзей друзей в порядке убывания количества общих друзей.
+     *
+     * @param userId идентификатор пользователя.
+     * @param limit  максимальное количество пользователей.
+     * @return список пользователей.
+     */
+    @GetMapping("/{userId}/suggestions")
+    public Collection<UserDto> getFriendSuggestions(@PathVariable long userId,
+                                                    @Positive(message = "limit должен быть положительным числом") @Max(value = 100, message = "limit не может быть больше 100") @RequestParam(defaultValue = "10") int limit) {
+        log.info("Запрос на получение рекомендаций друзей для пользователя с id = {}", userId);
+        return UserMapper.mapToUserCollectionDto(this.userService.getFriendSuggestions(userId, limit));
+    }
+
     /**
      * Удалить пользователя из друзей.
      *
@@ -180,15 +197,38 @@ public class UserController {
     //region События
 
     /**
-     * Получить список событий пользователя.
+     * Получить события пользователя в порядке их появления.
+     * Без параметра {@code since} возвращаются последние {@code limit} событий. Для получения новых событий
+     * в {@code since} передаётся идентификатор последнего полученного события.
      *
      * @param userId идентификатор пользователя.
+     * @param since  идентификатор события, после которого начинается список.
+     * @param limit  максимальное количество событий.
      * @return список событий.
      */
     @GetMapping("/{userId}/feed")
-    public Collection<EventDto> getEvents(@PathVariable long userId) {
+    public Collection<EventDto> getEvents(@PathVariable long userId,
+                                          @PositiveOrZero(message = "since не может быть отрицательным") @RequestParam(required = false) Long since,
+                                          @Positive(message = "limit должен быть положительным числом") @Max(value = 1000, message = "limit не может быть больше 1000") @RequestParam(defaultValue = "100") int limit) {
         log.info("Запрос на получение событий пользователя с id = {}", userId);
-        return EventMapper.mapToEventDtoCollection(this.eventService.getUserEvents(userId));
+        return EventMapper.mapToEventDtoCollection(this.eventService.getUserEvents(userId, since, limit));
+    }
+
+    /**
+     * Получить события друзей пользователя в порядке их появления.
+     * Параметры {@code since} и {@code limit} работают так же, как в ленте событий пользователя.
+     *
+     * @param userId идентификатор пользователя.
+     * @param since  идентификатор события, после которого начинается список.
+     * @param limit  максимальное количество событий.
+     * @return список событий.
+     */
+    @GetMapping("/{userId}/feed/friends")
+    public Collection<EventDto> getFriendEvents(@PathVariable long userId,
+                                                @PositiveOrZero(message = "since не может быть отрицательным") @RequestParam(required = false) Long since,
+                                                @Positive(message = "limit должен быть положительным числом") @Max(value = 1000, message = "limit не может быть больше 1000") @RequestParam(defaultValue = "100") int limit) {
+        log.info("Запрос на получение событий друзей пользователя с id = {}", userId);
+        return EventMapper.mapToEventDtoCollection(this.eventService.getFriendEvents(userId, since, limit));
     }
 
     //endregion
@@ -1,38 +1,61 @@
 package ru.yandex.practicum.filmorate.dao;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.IncorrectResultSizeDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
 import org.springframework.util.CollectionUtils;
 import ru.yandex.practicum.filmorate.exception.InternalServerException;
+import ru.yandex.practicum.filmorate.metrics.SlowQueryLog;
 
 import java.sql.PreparedStatement;
 import java.sql.Statement;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * Базовый класс хранилища данных.
+ * Запросы наследников выполняются через методы этого класса, чтобы время каждого запроса учитывалось в {@link SlowQueryLog}.
  */
 public abstract class BaseRepository {
+    /**
+     * Максимальное количество параметров в одном условии IN.
+     */
+    private static final int IN_CLAUSE_CHUNK_SIZE = 500;
+
     @Autowired
     protected JdbcTemplate jdbc;
 
+    /**
+     * Количество строк, отправляемых в БД одним пакетом при пакетной вставке.
+     */
+    @Value("${filmorate.jdbc.batch-size:100}")
+    protected int batchSize;
+
+    /**
+     * Журнал медленных запросов; отсутствует, если журнал выключен или хранилище создано вне контекста Spring.
+     */
+    @Autowired(required = false)
+    protected SlowQueryLog slowQueryLog;
+
     protected long insert(String query, Object... params) {
         GeneratedKeyHolder keyHolder = new GeneratedKeyHolder();
 
-        this.jdbc.update(connection -> {
+        this.timed(query, query, params, () -> this.jdbc.update(connection -> {
             PreparedStatement preparedStatement = connection.prepareStatement(query, Statement.RETURN_GENERATED_KEYS);
             for (int i = 0; i < params.length; i++) {
                 preparedStatement.setObject(i + 1, params[i]);
             }
             return preparedStatement;
-        }, keyHolder);
+        }, keyHolder));
 
         Long id = (Long) Objects.requireNonNull(keyHolder.getKeys()).get("id");
         if (id != null) {
@@ -42,22 +65,23 @@ public abstract class BaseRepository {
         }
     }
 
-    protected <T> void insert(String query, Collection<T> collection, Function<T, List<Object>> paramsSelector) {
-        collection.forEach(e -> {
-            GeneratedKeyHolder keyHolder = new GeneratedKeyHolder();
-            this.jdbc.update(connection -> {
-                PreparedStatement preparedStatement = connection.prepareStatement(query, Statement.RETURN_GENERATED_KEYS);
-                List<Object> params = paramsSelector.apply(e);
-                for (int i = 0; i < params.size(); i++) {
-                    preparedStatement.setObject(i + 1, params.get(i));
-                }
-                return preparedStatement;
-            }, keyHolder);
-        });
+    protected <T> void batchInsert(String query, Collection<T> collection, Function<T, List<Object>> paramsSelector) {
+        if (collection.isEmpty()) {
+            return;
+        }
+
+        // Для плана медленного пакета достаточно параметров первой строки: план у всех строк одинаковый.
+        Object[] firstParams = paramsSelector.apply(collection.iterator().next()).toArray();
+        this.timed(query, query, firstParams, () -> this.jdbc.batchUpdate(query, collection, this.batchSize, (preparedStatement, e) -> {
+            List<Object> params = paramsSelector.apply(e);
+            for (int i = 0; i < params.size(); i++) {
+                preparedStatement.setObject(i + 1, params.get(i));
+            }
+        }));
     }
 
     protected <T> Optional<T> findOne(String query, RowMapper<T> rowMapper, Object... params) {
-        Collection<T> results = this.jdbc.query(query, rowMapper, params);
+        Collection<T> results = this.timed(query, query, params, () -> this.jdbc.query(query, rowMapper, params));
 
         if (CollectionUtils.isEmpty(results)) {
             return Optional.empty();
@@ -69,21 +93,104 @@ public abstract class BaseRepository {
     }
 
     protected <T> Collection<T> findMany(String query, RowMapper<T> rowMapper, Object... params) {
-        return this.jdbc.query(query, rowMapper, params);
+        return this.timed(query, query, params, () -> this.jdbc.query(query, rowMapper, params));
+    }
+
+    protected <T> List<T> findColumn(String query, Class<T> type, Object... params) {
+        return this.timed(query, query, params, () -> this.jdbc.queryForList(query, type, params));
+    }
+
+    protected <T> T findValue(String query, Class<T> type, Object... params) {
+        return this.timed(query, query, params, () -> this.jdbc.queryForObject(query, type, params));
+    }
+
+    protected void findEach(String query, RowCallbackHandler rowCallbackHandler, Object... params) {
+        this.timed(query, query, params, () -> {
+            this.jdbc.query(query, rowCallbackHandler, params);
+            return null;
+        });
+    }
+
+    protected void queryIn(String query, Collection<?> ids, RowCallbackHandler rowCallbackHandler) {
+        List<?> distinctIds = ids.stream().distinct().toList();
+
+        for (int from = 0; from < distinctIds.size(); from += IN_CLAUSE_CHUNK_SIZE) {
+            List<?> chunk = distinctIds.subList(from, Math.min(from + IN_CLAUSE_CHUNK_SIZE, distinctIds.size()));
+            String placeholders = String.join(", ", Collections.nCopies(chunk.size(), "?"));
+            String chunkQuery = String.format(query, placeholders);
+            Object[] params = chunk.toArray();
+            this.timed(query, chunkQuery, params, () -> {
+                this.jdbc.query(chunkQuery, rowCallbackHandler, params);
+                return null;
+            });
+        }
     }
 
     protected void update(String query, Object... params) {
-        int rowsUpdated = this.jdbc.update(query, params);
+        int rowsUpdated = this.execute(query, params);
         if (rowsUpdated == 0) {
             throw new InternalServerException("Не удалось обновить данные");
         }
     }
 
-    protected void delete(String query, long id) {
-        this.jdbc.update(query, id);
+    protected int execute(String query, Object... params) {
+        return this.timed(query, query, params, () -> this.jdbc.update(query, params));
+    }
+
+    protected int delete(String query, long id) {
+        return this.execute(query, id);
     }
 
-    protected void delete(String query, Object... params) {
-        this.jdbc.update(query, params);
+    protected int delete(String query, Object... params) {
+        return this.execute(query, params);
     }
+
+    protected int deleteIn(String query, long id, Collection<?> ids) {
+        List<?> distinctIds = ids.stream().distinct().toList();
+        int rowsDeleted = 0;
+
+        for (int from = 0; from < distinctIds.size(); from += IN_CLAUSE_CHUNK_SIZE) {
+            List<?> chunk = distinctIds.subList(from, Math.min(from + IN_CLAUSE_CHUNK_SIZE, distinctIds.size()));
+            String placeholders = String.join(", ", Collections.nCopies(chunk.size(), "?"));
+
+            String chunkQuery = String.format(query, placeholders);
+            Object[] params = new Object[chunk.size() + 1];
+            params[0] = id;
+            for (int i = 0; i < chunk.size(); i++) {
+                params[i + 1] = chunk.get(i);
+            }
+            rowsDeleted += this.timed(query, chunkQuery, params, () -> this.jdbc.update(chunkQuery, params));
+        }
+
+        return rowsDeleted;
+    }
+
+    //region Facilities
+
+    /**
+     * Выполнить запрос, учитывая время выполнения в журнале медленных запросов, в том числе если запрос завершился ошибкой.
+     *
+     * @param template шаблон запроса, по которому накапливается статистика.
+     * @param query    выполняемый запрос.
+     * @param params   параметры запроса.
+     * @param action   выполнение запроса.
+     * @return результат запроса.
+     */
+    private <T> T timed(String template, String query, Object[] params, Supplier<T> action) {
+        if (this.slowQueryLog == null) {
+            return action.get();
+        }
+
+        long started = System.nanoTime();
+        boolean failed = true;
+        try {
+            T result = action.get();
+            failed = false;
+            return result;
+        } finally {
+            this.slowQueryLog.record(template, query, params, System.nanoTime() - started, failed);
+        }
+    }
+
+    //endregion
 }
@@ -8,7 +8,9 @@ import ru.yandex.practicum.filmorate.exception.InternalServerException;
 import ru.yandex.practicum.filmorate.model.Director;
 import ru.yandex.practicum.filmorate.storage.DirectorStorage;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -69,6 +71,27 @@ public class DirectorRepository extends BaseRepository implements DirectorStorag
         }
     }
 
+    /**
+     * Получить режиссёров по их идентификаторам.
+     *
+     * @param directorIds идентификаторы режиссёров.
+     * @return список найденных режиссёров.
+     */
+    @Override
+    public Collection<Director> getDirectorsByIds(Collection<Long> directorIds) {
+        try {
+            List<Director> directors = new ArrayList<>();
+            this.queryIn(DirectorQueries.GET_DIRECTORS_BY_IDS_QUERY, directorIds, resultSet -> {
+                directors.add(DirectorMapper.mapToDirector(resultSet, resultSet.getRow()));
+            });
+
+            return directors;
+        } catch (Throwable ex) {
+            log.error("Ошибка при получении режиссёров с id = {}: [{}] {}", directorIds, ex.getClass().getSimpleName(), ex.getMessage());
+            throw new InternalServerException();
+        }
+    }
+
     /**
      * Обновить режиссёра.
      *
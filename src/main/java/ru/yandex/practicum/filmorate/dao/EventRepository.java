@@ -2,6 +2,8 @@ package ru.yandex.practicum.filmorate.dao;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 import ru.yandex.practicum.filmorate.dao.mapper.EventMapper;
 import ru.yandex.practicum.filmorate.dao.queries.EventQueries;
 import ru.yandex.practicum.filmorate.exception.InternalServerException;
@@ -10,7 +12,14 @@ import ru.yandex.practicum.filmorate.model.EventOperation;
 import ru.yandex.practicum.filmorate.model.EventType;
 import ru.yandex.practicum.filmorate.storage.EventStorage;
 
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
 
 /**
  * Хранилище событий.
@@ -18,6 +27,22 @@ import java.util.Collection;
 @Repository
 @Slf4j
 public class EventRepository extends BaseRepository implements EventStorage {
+    /**
+     * Количество идентификаторов событий, получаемых из последовательности одним запросом.
+     * Совпадает с шагом последовательности {@code events_id_seq}.
+     */
+    private static final int EVENT_ID_BLOCK_SIZE = 100;
+
+    /**
+     * Следующий выдаваемый идентификатор события.
+     */
+    private long nextEventId;
+
+    /**
+     * Идентификатор, следующий за последним идентификатором текущего блока.
+     */
+    private long eventIdBlockEnd;
+
     /**
      * Создать новое событие.
      *
@@ -25,31 +50,105 @@ public class EventRepository extends BaseRepository implements EventStorage {
      * @param eventType тип события.
      * @param operation тип операции.
      * @param entityId  идентификатор сущности, связанной с событием.
+     * @return событие.
      */
     @Override
-    public void createEvent(long userId, EventType eventType, EventOperation operation, long entityId) {
+    public Event createEvent(long userId, EventType eventType, EventOperation operation, long entityId) {
+        Event event = this.prepareEvent(userId, eventType, operation, entityId);
+        this.saveEvents(List.of(event));
+
+        return event;
+    }
+
+    /**
+     * Подготовить событие к записи: выдать ему идентификатор и время без обращения к таблице событий.
+     * Идентификаторы выдаются по возрастанию из блоков, получаемых из последовательности БД,
+     * поэтому идентификаторы, выданные разными экземплярами приложения, не совпадают.
+     *
+     * @param userId    идентификатор пользователя.
+     * @param eventType тип события.
+     * @param operation тип операции.
+     * @param entityId  идентификатор сущности, связанной с событием.
+     * @return событие.
+     */
+    public Event prepareEvent(long userId, EventType eventType, EventOperation operation, long entityId) {
+        return Event.builder()
+                .id(this.nextEventId())
+                .timestamp(Instant.now().truncatedTo(ChronoUnit.MILLIS))
+                .userId(userId)
+                .eventType(eventType)
+                .operation(operation)
+                .entityId(entityId)
+                .build();
+    }
+
+    /**
+     * Записать подготовленные события пакетом в отдельной транзакции: пакет записывается целиком или не записывается.
+     *
+     * @param events события.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void saveEvents(Collection<Event> events) {
         try {
-            long id = this.insert(EventQueries.CREATE_EVENT_QUERY, userId, eventType.toString(), operation.toString(), entityId);
-            log.debug("Событие {} {} успешно добавлено с id = {}", operation, eventType, id);
+            this.batchInsert(EventQueries.CREATE_EVENT_QUERY, events, event -> List.of(
+                    event.getId(),
+                    Timestamp.from(event.getTimestamp()),
+                    event.getUserId(),
+                    event.getEventType().toString(),
+                    event.getOperation().toString(),
+                    event.getEntityId()
+            ));
+            log.debug("Записано событий: {}", events.size());
         } catch (Throwable ex) {
-            log.error("Ошибка при добавлении события {} {}: [{}] {}", operation, eventType, ex.getClass().getSimpleName(), ex.getMessage());
+            log.error("Ошибка при записи {} событий: [{}] {}", events.size(), ex.getClass().getSimpleName(), ex.getMessage());
             throw new InternalServerException();
         }
     }
 
     /**
-     * Получить список событий пользователя.
+     * Получить события пользователя в порядке их появления.
      *
-     * @param userId идентификатор пользователя.
+     * @param userId  идентификатор пользователя.
+     * @param sinceId идентификатор события, после которого начинается список, если предоставлен.
+     * @param limit   максимальное количество событий.
      * @return список событий.
      */
     @Override
-    public Collection<Event> getUserEvents(long userId) {
+    public Collection<Event> getUserEvents(long userId, Long sinceId, int limit) {
         try {
-            return this.findMany(EventQueries.GET_USER_EVENTS_QUERY, EventMapper::mapToEvent, userId);
+            if (sinceId != null) {
+                return this.findMany(EventQueries.GET_USER_EVENTS_SINCE_QUERY, EventMapper::mapToEvent, userId, sinceId, limit);
+            }
+
+            List<Event> events = new ArrayList<>(this.findMany(EventQueries.GET_USER_LAST_EVENTS_QUERY, EventMapper::mapToEvent, userId, limit));
+            Collections.reverse(events);
+
+            return events;
         } catch (Throwable ex) {
-            log.error("Ошибка при получении списка режиссёров: [{}] {}", ex.getClass().getSimpleName(), ex.getMessage());
+            log.error("Ошибка при получении списка событий пользователя с id = {}: [{}] {}", userId, ex.getClass().getSimpleName(), ex.getMessage());
             throw new InternalServerException();
         }
     }
-}
\ No newline at end of file
+
+    //region Facilities
+
+    /**
+     * Выдать идентификатор события, получив из последовательности новый блок, если текущий исчерпан.
+     */
+    private synchronized long nextEventId() {
+        if (this.nextEventId == this.eventIdBlockEnd) {
+            try {
+                Long blockStart = this.findValue(EventQueries.GET_NEXT_EVENT_ID_BLOCK_QUERY, Long.class);
+                this.nextEventId = Objects.requireNonNull(blockStart);
+                this.eventIdBlockEnd = blockStart + EVENT_ID_BLOCK_SIZE;
+            } catch (Throwable ex) {
+                log.error("Ошибка при получении блока идентификаторов событий: [{}] {}", ex.getClass().getSimpleName(), ex.getMessage());
+                throw new InternalServerException();
+            }
+        }
+
+        return this.nextEventId++;
+    }
+
+    //endregion
+}
@@ -2,6 +2,7 @@ package ru.yandex.practicum.filmorate.dao;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import ru.yandex.practicum.filmorate.dao.mapper.BooleanMapper;
 import ru.yandex.practicum.filmorate.dao.mapper.DirectorMapper;
 import ru.yandex.practicum.filmorate.dao.mapper.FilmMapper;
@@ -17,13 +18,13 @@ import ru.yandex.practicum.filmorate.model.SortBy;
 import ru.yandex.practicum.filmorate.storage.FilmStorage;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -54,9 +55,7 @@ public class FilmRepository extends BaseRepository implements FilmStorage {
 
             log.debug("Фильм {} успешно добавлен с id = {}", film.getName(), id);
 
-            film.setId(id);
-            film.setDirectors(this.getFilmDirectors(id));
-            film.setGenres(this.getFilmGenres(id));
+            this.loadGenresAndDirectors(List.of(film));
 
             return film;
         } catch (Throwable ex) {
@@ -73,12 +72,9 @@ public class FilmRepository extends BaseRepository implements FilmStorage {
     @Override
     public Collection<Film> getAllFilms() {
         try {
-            Collection<Film> films = jdbc.query(FilmQueries.GET_ALL_FILMS_QUERY, FilmMapper::mapToFilm);
+            Collection<Film> films = this.findMany(FilmQueries.GET_ALL_FILMS_QUERY, FilmMapper::mapToFilm);
 
-            films.forEach(film -> {
-                film.setDirectors(this.getFilmDirectors(film.getId()));
-                film.setGenres(this.getFilmGenres(film.getId()));
-            });
+            this.loadGenresAndDirectors(films);
 
             return films;
         } catch (Throwable ex) {
@@ -88,58 +84,59 @@ public class FilmRepository extends BaseRepository implements FilmStorage {
     }
 
     /**
-     * Получить список популярных фильмов, отсортированный по количеству лайков.
+     * Получить страницу фильмов, упорядоченных по идентификатору.
      *
-     * @param count   количество фильмов, которые необходимо получить.
-     * @param genreId идентификатор жанра, по которому необходимо произвести фильтрацию, если предоставлен.
-     * @param year    год выпуска фильма, по которому необходимо произвести фильтрацию, если предоставлен.
+     * @param afterId идентификатор фильма, после которого начинается страница.
+     * @param limit   максимальное количество фильмов на странице.
      * @return список фильмов.
      */
     @Override
-    public Collection<Film> getPopularFilms(long count, Long genreId, Integer year) {
+    public Collection<Film> getFilmsPage(long afterId, int limit) {
         try {
-            Collection<Film> films;
-            if (genreId != null && year != null) {
-                films = this.findMany(FilmQueries.GET_POPULAR_FILMS_QUERY.replace("1 = 1", String.format("fg.genre_id = %d AND EXTRACT (YEAR FROM f.release_date) = %d", genreId, year)), FilmMapper::mapToFilm, count);
-            } else if (genreId != null) {
-                films = this.findMany(FilmQueries.GET_POPULAR_FILMS_QUERY.replace("1 = 1", String.format("fg.genre_id = %d", genreId)), FilmMapper::mapToFilm, count);
-            } else if (year != null) {
-                films = this.findMany(FilmQueries.GET_POPULAR_FILMS_QUERY.replace("1 = 1", String.format("EXTRACT (YEAR FROM f.release_date) = %d", year)), FilmMapper::mapToFilm, count);
-            } else {
-                films = this.findMany(FilmQueries.GET_POPULAR_FILMS_QUERY, FilmMapper::mapToFilm, count);
-            }
+            Collection<Film> films = this.findMany(FilmQueries.GET_FILMS_PAGE_QUERY, FilmMapper::mapToFilm, afterId, limit);
 
-            films.forEach(film -> {
-                film.setDirectors(this.getFilmDirectors(film.getId()));
-                film.setGenres(this.getFilmGenres(film.getId()));
-            });
+            this.loadGenresAndDirectors(films);
 
             return films;
         } catch (Throwable ex) {
-            log.error("Ошибка при получении списка популярных фильмов: [{}] {}", ex.getClass().getSimpleName(), ex.getMessage());
+            log.error("Ошибка при получении страницы фильмов после id = {}: [{}] {}", afterId, ex.getClass().getSimpleName(), ex.getMessage());
             throw new InternalServerException();
         }
     }
 
     /**
-     * Получить список фильмов, рекомендуемых для пользователя.
+     * Получить список популярных фильмов, отсортированный по количеству лайков.
      *
-     * @param userId идентификатор пользователя.
+     * @param count   количество фильмов, которые необходимо получить.
+     * @param genreId идентификатор жанра, по которому необходимо произвести фильтрацию, если предоставлен.
+     * @param year    год выпуска фильма, по которому необходимо произвести фильтрацию, если предоставлен.
      * @return список фильмов.
      */
     @Override
-    public Collection<Film> getRecommendedFilms(long userId) {
+    public Collection<Film> getPopularFilms(long count, Long genreId, Integer year) {
         try {
-            Collection<Film> films = this.findMany(FilmQueries.GET_RECOMMENDED_FILMS_QUERY, FilmMapper::mapToFilm, userId, userId, userId);
+            List<String> conditions = new ArrayList<>();
+            List<Object> params = new ArrayList<>();
+            if (genreId != null) {
+                conditions.add(FilmQueries.POPULAR_FILMS_GENRE_CONDITION);
+                params.add(genreId);
+            }
+            if (year != null) {
+                conditions.add(FilmQueries.POPULAR_FILMS_YEAR_CONDITION);
+                params.add(year);
+            }
+            params.add(count);
 
-            films.forEach(film -> {
-                film.setDirectors(this.getFilmDirectors(film.getId()));
-                film.setGenres(this.getFilmGenres(film.getId()));
-            });
+            String query = conditions.isEmpty()
+                    ? FilmQueries.GET_POPULAR_FILMS_QUERY
+                    : FilmQueries.GET_POPULAR_FILMS_QUERY.replace("1 = 1", String.join(" AND ", conditions));
+            Collection<Film> films = this.findMany(query, FilmMapper::mapToFilm, params.toArray());
+
+            this.loadGenresAndDirectors(films);
 
             return films;
         } catch (Throwable ex) {
-            log.error("Ошибка при получении списка рекомендуемых фильмов для пользователя с id = {}: [{}] {}", userId, ex.getClass().getSimpleName(), ex.getMessage());
+            log.error("Ошибка при получении списка популярных фильмов: [{}] {}", ex.getClass().getSimpleName(), ex.getMessage());
             throw new InternalServerException();
         }
     }
@@ -160,6 +157,50 @@ public class FilmRepository extends BaseRepository implements FilmStorage {
         }
     }
 
+    /**
+     * Проверить существование фильма, не загружая его.
+     *
+     * @param filmId идентификатор фильма.
+     * @return признак, существует ли фильм.
+     */
+    @Override
+    public boolean isFilmExist(long filmId) {
+        try {
+            return this.findOne(FilmQueries.IS_FILM_EXISTS_QUERY, BooleanMapper::mapToBoolean, filmId).orElse(false);
+        } catch (Throwable ex) {
+            log.error("Ошибка при проверке существования фильма с id = {}: [{}] {}", filmId, ex.getClass().getSimpleName(), ex.getMessage());
+            throw new InternalServerException();
+        }
+    }
+
+    /**
+     * Получить фильмы по списку идентификаторов.
+     *
+     * @param filmIds список идентификаторов фильмов.
+     * @return список фильмов в порядке следования идентификаторов; отсутствующие фильмы пропускаются.
+     */
+    @Override
+    public Collection<Film> getFilmsByIds(List<Long> filmIds) {
+        try {
+            Map<Long, Film> filmsById = new HashMap<>();
+            this.queryIn(FilmQueries.GET_FILMS_BY_IDS_QUERY, filmIds, resultSet -> {
+                Film film = FilmMapper.mapToFilm(resultSet, resultSet.getRow());
+                filmsById.put(film.getId(), film);
+            });
+
+            List<Film> films = filmIds.stream()
+                    .map(filmsById::get)
+                    .filter(Objects::nonNull)
+                    .toList();
+            this.loadGenresAndDirectors(films);
+
+            return films;
+        } catch (Throwable ex) {
+            log.error("Ошибка при получении фильмов по списку идентификаторов: [{}] {}", ex.getClass().getSimpleName(), ex.getMessage());
+            throw new InternalServerException();
+        }
+    }
+
     /**
      * Получить список фильмов режиссёра.
      *
@@ -179,10 +220,7 @@ public class FilmRepository extends BaseRepository implements FilmStorage {
 
             Collection<Film> films = this.findMany(query, FilmMapper::mapToFilm, directorId);
 
-            films.forEach(film -> {
-                film.setDirectors(this.getFilmDirectors(film.getId()));
-                film.setGenres(this.getFilmGenres(film.getId()));
-            });
+            this.loadGenresAndDirectors(films);
 
             return films;
         } catch (Throwable ex) {
@@ -202,7 +240,8 @@ public class FilmRepository extends BaseRepository implements FilmStorage {
     public Collection<Film> getCommonFilms(long userId, long friendId) {
         try {
             Collection<Film> films = this.findMany(FilmQueries.GET_COMMON_FILMS_QUERY, FilmMapper::mapToFilm, userId, friendId);
-            addFilmGenresDirectors(films);
+            this.loadGenresAndDirectors(films);
+
             return films;
         } catch (Throwable ex) {
             log.error("Ошибка при получении списка общих фильмов пользователей с идентификаторами {}, {}: [{}] {}", userId, friendId, ex.getClass().getSimpleName(), ex.getMessage());
@@ -210,47 +249,6 @@ public class FilmRepository extends BaseRepository implements FilmStorage {
         }
     }
 
-    /**
-     * Добавить режисёров и жанры к фильмам
-     *
-     * @param films список фильмов для добавления
-     */
-    private void addFilmGenresDirectors(Collection<Film> films) {
-        List<Long> filmIds = films.stream().map(Film::getId).toList();
-        StringBuilder answer = new StringBuilder(" ( ");
-        for (Long id : filmIds) {
-            answer.append(id);
-        }
-        answer.append(" )");
-        List<Map<String, Object>> genres = jdbc.queryForList(FilmQueries.GET_FILMS_GENRES_QUERY + answer);
-        List<Map<String, Object>> directors = jdbc.queryForList(FilmQueries.GET_FILMS_DIRECTORS_QUERY + answer);
-
-        Map<Long, List<Genre>> genresByFilmId = new HashMap<>();
-        for (Map<String, Object> row : genres) {
-            Long filmId = (Long) row.get("film_id");
-            Long genreId = (Long) row.get("genre_id");
-            String genreName = (String) row.get("genre_name");
-            Genre genre = new Genre(genreId, genreName);
-            genresByFilmId.computeIfAbsent(filmId, k -> new ArrayList<>()).add(genre);
-        }
-
-        Map<Long, List<Director>> directorsByFilmId = new HashMap<>();
-        for (Map<String, Object> row : directors) {
-            Long filmId = (Long) row.get("film_id");
-            Long genreId = (Long) row.get("director_id");
-            String genreName = (String) row.get("director_name");
-            Director director = new Director(genreId, genreName);
-            directorsByFilmId.computeIfAbsent(filmId, k -> new ArrayList<>()).add(director);
-        }
-
-        for (Film film : films) {
-            List<Genre> filmGenres = genresByFilmId.getOrDefault(film.getId(), Collections.emptyList());
-            film.setGenres(filmGenres);
-            List<Director> filmDirectors = directorsByFilmId.getOrDefault(film.getId(), Collections.emptyList());
-            film.setDirectors(filmDirectors);
-        }
-    }
-
     /**
      * Получить список фильмов, подходящих под условие поиска.
      *
@@ -261,36 +259,27 @@ public class FilmRepository extends BaseRepository implements FilmStorage {
     @Override
     public Collection<Film> searchFilms(String query, String by) {
         try {
-            Collection<Film> films;
-
-            if (by == null || by.isBlank()) {
-                films = this.findMany(FilmQueries.SEARCH_FILMS_QUERY, FilmMapper::mapToFilm);
-            } else {
-                Set<FilmSearchBy> fields = Arrays.stream(by.split(","))
-                        .map(String::toUpperCase)
-                        .map(FilmSearchBy::valueOf)
-                        .collect(Collectors.toSet());
-
-                if (fields.size() == 1) {
-                    if (fields.contains(FilmSearchBy.TITLE)) {
-                        films = this.findMany(FilmQueries.SEARCH_FILMS_QUERY.replace("1 = 1", "f.name ILIKE '%" + query + "%'"), FilmMapper::mapToFilm);
-                    } else if (fields.contains(FilmSearchBy.DIRECTOR)) {
-                        films = this.findMany(FilmQueries.SEARCH_FILMS_QUERY.replace("1 = 1", "d.name ILIKE '%" + query + "%'"), FilmMapper::mapToFilm);
-                    } else {
-                        throw new InternalServerException("Не удалось определить поле для поиска");
-                    }
-                } else if (fields.size() == 2 && fields.containsAll(EnumSet.of(FilmSearchBy.TITLE, FilmSearchBy.DIRECTOR))) {
-                    films = this.findMany(FilmQueries.SEARCH_FILMS_QUERY.replace("1 = 1", "f.name ILIKE '%" + query + "%' OR d.name ILIKE '%" + query + "%'"), FilmMapper::mapToFilm);
-                } else {
-                    throw new InternalServerException("Некорректный набор полей для поиска");
-                }
-
-                films.forEach(film -> {
-                    film.setDirectors(this.getFilmDirectors(film.getId()));
-                    film.setGenres(this.getFilmGenres(film.getId()));
-                });
+            Set<FilmSearchBy> fields = FilmSearchBy.parse(by);
+
+            List<String> conditions = new ArrayList<>();
+            List<Object> params = new ArrayList<>();
+            String pattern = "%" + escapeLikePattern(query) + "%";
+            if (fields.contains(FilmSearchBy.TITLE)) {
+                conditions.add(FilmQueries.SEARCH_FILMS_TITLE_CONDITION);
+                params.add(pattern);
+            }
+            if (fields.contains(FilmSearchBy.DIRECTOR)) {
+                conditions.add(FilmQueries.SEARCH_FILMS_DIRECTOR_CONDITION);
+                params.add(pattern);
             }
 
+            String sql = conditions.isEmpty()
+                    ? FilmQueries.SEARCH_FILMS_QUERY
+                    : FilmQueries.SEARCH_FILMS_QUERY.replace("1 = 1", "(" + String.join(" OR ", conditions) + ")");
+            Collection<Film> films = this.findMany(sql, FilmMapper::mapToFilm, params.toArray());
+
+            this.loadGenresAndDirectors(films);
+
             return films;
         } catch (Throwable ex) {
             log.error("Ошибка при поиске фильмов: [{}] {}", ex.getClass().getSimpleName(), ex.getMessage());
@@ -304,12 +293,13 @@ public class FilmRepository extends BaseRepository implements FilmStorage {
      * @param film фильм.
      */
     @Override
+    @Transactional
     public void updateFilm(Film film) {
         try {
             this.update(FilmQueries.UPDATE_FILM_QUERY, film.getName(), film.getDescription(), film.getReleaseDate().toString(), film.getDuration(), film.getMpa().getId(), film.getId());
 
-            addDirectorsToFilm(film.getId(), film.getDirectors());
-            addGenresToFilm(film.getId(), film.getGenres());
+            updateFilmDirectors(film.getId(), film.getDirectors());
+            updateFilmGenres(film.getId(), film.getGenres());
 
             log.debug("Фильм с id = {} успешно обновлен", film.getId());
         } catch (Throwable ex) {
@@ -335,6 +325,43 @@ public class FilmRepository extends BaseRepository implements FilmStorage {
         }
     }
 
+    /**
+     * Экранировать служебные символы шаблона LIKE.
+     *
+     * @param value строка.
+     * @return экранированная строка.
+     */
+    private static String escapeLikePattern(String value) {
+        return value.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+
+    /**
+     * Заполнить жанры и режиссёров у списка фильмов.
+     * Связи загружаются для всех фильмов сразу, а не отдельным запросом на каждый фильм.
+     *
+     * @param films список фильмов.
+     */
+    private void loadGenresAndDirectors(Collection<Film> films) {
+        Map<Long, List<Film>> filmsById = new HashMap<>();
+        films.forEach(film -> {
+            film.setGenres(new LinkedHashSet<>());
+            film.setDirectors(new LinkedHashSet<>());
+            filmsById.computeIfAbsent(film.getId(), id -> new ArrayList<>()).add(film);
+        });
+
+        this.queryIn(FilmQueries.GET_FILMS_GENRES_QUERY, filmsById.keySet(), resultSet -> {
+            Genre genre = GenreMapper.mapToGenre(resultSet, resultSet.getRow());
+            filmsById.get(resultSet.getLong("film_id")).forEach(film -> film.getGenres().add(genre));
+        });
+
+        this.queryIn(FilmQueries.GET_FILMS_DIRECTORS_QUERY, filmsById.keySet(), resultSet -> {
+            Director director = DirectorMapper.mapToDirector(resultSet, resultSet.getRow());
+            filmsById.get(resultSet.getLong("film_id")).forEach(film -> film.getDirectors().add(director));
+        });
+    }
+
     //endregion
 
     // region Режиссёры
@@ -347,14 +374,37 @@ public class FilmRepository extends BaseRepository implements FilmStorage {
      */
     private void addDirectorsToFilm(long filmId, Collection<Director> directors) {
         try {
-            this.delete(FilmQueries.CLEAR_DIRECTORS_FROM_FILM_QUERY, filmId);
-            this.insert(FilmQueries.ADD_DIRECTOR_TO_FILM_QUERY, directors, (d) -> List.of(filmId, d.getId()));
+            Set<Long> directorIds = directors.stream().map(Director::getId).collect(Collectors.toCollection(LinkedHashSet::new));
+            this.batchInsert(FilmQueries.ADD_DIRECTOR_TO_FILM_QUERY, directorIds, (directorId) -> List.of(filmId, directorId));
         } catch (Throwable ex) {
             log.error("Ошибка при добавлении режиссёров для фильма с id = {}: [{}] {}", filmId, ex.getClass().getSimpleName(), ex.getMessage());
             throw new InternalServerException();
         }
     }
 
+    /**
+     * Привести режиссёров фильма к переданному списку.
+     * Удаляются и добавляются только связи, которые действительно изменились.
+     *
+     * @param filmId    идентификатор фильма.
+     * @param directors список режиссёров.
+     */
+    private void updateFilmDirectors(long filmId, Collection<Director> directors) {
+        try {
+            Set<Long> storedIds = new HashSet<>(this.findColumn(FilmQueries.GET_FILM_DIRECTOR_IDS_QUERY, Long.class, filmId));
+            Set<Long> directorIds = directors.stream().map(Director::getId).collect(Collectors.toCollection(LinkedHashSet::new));
+
+            List<Long> removedIds = storedIds.stream().filter(id -> !directorIds.contains(id)).toList();
+            List<Long> addedIds = directorIds.stream().filter(id -> !storedIds.contains(id)).toList();
+
+            this.deleteIn(FilmQueries.REMOVE_DIRECTORS_FROM_FILM_QUERY, filmId, removedIds);
+            this.batchInsert(FilmQueries.ADD_DIRECTOR_TO_FILM_QUERY, addedIds, (directorId) -> List.of(filmId, directorId));
+        } catch (Throwable ex) {
+            log.error("Ошибка при обновлении режиссёров для фильма с id = {}: [{}] {}", filmId, ex.getClass().getSimpleName(), ex.getMessage());
+            throw new InternalServerException();
+        }
+    }
+
     /**
      * Получить список режиссёров фильма по идентификатору фильма.
      *
@@ -383,14 +433,37 @@ public class FilmRepository extends BaseRepository implements FilmStorage {
      */
     private void addGenresToFilm(long filmId, Collection<Genre> genres) {
         try {
-            this.delete(FilmQueries.CLEAR_GENRES_FROM_FILM_QUERY, filmId);
-            this.insert(FilmQueries.ADD_GENRE_TO_FILM_QUERY, genres, (g) -> List.of(filmId, g.getId()));
+            Set<Long> genreIds = genres.stream().map(Genre::getId).collect(Collectors.toCollection(LinkedHashSet::new));
+            this.batchInsert(FilmQueries.ADD_GENRE_TO_FILM_QUERY, genreIds, (genreId) -> List.of(filmId, genreId));
         } catch (Throwable ex) {
             log.error("Ошибка при добавлении жанров для фильма с id = {}: [{}] {}", filmId, ex.getClass().getSimpleName(), ex.getMessage());
             throw new InternalServerException();
         }
     }
 
+    /**
+     * Привести жанры фильма к переданному списку.
+     * Удаляются и добавляются только связи, которые действительно изменились.
+     *
+     * @param filmId идентификатор фильма.
+     * @param genres список жанров.
+     */
+    private void updateFilmGenres(long filmId, Collection<Genre> genres) {
+        try {
+            Set<Long> storedIds = new HashSet<>(this.findColumn(FilmQueries.GET_FILM_GENRE_IDS_QUERY, Long.class, filmId));
+            Set<Long> genreIds = genres.stream().map(Genre::getId).collect(Collectors.toCollection(LinkedHashSet::new));
+
+            List<Long> removedIds = storedIds.stream().filter(id -> !genreIds.contains(id)).toList();
+            List<Long> addedIds = genreIds.stream().filter(id -> !storedIds.contains(id)).toList();
+
+            this.deleteIn(FilmQueries.REMOVE_GENRES_FROM_FILM_QUERY, filmId, removedIds);
+            this.batchInsert(FilmQueries.ADD_GENRE_TO_FILM_QUERY, addedIds, (genreId) -> List.of(filmId, genreId));
+        } catch (Throwable ex) {
+            log.error("Ошибка при обновлении жанров для фильма с id = {}: [{}] {}", filmId, ex.getClass().getSimpleName(), ex.getMessage());
+            throw new InternalServerException();
+        }
+    }
+
     /**
      * Получить список жанров фильма по идентификатору фильма.
      *
@@ -418,9 +491,11 @@ public class FilmRepository extends BaseRepository implements FilmStorage {
      * @param userId идентификатор пользователя.
      */
     @Override
+    @Transactional
     public void addLikeToFilm(long filmId, long userId) {
         try {
             this.insert(FilmQueries.ADD_LIKE_TO_FILM_QUERY, filmId, userId);
+            this.update(FilmQueries.CHANGE_FILM_LIKES_COUNT_QUERY, 1, filmId);
             log.debug("Пользователь с id = {} поставил лайк фильму id = {}", userId, filmId);
         } catch (Throwable ex) {
             log.error("Ошибка при добавлении лайка пользователя с id = {} для фильма с id = {}: [{}] {}", userId, filmId, ex.getClass().getSimpleName(), ex.getMessage());
@@ -452,9 +527,12 @@ public class FilmRepository extends BaseRepository implements FilmStorage {
      * @param userId идентификатор пользователя.
      */
     @Override
+    @Transactional
     public void removeLikeFromFilm(long filmId, long userId) {
         try {
-            this.delete(FilmQueries.REMOVE_LIKE_FROM_FILM_QUERY, filmId, userId);
+            if (this.delete(FilmQueries.REMOVE_LIKE_FROM_FILM_QUERY, filmId, userId) > 0) {
+                this.update(FilmQueries.CHANGE_FILM_LIKES_COUNT_QUERY, -1, filmId);
+            }
             log.debug("Пользователь с id = {} удалил лайк у фильма с id = {}", userId, filmId);
         } catch (Throwable ex) {
             log.error("Ошибка при удалении лайка пользователя с id = {} у фильма с id = {}: [{}] {}", userId, filmId, ex.getClass().getSimpleName(), ex.getMessage());
@@ -462,5 +540,78 @@ public class FilmRepository extends BaseRepository implements FilmStorage {
         }
     }
 
+    /**
+     * Подсчитать лайки всех фильмов по таблице лайков.
+     *
+     * @return количество лайков по идентификатору фильма; фильмы без лайков отсутствуют.
+     */
+    @Override
+    public Map<Long, Long> getFilmsLikesCount() {
+        try {
+            Map<Long, Long> likesCount = new HashMap<>();
+            this.findEach(FilmQueries.GET_FILMS_LIKES_COUNT_QUERY, resultSet -> {
+                likesCount.put(resultSet.getLong("id"), resultSet.getLong("likes_count"));
+            });
+
+            return likesCount;
+        } catch (Throwable ex) {
+            log.error("Ошибка при подсчёте лайков фильмов: [{}] {}", ex.getClass().getSimpleName(), ex.getMessage());
+            throw new InternalServerException();
+        }
+    }
+
+    /**
+     * Получить идентификаторы фильмов, которые понравились пользователю.
+     *
+     * @param userId идентификатор пользователя.
+     * @return список идентификаторов фильмов.
+     */
+    @Override
+    public Collection<Long> getUserLikedFilmIds(long userId) {
+        try {
+            return this.findMany(FilmQueries.GET_USER_LIKED_FILM_IDS_QUERY, (resultSet, rowNum) -> resultSet.getLong("film_id"), userId);
+        } catch (Throwable ex) {
+            log.error("Ошибка при получении фильмов, которые понравились пользователю с id = {}: [{}] {}", userId, ex.getClass().getSimpleName(), ex.getMessage());
+            throw new InternalServerException();
+        }
+    }
+
+    /**
+     * Получить идентификаторы понравившихся фильмов всех пользователей.
+     *
+     * @return идентификаторы фильмов по идентификатору пользователя.
+     */
+    @Override
+    public Map<Long, List<Long>> getAllUsersLikedFilmIds() {
+        try {
+            Map<Long, List<Long>> likedFilmIds = new HashMap<>();
+            this.findEach(FilmQueries.GET_ALL_LIKES_QUERY, resultSet -> {
+                likedFilmIds.computeIfAbsent(resultSet.getLong("user_id"), id -> new ArrayList<>()).add(resultSet.getLong("film_id"));
+            });
+
+            return likedFilmIds;
+        } catch (Throwable ex) {
+            log.error("Ошибка при получении лайков всех пользователей: [{}] {}", ex.getClass().getSimpleName(), ex.getMessage());
+            throw new InternalServerException();
+        }
+    }
+
+    /**
+     * Пересчитать счётчики лайков фильмов, разошедшиеся с таблицей лайков.
+     *
+     * @return количество исправленных фильмов.
+     */
+    @Override
+    public int reconcileLikesCount() {
+        try {
+            int updated = this.execute(FilmQueries.RECONCILE_FILMS_LIKES_COUNT_QUERY);
+            log.debug("Пересчитаны счётчики лайков у {} фильмов", updated);
+            return updated;
+        } catch (Throwable ex) {
+            log.error("Ошибка при пересчёте счётчиков лайков фильмов: [{}] {}", ex.getClass().getSimpleName(), ex.getMessage());
+            throw new InternalServerException();
+        }
+    }
+
     //endregion
-}
\ No newline at end of file
+}
@@ -8,7 +8,9 @@ import ru.yandex.practicum.filmorate.exception.InternalServerException;
 import ru.yandex.practicum.filmorate.model.Genre;
 import ru.yandex.practicum.filmorate.storage.GenreStorage;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -47,4 +49,25 @@ public class GenreRepository extends BaseRepository implements GenreStorage {
             throw new InternalServerException();
         }
     }
+
+    /**
+     * Получить жанры по их идентификаторам.
+     *
+     * @param genreIds идентификаторы жанров.
+     * @return список найденных жанров.
+     */
+    @Override
+    public Collection<Genre> getGenresByIds(Collection<Long> genreIds) {
+        try {
+            List<Genre> genres = new ArrayList<>();
+            this.queryIn(GenreQueries.GET_GENRES_BY_IDS_QUERY, genreIds, resultSet -> {
+                genres.add(GenreMapper.mapToGenre(resultSet, resultSet.getRow()));
+            });
+
+            return genres;
+        } catch (Throwable ex) {
+            log.error("Ошибка при поиске жанров с id = {}: [{}] {}", genreIds, ex.getClass().getSimpleName(), ex.getMessage());
+            throw new InternalServerException();
+        }
+    }
 }
\ No newline at end of file
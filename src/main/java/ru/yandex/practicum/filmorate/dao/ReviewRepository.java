@@ -2,14 +2,18 @@ package ru.yandex.practicum.filmorate.dao;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import ru.yandex.practicum.filmorate.dao.mapper.BooleanMapper;
 import ru.yandex.practicum.filmorate.dao.mapper.ReviewMapper;
 import ru.yandex.practicum.filmorate.dao.queries.ReviewQueries;
 import ru.yandex.practicum.filmorate.exception.InternalServerException;
 import ru.yandex.practicum.filmorate.model.Review;
+import ru.yandex.practicum.filmorate.model.ReviewCursor;
 import ru.yandex.practicum.filmorate.storage.ReviewStorage;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -39,15 +43,16 @@ public class ReviewRepository extends BaseRepository implements ReviewStorage {
     }
 
     /**
-     * Получить список отзывов.
+     * Получить страницу отзывов, упорядоченных по убыванию полезности, затем по идентификатору.
      *
+     * @param after позиция, после которой начинается страница; {@code null} для первой страницы.
      * @param count количество отзывов, которое необходимо получить.
      * @return список отзывов.
      */
     @Override
-    public Collection<Review> getReviews(int count) {
+    public Collection<Review> getReviews(ReviewCursor after, int count) {
         try {
-            return this.findMany(ReviewQueries.GET_REVIEWS_QUERY, ReviewMapper::mapToReview, count);
+            return this.findReviews(null, after, count);
         } catch (Throwable ex) {
             log.error("Ошибка при получении списка всех отзывов: [{}] {}", ex.getClass().getSimpleName(), ex.getMessage());
             throw new InternalServerException();
@@ -55,16 +60,17 @@ public class ReviewRepository extends BaseRepository implements ReviewStorage {
     }
 
     /**
-     * Получить список отзывов к фильму.
+     * Получить страницу отзывов к фильму, упорядоченных по убыванию полезности, затем по идентификатору.
      *
      * @param filmId идентификатор фильма.
+     * @param after  позиция, после которой начинается страница; {@code null} для первой страницы.
      * @param count  количество отзывов, которое необходимо получить.
      * @return список отзывов.
      */
     @Override
-    public Collection<Review> getFilmReviews(long filmId, int count) {
+    public Collection<Review> getFilmReviews(long filmId, ReviewCursor after, int count) {
         try {
-            return this.findMany(ReviewQueries.GET_REVIEWS_QUERY.replace("1 = 1", "r.film_id = ?"), ReviewMapper::mapToReview, filmId, count);
+            return this.findReviews(filmId, after, count);
         } catch (Throwable ex) {
             log.error("Ошибка при получении списка отзывов для фильма с id = {}: [{}] {}", filmId, ex.getClass().getSimpleName(), ex.getMessage());
             throw new InternalServerException();
@@ -87,6 +93,22 @@ public class ReviewRepository extends BaseRepository implements ReviewStorage {
         }
     }
 
+    /**
+     * Проверить существование отзыва, не загружая его.
+     *
+     * @param reviewId идентификатор отзыва.
+     * @return признак, существует ли отзыв.
+     */
+    @Override
+    public boolean isReviewExist(long reviewId) {
+        try {
+            return this.findOne(ReviewQueries.IS_REVIEW_EXISTS_QUERY, BooleanMapper::mapToBoolean, reviewId).orElse(false);
+        } catch (Throwable ex) {
+            log.error("Ошибка при проверке существования отзыва с id = {}: [{}] {}", reviewId, ex.getClass().getSimpleName(), ex.getMessage());
+            throw new InternalServerException();
+        }
+    }
+
     /**
      * Обновить отзыв.
      *
@@ -129,9 +151,11 @@ public class ReviewRepository extends BaseRepository implements ReviewStorage {
      * @param isLiked  признак, нравится ли пользователю отзыв.
      */
     @Override
+    @Transactional
     public void addLikeToReview(long reviewId, long userId, boolean isLiked) {
         try {
             this.insert(ReviewQueries.ADD_LIKE_TO_REVIEW_QUERY, reviewId, userId, isLiked);
+            this.update(ReviewQueries.CHANGE_REVIEW_USEFUL_QUERY, isLiked ? 1 : -1, reviewId);
         } catch (Throwable ex) {
             log.error("Ошибка при добавления лайка к отзыву с id = {} от пользователя с id = {}: [{}] {}", reviewId, userId, ex.getClass().getSimpleName(), ex.getMessage());
             throw new InternalServerException();
@@ -155,15 +179,20 @@ public class ReviewRepository extends BaseRepository implements ReviewStorage {
 
     /**
      * Обновить лайк у отзыва.
+     * Если оценка меняется на противоположную, полезность отзыва изменяется на два.
      *
      * @param reviewId идентификатор отзыва.
      * @param userId   идентификатор пользователя.
      * @param isLiked  признак, нравится ли пользователю отзыв.
      */
     @Override
+    @Transactional
     public void updateLikeForReview(long reviewId, long userId, boolean isLiked) {
         try {
-            this.update(ReviewQueries.UPDATE_LIKE_FOR_REVIEW_QUERY, isLiked, reviewId, userId);
+            int updated = this.execute(ReviewQueries.UPDATE_LIKE_FOR_REVIEW_QUERY, isLiked, reviewId, userId, isLiked);
+            if (updated > 0) {
+                this.update(ReviewQueries.CHANGE_REVIEW_USEFUL_QUERY, isLiked ? 2 : -2, reviewId);
+            }
         } catch (Throwable ex) {
             log.error("Ошибка при обновлении лайка у отзыва с id = {} от пользователя с id = {}: [{}] {}", reviewId, userId, ex.getClass().getSimpleName(), ex.getMessage());
             throw new InternalServerException();
@@ -177,8 +206,10 @@ public class ReviewRepository extends BaseRepository implements ReviewStorage {
      * @param userId   идентификатор пользователя.
      */
     @Override
+    @Transactional
     public void removeLikeFromReview(long reviewId, long userId) {
         try {
+            this.execute(ReviewQueries.REVERT_LIKE_USEFUL_QUERY, userId, reviewId, userId);
             this.delete(ReviewQueries.REMOVE_LIKE_FROM_REVIEW_QUERY, reviewId, userId);
         } catch (Throwable ex) {
             log.error("Ошибка при удалении лайка пользователя с id = {} у отзыва с id = {}: [{}] {}", userId, reviewId, ex.getClass().getSimpleName(), ex.getMessage());
@@ -187,4 +218,38 @@ public class ReviewRepository extends BaseRepository implements ReviewStorage {
     }
 
     //endregion
+
+    //region Facilities
+
+    /**
+     * Выбрать страницу отзывов по индексу полезности.
+     *
+     * @param filmId идентификатор фильма; {@code null}, если отзывы не фильтруются по фильму.
+     * @param after  позиция, после которой начинается страница; {@code null} для первой страницы.
+     * @param count  количество отзывов.
+     * @return список отзывов.
+     */
+    private Collection<Review> findReviews(Long filmId, ReviewCursor after, int count) {
+        List<String> conditions = new ArrayList<>();
+        List<Object> params = new ArrayList<>();
+        if (filmId != null) {
+            conditions.add(ReviewQueries.REVIEWS_FILM_CONDITION);
+            params.add(filmId);
+        }
+        if (after != null) {
+            conditions.add(ReviewQueries.REVIEWS_AFTER_CURSOR_CONDITION);
+            params.add(after.getUseful());
+            params.add(after.getUseful());
+            params.add(after.getReviewId());
+        }
+        params.add(count);
+
+        String sql = conditions.isEmpty()
+                ? ReviewQueries.GET_REVIEWS_QUERY
+                : ReviewQueries.GET_REVIEWS_QUERY.replace("1 = 1", String.join(" AND ", conditions));
+
+        return this.findMany(sql, ReviewMapper::mapToReview, params.toArray());
+    }
+
+    //endregion
 }
@@ -0,0 +1,203 @@
+package ru.yandex.practicum.filmorate.dao;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.yandex.practicum.filmorate.dao.mapper.EventMapper;
+import ru.yandex.practicum.filmorate.dao.queries.TimelineQueries;
+import ru.yandex.practicum.filmorate.exception.InternalServerException;
+import ru.yandex.practicum.filmorate.model.Event;
+import ru.yandex.practicum.filmorate.storage.FriendFeedStorage;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Хранилище лент событий друзей.
+ * Само по себе собирает ленту при чтении из событий всех друзей пользователя; для ведения лент при записи
+ * хранит материализованные ленты пользователей — идентификаторы событий их друзей.
+ */
+@Repository
+@Slf4j
+public class TimelineRepository extends BaseRepository implements FriendFeedStorage {
+    /**
+     * Получить события друзей пользователя в порядке их появления, собрав их из событий всех друзей.
+     *
+     * @param userId  идентификатор пользователя.
+     * @param sinceId идентификатор события, после которого начинается список, если предоставлен.
+     * @param limit   максимальное количество событий.
+     * @return список событий.
+     */
+    @Override
+    public Collection<Event> getFriendEvents(long userId, Long sinceId, int limit) {
+        try {
+            return this.findEvents(TimelineQueries.GET_FRIENDS_LAST_EVENTS_QUERY, TimelineQueries.GET_FRIENDS_EVENTS_SINCE_QUERY,
+                    userId, sinceId, limit);
+        } catch (Throwable ex) {
+            log.error("Ошибка при получении событий друзей пользователя с id = {}: [{}] {}", userId, ex.getClass().getSimpleName(), ex.getMessage());
+            throw new InternalServerException();
+        }
+    }
+
+    /**
+     * Удалить ленту пользователя и его события из лент других пользователей.
+     * При удалении пользователя из БД эти записи удаляются каскадно; метод удаляет записи, оставшиеся
+     * после удаления, например разосланные одновременно с ним.
+     *
+     * @param userId идентификатор пользователя.
+     */
+    @Override
+    public void removeUser(long userId) {
+        try {
+            int deleted = this.delete(TimelineQueries.DELETE_USER_TIMELINE_QUERY, userId)
+                    + this.delete(TimelineQueries.DELETE_AUTHOR_TIMELINE_ENTRIES_QUERY, userId);
+            log.debug("Из лент удалены записи пользователя с id = {}: {}", userId, deleted);
+        } catch (Throwable ex) {
+            log.error("Ошибка при удалении лент пользователя с id = {}: [{}] {}", userId, ex.getClass().getSimpleName(), ex.getMessage());
+            throw new InternalServerException();
+        }
+    }
+
+    /**
+     * Удалить события бывшего друга из ленты пользователя.
+     *
+     * @param userId   идентификатор пользователя.
+     * @param friendId идентификатор бывшего друга.
+     */
+    @Override
+    public void removeFriend(long userId, long friendId) {
+        try {
+            int deleted = this.delete(TimelineQueries.DELETE_FRIEND_TIMELINE_ENTRIES_QUERY, userId, friendId);
+            log.debug("Из ленты пользователя с id = {} удалены события пользователя с id = {}: {}", userId, friendId, deleted);
+        } catch (Throwable ex) {
+            log.error("Ошибка при удалении событий пользователя с id = {} из ленты пользователя с id = {}: [{}] {}",
+                    friendId, userId, ex.getClass().getSimpleName(), ex.getMessage());
+            throw new InternalServerException();
+        }
+    }
+
+    /**
+     * Получить события из материализованной ленты пользователя в порядке их появления.
+     *
+     * @param userId  идентификатор пользователя.
+     * @param sinceId идентификатор события, после которого начинается список, если предоставлен.
+     * @param limit   максимальное количество событий.
+     * @return список событий.
+     */
+    public Collection<Event> getTimelineEvents(long userId, Long sinceId, int limit) {
+        try {
+            return this.findEvents(TimelineQueries.GET_TIMELINE_LAST_EVENTS_QUERY, TimelineQueries.GET_TIMELINE_EVENTS_SINCE_QUERY,
+                    userId, sinceId, limit);
+        } catch (Throwable ex) {
+            log.error("Ошибка при получении ленты пользователя с id = {}: [{}] {}", userId, ex.getClass().getSimpleName(), ex.getMessage());
+            throw new InternalServerException();
+        }
+    }
+
+    /**
+     * Добавить события в ленты пользователей пакетом в отдельной транзакции: пакет записывается целиком или не записывается.
+     *
+     * @param userIdsByEventId идентификаторы пользователей, в ленты которых добавляется событие, по идентификатору события.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void saveTimelineEntries(Map<Long, ? extends Collection<Long>> userIdsByEventId) {
+        List<long[]> entries = new ArrayList<>();
+        userIdsByEventId.forEach((eventId, userIds) -> userIds.forEach(userId -> entries.add(new long[]{userId, eventId})));
+
+        try {
+            this.batchInsert(TimelineQueries.ADD_TIMELINE_ENTRY_QUERY, entries, entry -> List.of(entry[0], entry[1]));
+            log.debug("В ленты добавлено записей: {}", entries.size());
+        } catch (Throwable ex) {
+            log.error("Ошибка при добавлении {} записей в ленты: [{}] {}", entries.size(), ex.getClass().getSimpleName(), ex.getMessage());
+            throw new InternalServerException();
+        }
+    }
+
+    /**
+     * Получить подписчиков пользователей — тех, у кого они в друзьях.
+     *
+     * @param userIds идентификаторы пользователей.
+     * @return идентификаторы подписчиков по идентификатору пользователя.
+     */
+    public Map<Long, List<Long>> getFollowerIds(Collection<Long> userIds) {
+        try {
+            Map<Long, List<Long>> followerIds = new HashMap<>();
+            this.queryIn(TimelineQueries.GET_FOLLOWERS_QUERY, userIds, resultSet ->
+                    followerIds.computeIfAbsent(resultSet.getLong("friend_id"), id -> new ArrayList<>()).add(resultSet.getLong("user_id")));
+
+            return followerIds;
+        } catch (Throwable ex) {
+            log.error("Ошибка при получении подписчиков пользователей: [{}] {}", ex.getClass().getSimpleName(), ex.getMessage());
+            throw new InternalServerException();
+        }
+    }
+
+    /**
+     * Получить количество подписчиков пользователей.
+     *
+     * @param userIds идентификаторы пользователей.
+     * @return количество подписчиков по идентификатору пользователя; пользователи без подписчиков отсутствуют.
+     */
+    public Map<Long, Long> getFollowersCount(Collection<Long> userIds) {
+        try {
+            Map<Long, Long> followersCount = new HashMap<>();
+            this.queryIn(TimelineQueries.GET_FOLLOWERS_COUNT_QUERY, userIds, resultSet ->
+                    followersCount.put(resultSet.getLong("friend_id"), resultSet.getLong("followers_count")));
+
+            return followersCount;
+        } catch (Throwable ex) {
+            log.error("Ошибка при получении количества подписчиков пользователей: [{}] {}", ex.getClass().getSimpleName(), ex.getMessage());
+            throw new InternalServerException();
+        }
+    }
+
+    /**
+     * Получить пользователей, у которых подписчиков больше заданного количества.
+     *
+     * @param maxFollowers количество подписчиков.
+     * @return список идентификаторов пользователей.
+     */
+    public Collection<Long> getPopularUserIds(int maxFollowers) {
+        try {
+            return this.findColumn(TimelineQueries.GET_POPULAR_USER_IDS_QUERY, Long.class, maxFollowers);
+        } catch (Throwable ex) {
+            log.error("Ошибка при получении популярных пользователей: [{}] {}", ex.getClass().getSimpleName(), ex.getMessage());
+            throw new InternalServerException();
+        }
+    }
+
+    /**
+     * Удалить из лент события, не входящие в заданное количество последних.
+     *
+     * @param size количество последних событий, сохраняемых в ленте.
+     * @return количество удалённых записей.
+     */
+    public int trimTimelines(int size) {
+        try {
+            return this.delete(TimelineQueries.TRIM_TIMELINES_QUERY, size);
+        } catch (Throwable ex) {
+            log.error("Ошибка при сокращении лент: [{}] {}", ex.getClass().getSimpleName(), ex.getMessage());
+            throw new InternalServerException();
+        }
+    }
+
+    //region Facilities
+
+    private Collection<Event> findEvents(String lastQuery, String sinceQuery, long userId, Long sinceId, int limit) {
+        if (sinceId != null) {
+            return this.findMany(sinceQuery, EventMapper::mapToEvent, userId, sinceId, limit);
+        }
+
+        List<Event> events = new ArrayList<>(this.findMany(lastQuery, EventMapper::mapToEvent, userId, limit));
+        Collections.reverse(events);
+
+        return events;
+    }
+
+    //endregion
+}
@@ -3,6 +3,8 @@ package ru.yandex.practicum.filmorate.dao;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import ru.yandex.practicum.filmorate.dao.mapper.BooleanMapper;
 import ru.yandex.practicum.filmorate.dao.mapper.UserMapper;
 import ru.yandex.practicum.filmorate.dao.queries.UserQueries;
 import ru.yandex.practicum.filmorate.exception.DuplicatedDataException;
@@ -10,7 +12,12 @@ import ru.yandex.practicum.filmorate.exception.InternalServerException;
 import ru.yandex.practicum.filmorate.model.User;
 import ru.yandex.practicum.filmorate.storage.UserStorage;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 
 /**
@@ -76,6 +83,47 @@ public class UserRepository extends BaseRepository implements UserStorage {
         }
     }
 
+    /**
+     * Проверить существование пользователя, не загружая его.
+     *
+     * @param userId идентификатор пользователя.
+     * @return признак, существует ли пользователь.
+     */
+    @Override
+    public boolean isUserExist(long userId) {
+        try {
+            return this.findOne(UserQueries.IS_USER_EXISTS_QUERY, BooleanMapper::mapToBoolean, userId).orElse(false);
+        } catch (Throwable ex) {
+            log.error("Ошибка при проверке существования пользователя с id = {}: [{}] {}", userId, ex.getClass().getSimpleName(), ex.getMessage());
+            throw new InternalServerException();
+        }
+    }
+
+    /**
+     * Получить пользователей по списку идентификаторов.
+     *
+     * @param userIds список идентификаторов пользователей.
+     * @return список пользователей в порядке следования идентификаторов; отсутствующие пользователи пропускаются.
+     */
+    @Override
+    public Collection<User> getUsersByIds(List<Long> userIds) {
+        try {
+            Map<Long, User> usersById = new HashMap<>();
+            this.queryIn(UserQueries.GET_USERS_BY_IDS_QUERY, userIds, resultSet -> {
+                User user = UserMapper.mapToUser(resultSet, resultSet.getRow());
+                usersById.put(user.getId(), user);
+            });
+
+            return userIds.stream()
+                    .map(usersById::get)
+                    .filter(Objects::nonNull)
+                    .toList();
+        } catch (Throwable ex) {
+            log.error("Ошибка при получении пользователей по списку идентификаторов: [{}] {}", ex.getClass().getSimpleName(), ex.getMessage());
+            throw new InternalServerException();
+        }
+    }
+
     /**
      * Обновить пользователя.
      *
@@ -83,8 +131,6 @@ public class UserRepository extends BaseRepository implements UserStorage {
      */
     @Override
     public void updateUser(User user) {
-        this.getUserById(user.getId());
-
         try {
             this.update(UserQueries.UPDATE_USER_QUERY, user.getEmail(), user.getLogin(), user.getName(), user.getBirthday(), user.getId());
             log.debug("Пользователь с id = {} успешно обновлен", user.getId());
@@ -100,8 +146,11 @@ public class UserRepository extends BaseRepository implements UserStorage {
      * @param userId идентификатор пользователя.
      */
     @Override
+    @Transactional
     public void deleteUser(long userId) {
         try {
+            this.execute(UserQueries.DECREMENT_LIKED_FILMS_LIKES_COUNT_QUERY, userId);
+            this.execute(UserQueries.REVERT_USER_REVIEW_LIKES_USEFUL_QUERY, userId, userId);
             this.delete(UserQueries.DELETE_USER_QUERY, userId);
             log.debug("Пользователь с id = {} успешно удален", userId);
         } catch (Exception e) {
@@ -147,6 +196,44 @@ public class UserRepository extends BaseRepository implements UserStorage {
         }
     }
 
+    /**
+     * Получить идентификаторы друзей пользователя.
+     *
+     * @param userId идентификатор пользователя.
+     * @return идентификаторы друзей по возрастанию.
+     */
+    @Override
+    public long[] getFriendIds(long userId) {
+        try {
+            return this.findColumn(UserQueries.GET_USER_FRIEND_IDS_QUERY, Long.class, userId).stream()
+                    .mapToLong(Long::longValue)
+                    .toArray();
+        } catch (Throwable ex) {
+            log.error("Ошибка при получении идентификаторов друзей пользователя с id = {}: [{}] {}", userId, ex.getClass().getSimpleName(), ex.getMessage());
+            throw new InternalServerException();
+        }
+    }
+
+    /**
+     * Получить идентификаторы друзей всех пользователей.
+     *
+     * @return идентификаторы друзей по возрастанию по идентификатору пользователя.
+     */
+    @Override
+    public Map<Long, List<Long>> getAllFriendIds() {
+        try {
+            Map<Long, List<Long>> friendIds = new HashMap<>();
+            this.findEach(UserQueries.GET_ALL_FRIEND_IDS_QUERY, resultSet -> {
+                friendIds.computeIfAbsent(resultSet.getLong("user_id"), id -> new ArrayList<>()).add(resultSet.getLong("friend_id"));
+            });
+
+            return friendIds;
+        } catch (Throwable ex) {
+            log.error("Ошибка при получении друзей всех пользователей: [{}] {}", ex.getClass().getSimpleName(), ex.getMessage());
+            throw new InternalServerException();
+        }
+    }
+
     /**
      * Получить список общих друзей двух пользователей.
      *
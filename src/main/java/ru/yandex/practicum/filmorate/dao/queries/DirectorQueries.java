@@ -41,6 +41,21 @@ public final class DirectorQueries {
                     id = ?
             """;
 
+    /**
+     * SQL-запрос для получения режиссёров по их идентификаторам.
+     * Вместо {@code %s} подставляется список параметров.
+     */
+    public static final String GET_DIRECTORS_BY_IDS_QUERY =
+            """
+            SELECT
+                    id,
+                    name
+            FROM
+                    directors
+            WHERE
+                    id IN (%s)
+            """;
+
     /**
      * SQL-запрос для обновления режиссёра.
      */
@@ -5,20 +5,52 @@ package ru.yandex.practicum.filmorate.dao.queries;
  */
 public final class EventQueries {
     /**
-     * SQL-запрос для создания нового события.
+     * SQL-запрос для создания нового события с выданным приложением идентификатором.
      */
-    public static String CREATE_EVENT_QUERY =
+    public static final String CREATE_EVENT_QUERY =
             """
             INSERT INTO
-                    events (user_id, event_type, operation, entity_id)
+                    events (id, timestamp, user_id, event_type, operation, entity_id)
             VALUES
-                    (?, ?, ?, ?)
+                    (?, ?, ?, ?, ?, ?)
             """;
 
     /**
-     * SQL-запрос для получения событий пользователя.
+     * SQL-запрос для получения первого идентификатора очередного блока идентификаторов событий.
+     * Последовательность увеличивается на размер блока, поэтому блоки разных экземпляров приложения не пересекаются.
      */
-    public static String GET_USER_EVENTS_QUERY =
+    public static final String GET_NEXT_EVENT_ID_BLOCK_QUERY =
+            """
+            SELECT
+                    NEXT VALUE FOR events_id_seq
+            """;
+
+    /**
+     * SQL-запрос для получения последних событий пользователя, начиная с самого нового.
+     */
+    public static final String GET_USER_LAST_EVENTS_QUERY =
+            """
+            SELECT
+                    id,
+                    timestamp,
+                    user_id,
+                    event_type,
+                    operation,
+                    entity_id
+            FROM
+            	    events
+            WHERE
+                    user_id = ?
+            ORDER BY
+                    id DESC
+            LIMIT
+                    ?
+            """;
+
+    /**
+     * SQL-запрос для получения событий пользователя, следующих за событием, в порядке их появления.
+     */
+    public static final String GET_USER_EVENTS_SINCE_QUERY =
             """
             SELECT
                     id,
@@ -31,5 +63,11 @@ public final class EventQueries {
             	    events
             WHERE
                     user_id = ?
+                AND
+                    id > ?
+            ORDER BY
+                    id
+            LIMIT
+                    ?
             """;
 }
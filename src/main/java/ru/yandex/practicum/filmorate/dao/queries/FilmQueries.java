@@ -36,6 +36,30 @@ public final class FilmQueries {
                        JOIN mpa m ON m.id = f.mpa_id
                     """;
 
+    /**
+     * SQL-запрос для получения страницы фильмов, упорядоченных по идентификатору.
+     */
+    public static final String GET_FILMS_PAGE_QUERY =
+            """
+                    SELECT
+                            f.id,
+                            f.name,
+                            f.description,
+                            f.release_date,
+                            f.duration,
+                            m.id AS mpa_id,
+                            m.name AS mpa_name
+                    FROM
+                            films f
+                       JOIN mpa m ON m.id = f.mpa_id
+                    WHERE
+                            f.id > ?
+                    ORDER BY
+                            f.id
+                    LIMIT
+                            ?
+                    """;
+
     /**
      * SQL-запрос для получения списка фильмов, подходящих под условие поиска.
      */
@@ -54,47 +78,68 @@ public final class FilmQueries {
                            JOIN mpa m ON m.id = f.mpa_id
                       LEFT JOIN film_directors fd ON fd.film_id = f.id
                       LEFT JOIN directors d ON d.id = fd.director_id
-                      LEFT JOIN film_likes fl ON fl.film_id = f.id
                     WHERE
                                 1 = 1
                     GROUP BY
                                 f.id
                     ORDER BY
-                                COUNT(fl.id) DESC
+                                f.likes_count DESC,
+                                f.id
                     """;
 
+    /**
+     * Условие поиска фильмов по названию.
+     */
+    public static final String SEARCH_FILMS_TITLE_CONDITION =
+            "f.name ILIKE ?";
+
+    /**
+     * Условие поиска фильмов по имени режиссёра.
+     */
+    public static final String SEARCH_FILMS_DIRECTOR_CONDITION =
+            "d.name ILIKE ?";
+
     /**
      * SQL-запрос для получения списка популярных фильмов, отсортированных по количеству лайков.
      */
     public static final String GET_POPULAR_FILMS_QUERY =
             """
                     SELECT
-                                f.id,
-                                f.name,
-                                f.description,
-                                f.release_date,
-                                f.duration,
-                                m.id AS mpa_id,
-                                m.name AS mpa_name
+                            f.id,
+                            f.name,
+                            f.description,
+                            f.release_date,
+                            f.duration,
+                            m.id AS mpa_id,
+                            m.name AS mpa_name
                     FROM
-                                films f
-                           JOIN mpa m ON m.id = f.mpa_id
-                      LEFT JOIN film_genres fg ON fg.film_id = f.id
-                      LEFT JOIN film_likes fl ON fl.film_id = f.id
+                            films f
+                       JOIN mpa m ON m.id = f.mpa_id
                     WHERE
-                                1 = 1
-                    GROUP BY
-                                f.id
+                            1 = 1
                     ORDER BY
-                                COUNT(fl.id) DESC
+                            f.likes_count DESC,
+                            f.id
                     LIMIT
-                                ?
+                            ?
                     """;
 
     /**
-     * SQL-запрос для получения списка рекомендуемых фильмов.
+     * Условие фильтрации популярных фильмов по жанру.
      */
-    public static final String GET_RECOMMENDED_FILMS_QUERY =
+    public static final String POPULAR_FILMS_GENRE_CONDITION =
+            "EXISTS (SELECT 1 FROM film_genres fg WHERE fg.film_id = f.id AND fg.genre_id = ?)";
+
+    /**
+     * Условие фильтрации популярных фильмов по году выпуска.
+     */
+    public static final String POPULAR_FILMS_YEAR_CONDITION =
+            "f.release_year = ?";
+
+    /**
+     * SQL-запрос для получения фильма по его идентификатору.
+     */
+    public static final String GET_FILM_BY_ID_QUERY =
             """
                     SELECT
                             f.id,
@@ -102,37 +147,28 @@ public final class FilmQueries {
                             f.description,
                             f.release_date,
                             f.duration,
-                            m.id AS mpa_id,
+                            f.mpa_id,
                             m.name AS mpa_name
                     FROM
                             films f
                        JOIN mpa m ON m.id = f.mpa_id
-                       JOIN film_likes fl ON fl.film_id = f.id
                     WHERE
-                            fl.film_id NOT IN (SELECT film_id FROM film_likes WHERE user_id = ?)
-                        AND
-                            fl.user_id IN (
-                                SELECT
-                                        user_id
-                                FROM
-                                        film_likes
-                                WHERE
-                                        film_id IN (SELECT film_id FROM film_likes WHERE user_id = ?)
-                                    AND
-                                        user_id != ?
-                                GROUP BY
-                                        user_id
-                                ORDER BY
-                                        COUNT(film_id) DESC
-                                LIMIT
-                                        10
-                            )
+                            f.id = ?
                     """;
 
     /**
-     * SQL-запрос для получения фильма по его идентификатору.
+     * SQL-запрос для проверки существования фильма.
      */
-    public static final String GET_FILM_BY_ID_QUERY =
+    public static final String IS_FILM_EXISTS_QUERY =
+            """
+                    SELECT
+                            EXISTS (SELECT 1 FROM films WHERE id = ?)
+                    """;
+
+    /**
+     * SQL-запрос для получения фильмов по списку идентификаторов.
+     */
+    public static final String GET_FILMS_BY_IDS_QUERY =
             """
                     SELECT
                             f.id,
@@ -140,13 +176,13 @@ public final class FilmQueries {
                             f.description,
                             f.release_date,
                             f.duration,
-                            f.mpa_id,
+                            m.id AS mpa_id,
                             m.name AS mpa_name
                     FROM
                             films f
                        JOIN mpa m ON m.id = f.mpa_id
                     WHERE
-                            f.id = ?
+                            f.id IN (%s)
                     """;
 
     /**
@@ -155,31 +191,22 @@ public final class FilmQueries {
     public static final String GET_DIRECTOR_FILMS_SORTED_BY_LIKES_QUERY =
             """
                     SELECT
-                                f.id,
-                                f.name,
-                                f.description,
-                                f.release_date,
-                                f.duration,
-                                m.id AS mpa_id,
-                                m.name AS mpa_name,
-                                COUNT(fl.user_id) as likes_count
+                            f.id,
+                            f.name,
+                            f.description,
+                            f.release_date,
+                            f.duration,
+                            m.id AS mpa_id,
+                            m.name AS mpa_name
                     FROM
-                                films f
-                           JOIN mpa m ON m.id = f.mpa_id
-                           JOIN film_directors fd ON fd.film_id = f.id
-                      LEFT JOIN film_likes fl ON fl.film_id = f.id
+                            films f
+                       JOIN mpa m ON m.id = f.mpa_id
+                       JOIN film_directors fd ON fd.film_id = f.id
                     WHERE
-                                fd.director_id = ?
-                    GROUP BY
-                                f.id,
-                                f.name,
-                                f.description,
-                                f.release_date,
-                                f.duration,
-                                mpa_id,
-                                mpa_name
+                            fd.director_id = ?
                     ORDER BY
-                                likes_count DESC
+                            f.likes_count DESC,
+                            f.id
                     """;
 
     /**
@@ -202,7 +229,8 @@ public final class FilmQueries {
                     WHERE
                             fd.director_id = ?
                     ORDER BY
-                            EXTRACT(YEAR FROM f.release_date)
+                            f.release_year,
+                            f.id
                     """;
 
     /**
@@ -211,26 +239,21 @@ public final class FilmQueries {
     public static final String GET_COMMON_FILMS_QUERY =
             """
                     SELECT
-                                f.id,
-                                f.name,
-                                f.description,
-                                f.release_date,
-                                f.duration,
-                                m.id AS mpa_id,
-                                m.name AS mpa_name,
-                                COUNT(fl.user_id) AS likes_count
+                            f.id,
+                            f.name,
+                            f.description,
+                            f.release_date,
+                            f.duration,
+                            m.id AS mpa_id,
+                            m.name AS mpa_name
                     FROM
-                                films f
-                      LEFT JOIN film_likes fl ON fl.film_id = f.id
-                      LEFT JOIN mpa m ON m.id = f.mpa_id
-                    WHERE
-                                fl.user_id = ?
-                            AND
-                                f.id IN (SELECT film_id FROM film_likes WHERE user_id = ?)
-                    GROUP BY
-                                f.id
+                            films f
+                       JOIN mpa m ON m.id = f.mpa_id
+                       JOIN film_likes ufl ON ufl.film_id = f.id AND ufl.user_id = ?
+                       JOIN film_likes ffl ON ffl.film_id = f.id AND ffl.user_id = ?
                     ORDER BY
-                                likes_count DESC
+                            f.likes_count DESC,
+                            f.id
                     """;
 
     /**
@@ -291,27 +314,49 @@ public final class FilmQueries {
                             fd.film_id = ?
                     """;
 
+    /**
+     * SQL-запрос для получения списка режиссёров фильмов.
+     */
     public static final String GET_FILMS_DIRECTORS_QUERY =
             """
                     SELECT
-                            d.id AS director_id,
-                            d.name AS director_name
+                            fd.film_id,
+                            d.id,
+                            d.name
                     FROM
                             directors d
                        JOIN film_directors fd ON fd.director_id = d.id
                     WHERE
-                            fd.film_id IN
+                            fd.film_id IN (%s)
+                    ORDER BY
+                            fd.film_id,
+                            d.id
                     """;
 
     /**
-     * SQL-запрос для удаления у фильма всех режиссёров.
+     * SQL-запрос для получения идентификаторов режиссёров фильма.
      */
-    public static final String CLEAR_DIRECTORS_FROM_FILM_QUERY =
+    public static final String GET_FILM_DIRECTOR_IDS_QUERY =
+            """
+                    SELECT
+                            director_id
+                    FROM
+                            film_directors
+                    WHERE
+                            film_id = ?
+                    """;
+
+    /**
+     * SQL-запрос для удаления у фильма режиссёров по их идентификаторам.
+     * Вместо {@code %s} подставляется список параметров.
+     */
+    public static final String REMOVE_DIRECTORS_FROM_FILM_QUERY =
             """
                     DELETE FROM
                             film_directors
                     WHERE
                             film_id = ?
+                        AND director_id IN (%s)
                     """;
 
     // endregion
@@ -350,24 +395,43 @@ public final class FilmQueries {
     public static final String GET_FILMS_GENRES_QUERY =
             """
                     SELECT
-                            g.id AS genre_id,
-                            g.name AS genre_name
+                            fg.film_id,
+                            g.id,
+                            g.name
                     FROM
                             film_genres fg
                        JOIN genres g ON g.id = fg.genre_id
                     WHERE
-                            fg.film_id IN
+                            fg.film_id IN (%s)
+                    ORDER BY
+                            fg.film_id,
+                            g.id
+                    """;
+
+    /**
+     * SQL-запрос для получения идентификаторов жанров фильма.
+     */
+    public static final String GET_FILM_GENRE_IDS_QUERY =
+            """
+                    SELECT
+                            genre_id
+                    FROM
+                            film_genres
+                    WHERE
+                            film_id = ?
                     """;
 
     /**
-     * SQL-запрос для удаления у фильма всех жанров.
+     * SQL-запрос для удаления у фильма жанров по их идентификаторам.
+     * Вместо {@code %s} подставляется список параметров.
      */
-    public static final String CLEAR_GENRES_FROM_FILM_QUERY =
+    public static final String REMOVE_GENRES_FROM_FILM_QUERY =
             """
                     DELETE FROM
                             film_genres
                     WHERE
                             film_id = ?
+                        AND genre_id IN (%s)
                     """;
 
     // endregion
@@ -424,5 +488,73 @@ public final class FilmQueries {
                             user_id = ?
                     """;
 
+    /**
+     * SQL-запрос для подсчёта лайков фильмов по таблице лайков; фильмы без лайков в результат не попадают.
+     */
+    public static final String GET_FILMS_LIKES_COUNT_QUERY =
+            """
+                    SELECT
+                            film_id AS id,
+                            COUNT(*) AS likes_count
+                    FROM
+                            film_likes
+                    GROUP BY
+                            film_id
+                    """;
+
+    /**
+     * SQL-запрос для получения идентификаторов фильмов, которые понравились пользователю.
+     */
+    public static final String GET_USER_LIKED_FILM_IDS_QUERY =
+            """
+                    SELECT
+                            film_id
+                    FROM
+                            film_likes
+                    WHERE
+                            user_id = ?
+                    """;
+
+    /**
+     * SQL-запрос для получения всех пользовательских лайков.
+     */
+    public static final String GET_ALL_LIKES_QUERY =
+            """
+                    SELECT
+                            user_id,
+                            film_id
+                    FROM
+                            film_likes
+                    ORDER BY
+                            user_id,
+                            film_id
+                    """;
+
+    /**
+     * SQL-запрос для изменения счётчика лайков фильма.
+     */
+    public static final String CHANGE_FILM_LIKES_COUNT_QUERY =
+            """
+                    UPDATE
+                            films
+                    SET
+                            likes_count = likes_count + ?
+                    WHERE
+                            id = ?
+                    """;
+
+    /**
+     * SQL-запрос для пересчёта разошедшихся с таблицей лайков счётчиков.
+     */
+    public static final String RECONCILE_FILMS_LIKES_COUNT_QUERY =
+            """
+                    UPDATE
+                            films f
+                    SET
+                            likes_count = (SELECT COUNT(*) FROM film_likes fl WHERE fl.film_id = f.id)
+                    WHERE
+                            likes_count <> (SELECT COUNT(*) FROM film_likes fl WHERE fl.film_id = f.id)
+                    """;
+
     // endregion
 }
@@ -29,4 +29,19 @@ public final class GenreQueries {
             WHERE
                     id = ?
             """;
+
+    /**
+     * SQL-запрос для получения жанров по их идентификаторам.
+     * Вместо {@code %s} подставляется список параметров.
+     */
+    public static final String GET_GENRES_BY_IDS_QUERY =
+            """
+            SELECT
+                    id,
+                    name
+            FROM
+                    genres
+            WHERE
+                    id IN (%s)
+            """;
 }
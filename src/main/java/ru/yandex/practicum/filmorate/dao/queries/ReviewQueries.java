@@ -23,51 +23,64 @@ public final class ReviewQueries {
      */
     public static final String GET_REVIEWS_QUERY =
             """
-            WITH
-                        positive AS (SELECT review_id, COUNT(*) as count FROM review_likes WHERE is_liked = true GROUP BY review_id),
-                        negative AS (SELECT review_id, COUNT(*) as count FROM review_likes WHERE is_liked = false GROUP BY review_id)
             SELECT
                         r.id,
                         r.content,
                         r.is_positive,
                         r.user_id,
                         r.film_id,
-                        COALESCE(p.count, 0) - COALESCE(n.count, 0) as useful
+                        r.useful
             FROM
             	        reviews r
-              LEFT JOIN positive p ON p.review_id = r.id
-              LEFT JOIN negative n ON n.review_id = r.id
             WHERE
                         1 = 1
             ORDER BY
-                        useful DESC
+                        r.useful DESC,
+                        r.id
             LIMIT
                         ?
             """;
 
+    /**
+     * Условие фильтрации отзывов по фильму.
+     */
+    public static final String REVIEWS_FILM_CONDITION =
+            "r.film_id = ?";
+
+    /**
+     * Условие выбора отзывов, следующих за позицией: с меньшей полезностью либо с той же полезностью
+     * и большим идентификатором. Первое сравнение ограничивает диапазон просмотра индекса.
+     */
+    public static final String REVIEWS_AFTER_CURSOR_CONDITION =
+            "r.useful <= ? AND (r.useful < ? OR r.id > ?)";
+
     /**
      * Получить отзыв по его идентификатору.
      */
     public static final String GET_REVIEW_BY_ID_QUERY =
             """
-            WITH
-                        positive AS (SELECT review_id, COUNT(*) as count FROM review_likes WHERE is_liked = true GROUP BY review_id),
-                        negative AS (SELECT review_id, COUNT(*) as count FROM review_likes WHERE is_liked = false GROUP BY review_id)
             SELECT
                         r.id,
                         r.content,
                         r.is_positive,
                         r.user_id,
                         r.film_id,
-                        COALESCE(p.count, 0) - COALESCE(n.count, 0) as useful
+                        r.useful
             FROM
             	        reviews r
-              LEFT JOIN positive p ON p.review_id = r.id
-              LEFT JOIN negative n ON n.review_id = r.id
             WHERE
                         r.id = ?
             """;
 
+    /**
+     * SQL-запрос для проверки существования отзыва.
+     */
+    public static final String IS_REVIEW_EXISTS_QUERY =
+            """
+            SELECT
+                    EXISTS (SELECT 1 FROM reviews WHERE id = ?)
+            """;
+
     /**
      * SQL-запрос для обновления отзыва.
      */
@@ -119,6 +132,7 @@ public final class ReviewQueries {
 
     /**
      * SQL-запрос для обновления лайка у отзыва.
+     * Строка обновляется, только если оценка действительно меняется.
      */
     public static final String UPDATE_LIKE_FOR_REVIEW_QUERY =
             """
@@ -130,6 +144,8 @@ public final class ReviewQueries {
                     review_id = ?
                 AND
                     user_id = ?
+                AND
+                    is_liked <> ?
             """;
 
     /**
@@ -145,5 +161,33 @@ public final class ReviewQueries {
                     user_id = ?
             """;
 
+    /**
+     * SQL-запрос для изменения полезности отзыва на величину.
+     */
+    public static final String CHANGE_REVIEW_USEFUL_QUERY =
+            """
+            UPDATE
+                    reviews
+            SET
+                    useful = useful + ?
+            WHERE
+                    id = ?
+            """;
+
+    /**
+     * SQL-запрос для отмены вклада оценки пользователя в полезность отзыва перед удалением оценки.
+     */
+    public static final String REVERT_LIKE_USEFUL_QUERY =
+            """
+            UPDATE
+                    reviews r
+            SET
+                    useful = useful - (SELECT CASE WHEN rl.is_liked THEN 1 ELSE -1 END FROM review_likes rl WHERE rl.review_id = r.id AND rl.user_id = ?)
+            WHERE
+                    r.id = ?
+                AND
+                    EXISTS (SELECT 1 FROM review_likes rl WHERE rl.review_id = r.id AND rl.user_id = ?)
+            """;
+
     //endregion
 }
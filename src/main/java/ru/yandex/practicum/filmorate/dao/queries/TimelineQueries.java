@@ -0,0 +1,231 @@
+package ru.yandex.practicum.filmorate.dao.queries;
+
+/**
+ * Вспомогательный класс, содержащий SQL-запросы для лент событий друзей.
+ */
+public final class TimelineQueries {
+    /**
+     * SQL-запрос для добавления события в ленту пользователя.
+     */
+    public static final String ADD_TIMELINE_ENTRY_QUERY =
+            """
+            INSERT INTO
+                    timelines (user_id, event_id)
+            VALUES
+                    (?, ?)
+            """;
+
+    /**
+     * SQL-запрос для получения последних событий ленты пользователя, начиная с самого нового.
+     */
+    public static final String GET_TIMELINE_LAST_EVENTS_QUERY =
+            """
+            SELECT
+                    e.id,
+                    e.timestamp,
+                    e.user_id,
+                    e.event_type,
+                    e.operation,
+                    e.entity_id
+            FROM
+                    timelines t
+               JOIN events e ON e.id = t.event_id
+            WHERE
+                    t.user_id = ?
+            ORDER BY
+                    t.event_id DESC
+            LIMIT
+                    ?
+            """;
+
+    /**
+     * SQL-запрос для получения событий ленты пользователя, следующих за событием, в порядке их появления.
+     */
+    public static final String GET_TIMELINE_EVENTS_SINCE_QUERY =
+            """
+            SELECT
+                    e.id,
+                    e.timestamp,
+                    e.user_id,
+                    e.event_type,
+                    e.operation,
+                    e.entity_id
+            FROM
+                    timelines t
+               JOIN events e ON e.id = t.event_id
+            WHERE
+                    t.user_id = ?
+                AND
+                    t.event_id > ?
+            ORDER BY
+                    t.event_id
+            LIMIT
+                    ?
+            """;
+
+    /**
+     * SQL-запрос для получения последних событий друзей пользователя, начиная с самого нового.
+     */
+    public static final String GET_FRIENDS_LAST_EVENTS_QUERY =
+            """
+            SELECT
+                    e.id,
+                    e.timestamp,
+                    e.user_id,
+                    e.event_type,
+                    e.operation,
+                    e.entity_id
+            FROM
+                    friends f
+               JOIN events e ON e.user_id = f.friend_id
+            WHERE
+                    f.user_id = ?
+            ORDER BY
+                    e.id DESC
+            LIMIT
+                    ?
+            """;
+
+    /**
+     * SQL-запрос для получения событий друзей пользователя, следующих за событием, в порядке их появления.
+     */
+    public static final String GET_FRIENDS_EVENTS_SINCE_QUERY =
+            """
+            SELECT
+                    e.id,
+                    e.timestamp,
+                    e.user_id,
+                    e.event_type,
+                    e.operation,
+                    e.entity_id
+            FROM
+                    friends f
+               JOIN events e ON e.user_id = f.friend_id
+            WHERE
+                    f.user_id = ?
+                AND
+                    e.id > ?
+            ORDER BY
+                    e.id
+            LIMIT
+                    ?
+            """;
+
+    /**
+     * SQL-запрос для получения подписчиков пользователей — тех, у кого они в друзьях.
+     */
+    public static final String GET_FOLLOWERS_QUERY =
+            """
+            SELECT
+                    friend_id,
+                    user_id
+            FROM
+                    friends
+            WHERE
+                    friend_id IN (%s)
+            """;
+
+    /**
+     * SQL-запрос для получения количества подписчиков пользователей.
+     */
+    public static final String GET_FOLLOWERS_COUNT_QUERY =
+            """
+            SELECT
+                    friend_id,
+                    COUNT(*) AS followers_count
+            FROM
+                    friends
+            WHERE
+                    friend_id IN (%s)
+            GROUP BY
+                    friend_id
+            """;
+
+    /**
+     * SQL-запрос для получения пользователей с количеством подписчиков больше заданного.
+     */
+    public static final String GET_POPULAR_USER_IDS_QUERY =
+            """
+            SELECT
+                    friend_id
+            FROM
+                    friends
+            GROUP BY
+                    friend_id
+            HAVING
+                    COUNT(*) > ?
+            """;
+
+    /**
+     * SQL-запрос для удаления из лент событий, не входящих в заданное количество последних.
+     */
+    public static final String TRIM_TIMELINES_QUERY =
+            """
+            DELETE FROM
+                    timelines
+            WHERE
+                    (user_id, event_id) IN (
+                        SELECT
+                                user_id,
+                                event_id
+                        FROM
+                                (SELECT
+                                        user_id,
+                                        event_id,
+                                        ROW_NUMBER() OVER (PARTITION BY user_id ORDER BY event_id DESC) AS position
+                                FROM
+                                        timelines)
+                        WHERE
+                                position > ?
+                    )
+            """;
+
+    /**
+     * SQL-запрос для удаления ленты пользователя.
+     */
+    public static final String DELETE_USER_TIMELINE_QUERY =
+            """
+            DELETE FROM
+                    timelines
+            WHERE
+                    user_id = ?
+            """;
+
+    /**
+     * SQL-запрос для удаления событий пользователя из всех лент.
+     */
+    public static final String DELETE_AUTHOR_TIMELINE_ENTRIES_QUERY =
+            """
+            DELETE FROM
+                    timelines
+            WHERE
+                    event_id IN (
+                        SELECT
+                                id
+                        FROM
+                                events
+                        WHERE
+                                user_id = ?
+                    )
+            """;
+
+    /**
+     * SQL-запрос для удаления событий друга из ленты пользователя.
+     */
+    public static final String DELETE_FRIEND_TIMELINE_ENTRIES_QUERY =
+            """
+            DELETE FROM
+                    timelines
+            WHERE
+                    user_id = ?
+                AND
+                    event_id IN (
+                        SELECT
+                                id
+                        FROM
+                                events
+                        WHERE
+                                user_id = ?
+                    )
+            """;
+}
@@ -50,6 +50,32 @@ public final class UserQueries {
                     id = ?
             """;
 
+    /**
+     * SQL-запрос для проверки существования пользователя.
+     */
+    public static final String IS_USER_EXISTS_QUERY =
+            """
+            SELECT
+                    EXISTS (SELECT 1 FROM users WHERE id = ?)
+            """;
+
+    /**
+     * SQL-запрос для получения пользователей по списку идентификаторов.
+     */
+    public static final String GET_USERS_BY_IDS_QUERY =
+            """
+            SELECT
+                    id,
+                    email,
+                    login,
+                    name,
+                    birthday
+            FROM
+                    users
+            WHERE
+                    id IN (%s)
+            """;
+
     /**
      * SQL-запрос для обновления пользователя.
      */
@@ -66,6 +92,32 @@ public final class UserQueries {
                     id = ?
             """;
 
+    /**
+     * SQL-запрос для уменьшения счётчиков лайков у фильмов, которые понравились пользователю.
+     */
+    public static final String DECREMENT_LIKED_FILMS_LIKES_COUNT_QUERY =
+            """
+            UPDATE
+                    films
+            SET
+                    likes_count = likes_count - 1
+            WHERE
+                    id IN (SELECT film_id FROM film_likes WHERE user_id = ?)
+            """;
+
+    /**
+     * SQL-запрос для отмены вклада оценок пользователя в полезность отзывов.
+     */
+    public static final String REVERT_USER_REVIEW_LIKES_USEFUL_QUERY =
+            """
+            UPDATE
+                    reviews r
+            SET
+                    useful = useful - (SELECT CASE WHEN rl.is_liked THEN 1 ELSE -1 END FROM review_likes rl WHERE rl.review_id = r.id AND rl.user_id = ?)
+            WHERE
+                    id IN (SELECT review_id FROM review_likes WHERE user_id = ?)
+            """;
+
     /**
      * SQL-запрос для удаления пользователя.
      */
@@ -110,6 +162,36 @@ public final class UserQueries {
                     f.user_id = ?
             """;
 
+    /**
+     * SQL-запрос для получения идентификаторов друзей пользователя.
+     */
+    public static final String GET_USER_FRIEND_IDS_QUERY =
+            """
+            SELECT
+                    friend_id
+            FROM
+                    friends
+            WHERE
+                    user_id = ?
+            ORDER BY
+                    friend_id
+            """;
+
+    /**
+     * SQL-запрос для получения идентификаторов друзей всех пользователей.
+     */
+    public static final String GET_ALL_FRIEND_IDS_QUERY =
+            """
+            SELECT
+                    user_id,
+                    friend_id
+            FROM
+                    friends
+            ORDER BY
+                    user_id,
+                    friend_id
+            """;
+
     /**
      * SQL-запрос для получения списка общих друзей двух пользователей.
      */
@@ -0,0 +1,25 @@
+package ru.yandex.practicum.filmorate.dto.suggestion;
+
+import lombok.Data;
+import ru.yandex.practicum.filmorate.model.SuggestionType;
+
+/**
+ * Трансферный объект для подсказки автодополнения.
+ */
+@Data
+public final class SuggestionDto {
+    /**
+     * Источник подсказки.
+     */
+    private SuggestionType type;
+
+    /**
+     * Идентификатор фильма или режиссёра.
+     */
+    private long id;
+
+    /**
+     * Название фильма или имя режиссёра.
+     */
+    private String text;
+}
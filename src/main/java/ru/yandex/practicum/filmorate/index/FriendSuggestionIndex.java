@@ -0,0 +1,368 @@
+package ru.yandex.practicum.filmorate.index;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.storage.UserStorage;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Рекомендации друзей: пользователи из друзей друзей, упорядоченные по количеству общих друзей.
+ * Рекомендации вычисляются обходом графа друзей на два шага. Друзья, у которых друзей больше допустимого,
+ * при обходе пропускаются, чтобы один популярный пользователь не раздувал обход.
+ * Вычисленные рекомендации хранятся для недавно запрашивавших их пользователей и сбрасываются
+ * при изменении списка друзей самого пользователя или любого из его друзей.
+ * Граф обходится без блокировки; сохранение рекомендаций и их сброс выполняются под одной блокировкой,
+ * поэтому рекомендации, вычисленные до изменения графа, не сохраняются.
+ */
+@Component
+@Slf4j
+public class FriendSuggestionIndex {
+    /**
+     * Максимальное количество хранимых рекомендаций пользователя.
+     */
+    public static final int MAX_SUGGESTIONS = 100;
+
+    /**
+     * Хранилище пользователей.
+     */
+    private final UserStorage userStorage;
+
+    /**
+     * Количество друзей, начиная с которого друг не обходится.
+     */
+    private final int maxDegree;
+
+    /**
+     * Блокировка хранимых рекомендаций, связей зависимости и номера изменения графа.
+     */
+    private final Object lock = new Object();
+
+    /**
+     * Вычисленные рекомендации по идентификатору пользователя в порядке последнего обращения.
+     */
+    private final Map<Long, Suggestions> suggestions;
+
+    /**
+     * Пользователи, чьи хранимые рекомендации вычислены по списку друзей пользователя, по его идентификатору.
+     */
+    private final Map<Long, Set<Long>> dependents = new HashMap<>();
+
+    /**
+     * Номер изменения графа, позволяющий не сохранять рекомендации, вычисленные до изменения.
+     */
+    private long version;
+
+    public FriendSuggestionIndex(UserStorage userStorage,
+                                 @Value("${filmorate.friends.suggestions.max-degree:1000}") int maxDegree,
+                                 @Value("${filmorate.friends.suggestions.cached-users:10000}") int cachedUsers) {
+        this.userStorage = userStorage;
+        this.maxDegree = maxDegree;
+        this.suggestions = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Suggestions> eldest) {
+                if (this.size() <= cachedUsers) {
+                    return false;
+                }
+
+                FriendSuggestionIndex.this.unregister(eldest.getKey(), eldest.getValue());
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Получить идентификаторы пользователей, рекомендуемых в друзья.
+     * Пользователи упорядочены по убыванию количества общих друзей, затем по идентификатору.
+     *
+     * @param userId идентификатор пользователя.
+     * @param count  максимальное количество пользователей, не больше {@link #MAX_SUGGESTIONS}.
+     * @return список идентификаторов пользователей.
+     */
+    public List<Long> getSuggestedUserIds(long userId, int count) {
+        Suggestions suggestions;
+        synchronized (this.lock) {
+            suggestions = this.suggestions.get(userId);
+        }
+        long[] userIds = suggestions != null ? suggestions.userIds() : this.compute(userId);
+
+        return Arrays.stream(userIds).limit(count).boxed().toList();
+    }
+
+    /**
+     * Сбросить рекомендации, зависящие от списка друзей пользователя.
+     *
+     * @param userId идентификатор пользователя, чей список друзей изменился.
+     */
+    public void invalidate(long userId) {
+        synchronized (this.lock) {
+            this.version++;
+            this.invalidateDependents(userId);
+        }
+    }
+
+    /**
+     * Сбросить рекомендации, зависящие от удалённого пользователя: его собственные, вычисленные по его списку друзей
+     * и рекомендации, в которые он входит, — то есть рекомендации пользователей в двух шагах от него.
+     *
+     * @param userId идентификатор удалённого пользователя.
+     */
+    public void removeUser(long userId) {
+        synchronized (this.lock) {
+            this.version++;
+            this.invalidateDependents(userId);
+
+            List<Long> userIds = this.suggestions.entrySet().stream()
+                    .filter(entry -> Arrays.stream(entry.getValue().userIds()).anyMatch(id -> id == userId))
+                    .map(Map.Entry::getKey)
+                    .toList();
+            userIds.forEach(this::remove);
+        }
+    }
+
+    /**
+     * Получить количество пользователей, от списка друзей которых зависят хранимые рекомендации.
+     *
+     * @return количество пользователей.
+     */
+    int getDependenciesCount() {
+        synchronized (this.lock) {
+            return this.dependents.size();
+        }
+    }
+
+    //region Facilities
+
+    /**
+     * Вычислить рекомендации и сохранить их, если граф не менялся во время вычисления.
+     */
+    private long[] compute(long userId) {
+        long loadedVersion;
+        synchronized (this.lock) {
+            loadedVersion = this.version;
+        }
+
+        long[] friendIds = this.userStorage.getFriendIds(userId);
+        LongIntCounter mutualCounts = new LongIntCounter(friendIds.length * 8);
+        int skipped = 0;
+        for (long friendId : friendIds) {
+            long[] friendsOfFriend = this.userStorage.getFriendIds(friendId);
+            if (friendsOfFriend.length > this.maxDegree) {
+                skipped++;
+                continue;
+            }
+
+            for (long candidateId : friendsOfFriend) {
+                if (candidateId != userId && Arrays.binarySearch(friendIds, candidateId) < 0) {
+                    mutualCounts.increment(candidateId);
+                }
+            }
+        }
+        if (skipped > 0) {
+            log.debug("При подборе друзей пользователю с id = {} пропущено популярных друзей: {}", userId, skipped);
+        }
+
+        long[] userIds = mutualCounts.top(MAX_SUGGESTIONS);
+
+        synchronized (this.lock) {
+            if (this.version == loadedVersion && !this.suggestions.containsKey(userId)) {
+                Suggestions suggestions = new Suggestions(userIds, friendIds);
+                this.register(userId, suggestions);
+                this.suggestions.put(userId, suggestions);
+            }
+        }
+
+        return userIds;
+    }
+
+    /**
+     * Сбросить рекомендации пользователя и вычисленные по его списку друзей. Вызывается под блокировкой.
+     */
+    private void invalidateDependents(long userId) {
+        this.remove(userId);
+
+        Set<Long> userIds = this.dependents.get(userId);
+        if (userIds != null) {
+            List.copyOf(userIds).forEach(this::remove);
+        }
+    }
+
+    /**
+     * Удалить рекомендации пользователя вместе с их связями зависимости. Вызывается под блокировкой.
+     */
+    private void remove(long userId) {
+        Suggestions suggestions = this.suggestions.remove(userId);
+        if (suggestions != null) {
+            this.unregister(userId, suggestions);
+        }
+    }
+
+    /**
+     * Запомнить, что рекомендации пользователя зависят от его списка друзей и списков друзей его друзей.
+     */
+    private void register(long userId, Suggestions suggestions) {
+        this.dependents.computeIfAbsent(userId, id -> new HashSet<>()).add(userId);
+        for (long friendId : suggestions.friendIds()) {
+            this.dependents.computeIfAbsent(friendId, id -> new HashSet<>()).add(userId);
+        }
+    }
+
+    private void unregister(long userId, Suggestions suggestions) {
+        this.removeDependent(userId, userId);
+        for (long friendId : suggestions.friendIds()) {
+            this.removeDependent(friendId, userId);
+        }
+    }
+
+    private void removeDependent(long userId, long dependentId) {
+        Set<Long> userIds = this.dependents.get(userId);
+        if (userIds != null && userIds.remove(dependentId) && userIds.isEmpty()) {
+            this.dependents.remove(userId);
+        }
+    }
+
+    /**
+     * Хранимые рекомендации пользователя.
+     *
+     * @param userIds   рекомендуемые пользователи.
+     * @param friendIds друзья пользователя, по спискам друзей которых вычислены рекомендации.
+     */
+    private record Suggestions(long[] userIds, long[] friendIds) {
+    }
+
+    /**
+     * Счётчик по идентификатору на открытой адресации без упаковки ключей и значений.
+     */
+    static final class LongIntCounter {
+        private static final long EMPTY = Long.MIN_VALUE;
+
+        private long[] keys;
+        private int[] counts;
+        private int size;
+
+        LongIntCounter(int expectedSize) {
+            int capacity = Integer.highestOneBit(Math.max(16, expectedSize * 2) - 1) << 1;
+            this.keys = new long[capacity];
+            this.counts = new int[capacity];
+            Arrays.fill(this.keys, EMPTY);
+        }
+
+        void increment(long key) {
+            int mask = this.keys.length - 1;
+            int slot = Long.hashCode(key * 0x9E3779B97F4A7C15L) & mask;
+            while (this.keys[slot] != EMPTY && this.keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+
+            if (this.keys[slot] == EMPTY) {
+                this.keys[slot] = key;
+                this.size++;
+            }
+            this.counts[slot]++;
+
+            if (this.size * 2 > this.keys.length) {
+                this.grow();
+            }
+        }
+
+        /**
+         * Получить ключи с наибольшими значениями: по убыванию значения, затем по возрастанию ключа.
+         * Лучшие ключи отбираются кучей ограниченного размера, в вершине которой худший из отобранных.
+         */
+        long[] top(int limit) {
+            int[] heap = new int[Math.min(limit, this.size)];
+            int heapSize = 0;
+            for (int slot = 0; slot < this.keys.length && heap.length > 0; slot++) {
+                if (this.keys[slot] == EMPTY) {
+                    continue;
+                }
+
+                if (heapSize < heap.length) {
+                    heap[heapSize] = slot;
+                    this.siftUp(heap, heapSize++);
+                } else if (this.better(slot, heap[0])) {
+                    heap[0] = slot;
+                    this.siftDown(heap, heapSize);
+                }
+            }
+
+            long[] result = new long[heapSize];
+            while (heapSize > 0) {
+                result[heapSize - 1] = this.keys[heap[0]];
+                heap[0] = heap[--heapSize];
+                this.siftDown(heap, heapSize);
+            }
+            return result;
+        }
+
+        private boolean better(int first, int second) {
+            return this.counts[first] != this.counts[second]
+                    ? this.counts[first] > this.counts[second]
+                    : this.keys[first] < this.keys[second];
+        }
+
+        private void siftUp(int[] heap, int index) {
+            while (index > 0) {
+                int parent = (index - 1) / 2;
+                if (!this.better(heap[parent], heap[index])) {
+                    return;
+                }
+                int swap = heap[parent];
+                heap[parent] = heap[index];
+                heap[index] = swap;
+                index = parent;
+            }
+        }
+
+        private void siftDown(int[] heap, int heapSize) {
+            int index = 0;
+            while (true) {
+                int worst = index;
+                int left = 2 * index + 1;
+                int right = left + 1;
+                if (left < heapSize && this.better(heap[worst], heap[left])) {
+                    worst = left;
+                }
+                if (right < heapSize && this.better(heap[worst], heap[right])) {
+                    worst = right;
+                }
+                if (worst == index) {
+                    return;
+                }
+                int swap = heap[worst];
+                heap[worst] = heap[index];
+                heap[index] = swap;
+                index = worst;
+            }
+        }
+
+        private void grow() {
+            long[] oldKeys = this.keys;
+            int[] oldCounts = this.counts;
+            this.keys = new long[oldKeys.length * 2];
+            this.counts = new int[oldKeys.length * 2];
+            Arrays.fill(this.keys, EMPTY);
+
+            int mask = this.keys.length - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != EMPTY) {
+                    int slot = Long.hashCode(oldKeys[i] * 0x9E3779B97F4A7C15L) & mask;
+                    while (this.keys[slot] != EMPTY) {
+                        slot = (slot + 1) & mask;
+                    }
+                    this.keys[slot] = oldKeys[i];
+                    this.counts[slot] = oldCounts[i];
+                }
+            }
+        }
+    }
+
+    //endregion
+}
@@ -0,0 +1,114 @@
+package ru.yandex.practicum.filmorate.index;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Состояние индекса в памяти.
+ * Чтение и изменение состояния разделены блокировкой. Во время полной перестройки изменения применяются
+ * к текущему состоянию и запоминаются, а после построения нового состояния повторяются на нём перед заменой,
+ * поэтому изменения, выполненные во время перестройки, не теряются.
+ *
+ * @param <S> тип состояния.
+ */
+final class IndexState<S> {
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private S state;
+
+    /**
+     * Изменения, выполненные с начала текущей перестройки, или {@code null}, если индекс не перестраивается.
+     */
+    private List<Consumer<S>> pending;
+
+    IndexState(S state) {
+        this.state = state;
+    }
+
+    /**
+     * Прочитать состояние.
+     *
+     * @param reader чтение.
+     * @return результат чтения.
+     */
+    <T> T read(Function<S, T> reader) {
+        this.lock.readLock().lock();
+        try {
+            return reader.apply(this.state);
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Изменить состояние.
+     *
+     * @param change изменение; во время перестройки оно будет повторено на новом состоянии.
+     */
+    void update(Consumer<S> change) {
+        this.lock.writeLock().lock();
+        try {
+            change.accept(this.state);
+            if (this.pending != null) {
+                this.pending.add(change);
+            }
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Перестроить состояние.
+     * Запоминание изменений начинается внутри {@link IndexUpdateGate#snapshot(Supplier)}, то есть после завершения
+     * всех начатых изменений: изменение, попавшее в прочитанные данные, не будет применено повторно.
+     *
+     * @param gate    согласование изменений с чтением данных.
+     * @param reader  чтение данных для перестройки.
+     * @param builder построение нового состояния по прочитанным данным.
+     * @return новое состояние.
+     */
+    synchronized <D> S rebuild(IndexUpdateGate gate, Supplier<D> reader, Function<D, S> builder) {
+        boolean completed = false;
+        try {
+            D data = gate.snapshot(() -> {
+                this.setPending(new ArrayList<>());
+                return reader.get();
+            });
+            S rebuilt = builder.apply(data);
+
+            this.lock.writeLock().lock();
+            try {
+                this.pending.forEach(change -> change.accept(rebuilt));
+                this.pending = null;
+                this.state = rebuilt;
+            } finally {
+                this.lock.writeLock().unlock();
+            }
+
+            completed = true;
+            return rebuilt;
+        } finally {
+            if (!completed) {
+                this.setPending(null);
+            }
+        }
+    }
+
+    //region Facilities
+
+    private void setPending(List<Consumer<S>> pending) {
+        this.lock.writeLock().lock();
+        try {
+            this.pending = pending;
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    //endregion
+}
@@ -0,0 +1,64 @@
+package ru.yandex.practicum.filmorate.index;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Согласование изменений данных с чтением данных для полной перестройки индексов в памяти.
+ * Изменение состоит из записи в БД и изменения индексов; оба шага выполняются внутри {@link #update(Runnable)}.
+ * Данные для перестройки читаются внутри {@link #snapshot(Supplier)}, когда ни одно изменение не выполняется:
+ * каждое изменение либо целиком попадает в прочитанные данные, либо начинается после чтения
+ * и повторяется на перестроенном индексе (см. {@link IndexState}).
+ * Изменения выполняются параллельно друг с другом и ожидают только на время чтения данных для перестройки.
+ */
+@Component
+public class IndexUpdateGate {
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Выполнить изменение данных и индексов.
+     *
+     * @param update изменение.
+     */
+    public void update(Runnable update) {
+        this.lock.readLock().lock();
+        try {
+            update.run();
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Выполнить изменение данных и индексов.
+     *
+     * @param update изменение.
+     * @return результат изменения.
+     */
+    public <T> T update(Supplier<T> update) {
+        this.lock.readLock().lock();
+        try {
+            return update.get();
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Прочитать данные для перестройки индекса, не допуская одновременных изменений.
+     *
+     * @param reader чтение данных.
+     * @return прочитанные данные.
+     */
+    public <T> T snapshot(Supplier<T> reader) {
+        this.lock.writeLock().lock();
+        try {
+            return reader.get();
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+}
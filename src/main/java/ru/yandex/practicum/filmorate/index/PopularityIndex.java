@@ -0,0 +1,314 @@
+package ru.yandex.practicum.filmorate.index;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Genre;
+import ru.yandex.practicum.filmorate.storage.FilmStorage;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+/**
+ * Индекс популярности фильмов в памяти.
+ * Хранит отсортированные по количеству лайков множества фильмов: общее, по жанру, по году выпуска
+ * и по сочетанию жанра и года, поэтому список популярных фильмов строится без обращения к БД.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PopularityIndex {
+    /**
+     * Порядок фильмов в рейтинге: по убыванию количества лайков, затем по идентификатору.
+     */
+    private static final Comparator<Rank> RANK_ORDER = Comparator.comparingLong(Rank::likes).reversed()
+            .thenComparingLong(Rank::filmId);
+
+    /**
+     * Хранилище фильмов.
+     */
+    private final FilmStorage filmStorage;
+
+    /**
+     * Реестр метрик.
+     */
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Согласование изменений с перестройкой индекса.
+     */
+    private final IndexUpdateGate indexUpdateGate;
+
+    /**
+     * Текущее состояние индекса.
+     */
+    private final IndexState<State> state = new IndexState<>(new State());
+
+    /**
+     * Момент последней полной перестройки индекса.
+     */
+    private volatile Instant rebuiltAt = Instant.now();
+
+    /**
+     * Момент последнего изменения индекса.
+     */
+    private volatile Instant updatedAt = Instant.now();
+
+    /**
+     * Построить индекс при запуске приложения и зарегистрировать метрики свежести рейтинга.
+     */
+    @PostConstruct
+    public void init() {
+        this.rebuild();
+
+        Gauge.builder("filmorate.popularity.index.rebuild.age", this, index -> index.secondsSince(index.rebuiltAt))
+                .description("Время с последней полной перестройки индекса популярности")
+                .baseUnit("seconds")
+                .register(this.meterRegistry);
+        Gauge.builder("filmorate.popularity.index.update.age", this, index -> index.secondsSince(index.updatedAt))
+                .description("Время с последнего изменения индекса популярности")
+                .baseUnit("seconds")
+                .register(this.meterRegistry);
+        Gauge.builder("filmorate.popularity.index.size", this, index -> index.size())
+                .description("Количество фильмов в индексе популярности")
+                .register(this.meterRegistry);
+    }
+
+    /**
+     * Полностью перестроить индекс по данным хранилища: фильмам и количеству лайков из таблицы лайков.
+     * Изменения, выполненные во время перестройки, повторяются на перестроенном индексе.
+     */
+    public void rebuild() {
+        State rebuilt = this.state.rebuild(this.indexUpdateGate,
+                () -> new Snapshot(this.filmStorage.getAllFilms(), this.filmStorage.getFilmsLikesCount()),
+                snapshot -> {
+                    State built = new State();
+                    snapshot.films().forEach(film -> built.add(new Entry(film.getId(),
+                            snapshot.likesCount().getOrDefault(film.getId(), 0L), film.getReleaseDate().getYear(), genreIds(film))));
+                    return built;
+                });
+
+        this.rebuiltAt = Instant.now();
+        this.updatedAt = this.rebuiltAt;
+        log.debug("Индекс популярности перестроен, фильмов в индексе: {}", rebuilt.entries.size());
+    }
+
+    /**
+     * Добавить фильм в индекс или обновить его жанры и год выпуска.
+     *
+     * @param film фильм.
+     */
+    public void putFilm(Film film) {
+        Entry entry = new Entry(film.getId(), 0, film.getReleaseDate().getYear(), genreIds(film));
+        this.state.update(state -> state.put(entry));
+        this.updatedAt = Instant.now();
+    }
+
+    /**
+     * Удалить фильм из индекса.
+     *
+     * @param filmId идентификатор фильма.
+     */
+    public void removeFilm(long filmId) {
+        this.state.update(state -> state.remove(filmId));
+        this.updatedAt = Instant.now();
+    }
+
+    /**
+     * Изменить количество лайков фильма.
+     *
+     * @param filmId идентификатор фильма.
+     * @param delta  изменение количества лайков.
+     */
+    public void changeLikes(long filmId, long delta) {
+        this.state.update(state -> state.changeLikes(filmId, delta));
+        this.updatedAt = Instant.now();
+    }
+
+    /**
+     * Получить количество лайков фильма.
+     *
+     * @param filmId идентификатор фильма.
+     * @return количество лайков или 0, если фильма нет в индексе.
+     */
+    public long getLikes(long filmId) {
+        return this.state.read(state -> {
+            Entry entry = state.entries.get(filmId);
+            return entry == null ? 0L : entry.likes();
+        });
+    }
+
+    /**
+     * Получить идентификаторы популярных фильмов, отсортированные по количеству лайков.
+     *
+     * @param count   количество фильмов, которые необходимо получить.
+     * @param genreId идентификатор жанра, по которому необходимо произвести фильтрацию, если предоставлен.
+     * @param year    год выпуска фильма, по которому необходимо произвести фильтрацию, если предоставлен.
+     * @return список идентификаторов фильмов.
+     */
+    public List<Long> getTopFilmIds(long count, Long genreId, Integer year) {
+        return this.state.read(state -> {
+            NavigableSet<Rank> ranks;
+            if (genreId != null && year != null) {
+                ranks = state.byGenreAndYear.get(new GenreYear(genreId, year));
+            } else if (genreId != null) {
+                ranks = state.byGenre.get(genreId);
+            } else if (year != null) {
+                ranks = state.byYear.get(year);
+            } else {
+                ranks = state.all;
+            }
+
+            List<Long> filmIds = new ArrayList<>();
+            if (ranks != null) {
+                for (Rank rank : ranks) {
+                    if (filmIds.size() >= count) {
+                        break;
+                    }
+                    filmIds.add(rank.filmId());
+                }
+            }
+            return filmIds;
+        });
+    }
+
+    //region Facilities
+
+    private int size() {
+        return this.state.read(state -> state.entries.size());
+    }
+
+    private double secondsSince(Instant instant) {
+        return Duration.between(instant, Instant.now()).toMillis() / 1000.0;
+    }
+
+    private static long[] genreIds(Film film) {
+        return film.getGenres() == null ? new long[0] : film.getGenres().stream()
+                .mapToLong(Genre::getId)
+                .distinct()
+                .toArray();
+    }
+
+    /**
+     * Данные для перестройки индекса.
+     *
+     * @param films      фильмы.
+     * @param likesCount количество лайков по идентификатору фильма.
+     */
+    private record Snapshot(Collection<Film> films, Map<Long, Long> likesCount) {
+    }
+
+    /**
+     * Позиция фильма в рейтинге.
+     *
+     * @param likes  количество лайков.
+     * @param filmId идентификатор фильма.
+     */
+    private record Rank(long likes, long filmId) {
+    }
+
+    /**
+     * Ключ раздела рейтинга по жанру и году выпуска.
+     *
+     * @param genreId идентификатор жанра.
+     * @param year    год выпуска.
+     */
+    private record GenreYear(long genreId, int year) {
+    }
+
+    /**
+     * Сведения о фильме, необходимые для размещения в рейтинге.
+     *
+     * @param filmId   идентификатор фильма.
+     * @param likes    количество лайков.
+     * @param year     год выпуска.
+     * @param genreIds идентификаторы жанров.
+     */
+    private record Entry(long filmId, long likes, int year, long[] genreIds) {
+        Rank rank() {
+            return new Rank(this.likes, this.filmId);
+        }
+
+        Entry withLikes(long likes) {
+            return new Entry(this.filmId, likes, this.year, this.genreIds);
+        }
+    }
+
+    /**
+     * Содержимое индекса: сведения о фильмах и разделы рейтинга.
+     */
+    private static final class State {
+        private final Map<Long, Entry> entries = new HashMap<>();
+        private final NavigableSet<Rank> all = new TreeSet<>(RANK_ORDER);
+        private final Map<Long, NavigableSet<Rank>> byGenre = new HashMap<>();
+        private final Map<Integer, NavigableSet<Rank>> byYear = new HashMap<>();
+        private final Map<GenreYear, NavigableSet<Rank>> byGenreAndYear = new HashMap<>();
+
+        void add(Entry entry) {
+            Rank rank = entry.rank();
+            this.entries.put(entry.filmId(), entry);
+            this.all.add(rank);
+            this.byYear.computeIfAbsent(entry.year(), year -> new TreeSet<>(RANK_ORDER)).add(rank);
+            for (long genreId : entry.genreIds()) {
+                this.byGenre.computeIfAbsent(genreId, id -> new TreeSet<>(RANK_ORDER)).add(rank);
+                this.byGenreAndYear.computeIfAbsent(new GenreYear(genreId, entry.year()), key -> new TreeSet<>(RANK_ORDER)).add(rank);
+            }
+        }
+
+        /**
+         * Добавить фильм или обновить его жанры и год выпуска, сохранив количество лайков.
+         */
+        void put(Entry entry) {
+            Entry previous = this.remove(entry.filmId());
+            this.add(previous == null ? entry : entry.withLikes(previous.likes()));
+        }
+
+        void changeLikes(long filmId, long delta) {
+            Entry previous = this.remove(filmId);
+            if (previous != null) {
+                this.add(previous.withLikes(Math.max(0, previous.likes() + delta)));
+            }
+        }
+
+        Entry remove(long filmId) {
+            Entry entry = this.entries.remove(filmId);
+            if (entry == null) {
+                return null;
+            }
+
+            Rank rank = entry.rank();
+            this.all.remove(rank);
+            removeFromPartition(this.byYear, entry.year(), rank);
+            for (long genreId : entry.genreIds()) {
+                removeFromPartition(this.byGenre, genreId, rank);
+                removeFromPartition(this.byGenreAndYear, new GenreYear(genreId, entry.year()), rank);
+            }
+
+            return entry;
+        }
+
+        private static <K> void removeFromPartition(Map<K, NavigableSet<Rank>> partitions, K key, Rank rank) {
+            NavigableSet<Rank> partition = partitions.get(key);
+            if (partition != null) {
+                partition.remove(rank);
+                if (partition.isEmpty()) {
+                    partitions.remove(key);
+                }
+            }
+        }
+    }
+
+    //endregion
+}
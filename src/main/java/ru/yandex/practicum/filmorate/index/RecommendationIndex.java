@@ -0,0 +1,272 @@
+package ru.yandex.practicum.filmorate.index;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.storage.FilmStorage;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Индекс лайков для рекомендаций фильмов в памяти.
+ * Хранит для каждого пользователя битовую карту понравившихся фильмов, а для каждого фильма — битовую карту
+ * поставивших лайк пользователей. Пользователи и фильмы пронумерованы подряд, поэтому карты остаются плотными;
+ * номера удалённых пользователей и фильмов освобождаются и достаются следующим добавленным.
+ * Похожие пользователи выбираются по коэффициенту Жаккара, рекомендации — по сумме сходства соседей.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RecommendationIndex {
+    /**
+     * Количество похожих пользователей, по лайкам которых строятся рекомендации.
+     */
+    private static final int NEIGHBOURS_COUNT = 10;
+
+    /**
+     * Хранилище фильмов.
+     */
+    private final FilmStorage filmStorage;
+
+    /**
+     * Согласование изменений с перестройкой индекса.
+     */
+    private final IndexUpdateGate indexUpdateGate;
+
+    /**
+     * Текущее состояние индекса.
+     */
+    private final IndexState<State> state = new IndexState<>(new State());
+
+    /**
+     * Построить индекс при запуске приложения.
+     */
+    @PostConstruct
+    public void init() {
+        this.rebuild();
+    }
+
+    /**
+     * Полностью перестроить индекс по данным хранилища.
+     * Изменения, выполненные во время перестройки, повторяются на перестроенном индексе.
+     */
+    public void rebuild() {
+        State rebuilt = this.state.rebuild(this.indexUpdateGate, this.filmStorage::getAllUsersLikedFilmIds, likedFilmIds -> {
+            State built = new State();
+            likedFilmIds.forEach((userId, filmIds) -> filmIds.forEach(filmId -> built.addLike(userId, filmId)));
+            return built;
+        });
+
+        log.debug("Индекс рекомендаций перестроен, пользователей в индексе: {}", rebuilt.size());
+    }
+
+    /**
+     * Учесть лайк пользователя.
+     *
+     * @param userId идентификатор пользователя.
+     * @param filmId идентификатор фильма.
+     */
+    public void addLike(long userId, long filmId) {
+        this.state.update(state -> state.addLike(userId, filmId));
+    }
+
+    /**
+     * Удалить лайк пользователя.
+     *
+     * @param userId идентификатор пользователя.
+     * @param filmId идентификатор фильма.
+     */
+    public void removeLike(long userId, long filmId) {
+        this.state.update(state -> state.removeLike(userId, filmId));
+    }
+
+    /**
+     * Удалить из индекса все лайки пользователя.
+     *
+     * @param userId идентификатор пользователя.
+     */
+    public void removeUser(long userId) {
+        this.state.update(state -> state.removeUser(userId));
+    }
+
+    /**
+     * Удалить из индекса все лайки фильма.
+     *
+     * @param filmId идентификатор фильма.
+     */
+    public void removeFilm(long filmId) {
+        this.state.update(state -> state.removeFilm(filmId));
+    }
+
+    /**
+     * Получить идентификаторы рекомендуемых пользователю фильмов.
+     * Фильмы упорядочены по убыванию суммарного сходства лайкнувших их соседей, затем по идентификатору.
+     *
+     * @param userId идентификатор пользователя.
+     * @param count  максимальное количество фильмов.
+     * @return список идентификаторов фильмов без повторов.
+     */
+    public List<Long> getRecommendedFilmIds(long userId, int count) {
+        return this.state.read(state -> state.recommend(userId, count));
+    }
+
+    //region Facilities
+
+    /**
+     * Похожий пользователь.
+     *
+     * @param userIndex  порядковый номер пользователя.
+     * @param userId     идентификатор пользователя.
+     * @param similarity коэффициент Жаккара.
+     */
+    private record Neighbour(int userIndex, long userId, double similarity) {
+    }
+
+    /**
+     * Рекомендуемый фильм.
+     *
+     * @param filmId идентификатор фильма.
+     * @param score  суммарное сходство лайкнувших фильм соседей.
+     */
+    private record Candidate(long filmId, double score) {
+    }
+
+    /**
+     * Содержимое индекса: нумерация пользователей и фильмов и битовые карты лайков.
+     * Освобождённые номера хранятся в стеках и выдаются повторно, их битовые карты к этому моменту пусты.
+     */
+    private static final class State {
+        private final Map<Long, Integer> userIndexes = new HashMap<>();
+        private final List<Long> userIds = new ArrayList<>();
+        private final List<BitSet> filmsByUser = new ArrayList<>();
+        private final Deque<Integer> freeUserIndexes = new ArrayDeque<>();
+
+        private final Map<Long, Integer> filmIndexes = new HashMap<>();
+        private final List<Long> filmIds = new ArrayList<>();
+        private final List<BitSet> usersByFilm = new ArrayList<>();
+        private final Deque<Integer> freeFilmIndexes = new ArrayDeque<>();
+
+        void addLike(long userId, long filmId) {
+            int userIndex = this.userIndexes.computeIfAbsent(userId,
+                    id -> allocate(id, this.userIds, this.filmsByUser, this.freeUserIndexes));
+            int filmIndex = this.filmIndexes.computeIfAbsent(filmId,
+                    id -> allocate(id, this.filmIds, this.usersByFilm, this.freeFilmIndexes));
+
+            this.filmsByUser.get(userIndex).set(filmIndex);
+            this.usersByFilm.get(filmIndex).set(userIndex);
+        }
+
+        void removeLike(long userId, long filmId) {
+            Integer userIndex = this.userIndexes.get(userId);
+            Integer filmIndex = this.filmIndexes.get(filmId);
+            if (userIndex != null && filmIndex != null) {
+                this.filmsByUser.get(userIndex).clear(filmIndex);
+                this.usersByFilm.get(filmIndex).clear(userIndex);
+            }
+        }
+
+        void removeUser(long userId) {
+            Integer userIndex = this.userIndexes.remove(userId);
+            if (userIndex != null) {
+                BitSet films = this.filmsByUser.get(userIndex);
+                films.stream().forEach(filmIndex -> this.usersByFilm.get(filmIndex).clear(userIndex));
+                release(userIndex, this.userIds, this.filmsByUser, this.freeUserIndexes);
+            }
+        }
+
+        void removeFilm(long filmId) {
+            Integer filmIndex = this.filmIndexes.remove(filmId);
+            if (filmIndex != null) {
+                BitSet users = this.usersByFilm.get(filmIndex);
+                users.stream().forEach(userIndex -> this.filmsByUser.get(userIndex).clear(filmIndex));
+                release(filmIndex, this.filmIds, this.usersByFilm, this.freeFilmIndexes);
+            }
+        }
+
+        int size() {
+            return this.userIndexes.size();
+        }
+
+        /**
+         * Выдать номер: освобождённый, если он есть, иначе следующий по порядку.
+         */
+        private static int allocate(long id, List<Long> ids, List<BitSet> bitSets, Deque<Integer> free) {
+            Integer index = free.poll();
+            if (index != null) {
+                ids.set(index, id);
+                return index;
+            }
+
+            ids.add(id);
+            bitSets.add(new BitSet());
+            return ids.size() - 1;
+        }
+
+        private static void release(int index, List<Long> ids, List<BitSet> bitSets, Deque<Integer> free) {
+            ids.set(index, null);
+            bitSets.get(index).clear();
+            free.push(index);
+        }
+
+        List<Long> recommend(long userId, int count) {
+            Integer userIndex = this.userIndexes.get(userId);
+            if (userIndex == null) {
+                return List.of();
+            }
+
+            BitSet liked = this.filmsByUser.get(userIndex);
+            if (liked.isEmpty()) {
+                return List.of();
+            }
+
+            List<Neighbour> neighbours = this.findNeighbours(userIndex, liked);
+
+            Map<Integer, Double> scores = new HashMap<>();
+            for (Neighbour neighbour : neighbours) {
+                BitSet candidates = (BitSet) this.filmsByUser.get(neighbour.userIndex()).clone();
+                candidates.andNot(liked);
+                candidates.stream().forEach(filmIndex -> scores.merge(filmIndex, neighbour.similarity(), Double::sum));
+            }
+
+            return scores.entrySet().stream()
+                    .map(entry -> new Candidate(this.filmIds.get(entry.getKey()), entry.getValue()))
+                    .sorted(Comparator.comparingDouble(Candidate::score).reversed().thenComparingLong(Candidate::filmId))
+                    .limit(count)
+                    .map(Candidate::filmId)
+                    .toList();
+        }
+
+        private List<Neighbour> findNeighbours(int userIndex, BitSet liked) {
+            BitSet overlapping = new BitSet();
+            liked.stream().forEach(filmIndex -> overlapping.or(this.usersByFilm.get(filmIndex)));
+            overlapping.clear(userIndex);
+
+            List<Neighbour> neighbours = new ArrayList<>();
+            overlapping.stream().forEach(otherIndex -> {
+                BitSet other = this.filmsByUser.get(otherIndex);
+
+                BitSet intersection = (BitSet) liked.clone();
+                intersection.and(other);
+                int common = intersection.cardinality();
+                double similarity = (double) common / (liked.cardinality() + other.cardinality() - common);
+
+                neighbours.add(new Neighbour(otherIndex, this.userIds.get(otherIndex), similarity));
+            });
+
+            return neighbours.stream()
+                    .sorted(Comparator.comparingDouble(Neighbour::similarity).reversed().thenComparingLong(Neighbour::userId))
+                    .limit(NEIGHBOURS_COUNT)
+                    .toList();
+        }
+    }
+
+    //endregion
+}
@@ -0,0 +1,324 @@
+package ru.yandex.practicum.filmorate.index;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.model.Director;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.FilmSearchBy;
+import ru.yandex.practicum.filmorate.storage.DirectorStorage;
+import ru.yandex.practicum.filmorate.storage.FilmStorage;
+
+import java.text.Normalizer;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Поисковый индекс фильмов в памяти.
+ * Названия фильмов и имена режиссёров приводятся к нижнему регистру без диакритических знаков
+ * и разбиваются на триграммы. Поиск подстроки сводится к пересечению списков фильмов по триграммам запроса
+ * с последующей проверкой совпадения; результат упорядочивается по количеству лайков.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SearchIndex {
+    /**
+     * Длина n-граммы.
+     */
+    private static final int GRAM_LENGTH = 3;
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    /**
+     * Хранилище фильмов.
+     */
+    private final FilmStorage filmStorage;
+
+    /**
+     * Хранилище режиссёров.
+     */
+    private final DirectorStorage directorStorage;
+
+    /**
+     * Индекс популярности фильмов, по которому упорядочиваются результаты поиска.
+     */
+    private final PopularityIndex popularityIndex;
+
+    /**
+     * Согласование изменений с перестройкой индекса.
+     */
+    private final IndexUpdateGate indexUpdateGate;
+
+    /**
+     * Текущее состояние индекса.
+     */
+    private final IndexState<State> state = new IndexState<>(new State());
+
+    /**
+     * Построить индекс при запуске приложения.
+     */
+    @PostConstruct
+    public void init() {
+        this.rebuild();
+    }
+
+    /**
+     * Полностью перестроить индекс по данным хранилищ.
+     * Изменения, выполненные во время перестройки, повторяются на перестроенном индексе.
+     */
+    public void rebuild() {
+        State rebuilt = this.state.rebuild(this.indexUpdateGate,
+                () -> new Snapshot(this.directorStorage.getAllDirectors(), this.filmStorage.getAllFilms()),
+                snapshot -> {
+                    State built = new State();
+                    snapshot.directors().forEach(built::putDirector);
+                    snapshot.films().forEach(built::putFilm);
+                    return built;
+                });
+
+        log.debug("Поисковый индекс перестроен, фильмов в индексе: {}", rebuilt.titles.size());
+    }
+
+    /**
+     * Добавить фильм в индекс или обновить его название и режиссёров.
+     *
+     * @param film фильм.
+     */
+    public void putFilm(Film film) {
+        this.state.update(state -> {
+            state.removeFilm(film.getId());
+            state.putFilm(film);
+        });
+    }
+
+    /**
+     * Удалить фильм из индекса.
+     *
+     * @param filmId идентификатор фильма.
+     */
+    public void removeFilm(long filmId) {
+        this.state.update(state -> state.removeFilm(filmId));
+    }
+
+    /**
+     * Добавить режиссёра в индекс или обновить его имя.
+     *
+     * @param director режиссёр.
+     */
+    public void putDirector(Director director) {
+        this.state.update(state -> {
+            state.removeDirectorName(director.getId());
+            state.putDirector(director);
+        });
+    }
+
+    /**
+     * Удалить режиссёра из индекса вместе с его связями с фильмами.
+     *
+     * @param directorId идентификатор режиссёра.
+     */
+    public void removeDirector(long directorId) {
+        this.state.update(state -> state.removeDirector(directorId));
+    }
+
+    /**
+     * Найти фильмы, название или имя режиссёра которых содержит поисковую строку.
+     *
+     * @param query  поисковая строка.
+     * @param fields поля, по которым производится поиск.
+     * @return идентификаторы фильмов, упорядоченные по убыванию количества лайков, затем по идентификатору.
+     */
+    public List<Long> search(String query, Set<FilmSearchBy> fields) {
+        String folded = fold(query);
+        Set<Long> filmIds = this.state.read(state -> {
+            Set<Long> matches = new HashSet<>();
+            if (fields.contains(FilmSearchBy.TITLE)) {
+                matches.addAll(state.titleMatches(folded));
+            }
+            if (fields.contains(FilmSearchBy.DIRECTOR)) {
+                matches.addAll(state.directorMatches(folded));
+            }
+            return matches;
+        });
+
+        return filmIds.stream()
+                .sorted(Comparator.comparingLong((Long filmId) -> this.popularityIndex.getLikes(filmId)).reversed()
+                        .thenComparingLong(filmId -> filmId))
+                .toList();
+    }
+
+    //region Facilities
+
+    /**
+     * Привести строку к виду для поиска: нижний регистр без диакритических знаков.
+     * У кириллических букв знаки сохраняются, чтобы «й» не совпадала с «и»; только «ё» приводится к «е».
+     *
+     * @param text строка.
+     * @return приведённая строка.
+     */
+    static String fold(String text) {
+        String decomposed = Normalizer.normalize(text.toLowerCase(Locale.ROOT), Normalizer.Form.NFD);
+        String folded = COMBINING_MARKS.matcher(decomposed)
+                .replaceAll(match -> keepsMarks(decomposed, match.start()) ? Matcher.quoteReplacement(match.group()) : "");
+        return Normalizer.normalize(folded, Normalizer.Form.NFC);
+    }
+
+    private static boolean keepsMarks(String decomposed, int markIndex) {
+        if (markIndex == 0) {
+            return false;
+        }
+
+        char letter = decomposed.charAt(markIndex - 1);
+        return letter != 'е' && Character.UnicodeScript.of(letter) == Character.UnicodeScript.CYRILLIC;
+    }
+
+    private static Set<String> grams(String folded) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= folded.length(); i++) {
+            grams.add(folded.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    /**
+     * Данные для перестройки индекса.
+     *
+     * @param directors режиссёры.
+     * @param films     фильмы.
+     */
+    private record Snapshot(Collection<Director> directors, Collection<Film> films) {
+    }
+
+    /**
+     * Инвертированный индекс строк по триграммам.
+     */
+    private static final class GramIndex {
+        private final Map<Long, String> texts = new HashMap<>();
+        private final Map<String, Set<Long>> postings = new HashMap<>();
+
+        int size() {
+            return this.texts.size();
+        }
+
+        void put(long id, String text) {
+            String folded = fold(text);
+            this.texts.put(id, folded);
+            grams(folded).forEach(gram -> this.postings.computeIfAbsent(gram, key -> new HashSet<>()).add(id));
+        }
+
+        void remove(long id) {
+            String folded = this.texts.remove(id);
+            if (folded == null) {
+                return;
+            }
+
+            grams(folded).forEach(gram -> {
+                Set<Long> ids = this.postings.get(gram);
+                if (ids != null) {
+                    ids.remove(id);
+                    if (ids.isEmpty()) {
+                        this.postings.remove(gram);
+                    }
+                }
+            });
+        }
+
+        /**
+         * Найти строки, содержащие подстроку.
+         * Запросы короче триграммы проверяются по всем строкам.
+         */
+        Collection<Long> find(String folded) {
+            if (folded.length() < GRAM_LENGTH) {
+                return this.texts.entrySet().stream()
+                        .filter(entry -> entry.getValue().contains(folded))
+                        .map(Map.Entry::getKey)
+                        .toList();
+            }
+
+            List<Set<Long>> lists = grams(folded).stream()
+                    .map(gram -> this.postings.getOrDefault(gram, Set.of()))
+                    .sorted(Comparator.comparingInt(Set::size))
+                    .toList();
+
+            Set<Long> candidates = new HashSet<>(lists.getFirst());
+            lists.stream().skip(1).forEach(candidates::retainAll);
+            candidates.removeIf(id -> !this.texts.get(id).contains(folded));
+
+            return candidates;
+        }
+    }
+
+    /**
+     * Содержимое индекса: названия фильмов, имена режиссёров и связи между ними.
+     */
+    private static final class State {
+        private final GramIndex titles = new GramIndex();
+        private final GramIndex directorNames = new GramIndex();
+        private final Map<Long, Set<Long>> directorsByFilm = new HashMap<>();
+        private final Map<Long, Set<Long>> filmsByDirector = new HashMap<>();
+
+        void putFilm(Film film) {
+            this.titles.put(film.getId(), film.getName());
+
+            Set<Long> directorIds = new HashSet<>();
+            if (film.getDirectors() != null) {
+                film.getDirectors().forEach(director -> directorIds.add(director.getId()));
+            }
+            this.directorsByFilm.put(film.getId(), directorIds);
+            directorIds.forEach(directorId -> this.filmsByDirector.computeIfAbsent(directorId, id -> new HashSet<>()).add(film.getId()));
+        }
+
+        void removeFilm(long filmId) {
+            this.titles.remove(filmId);
+
+            Set<Long> directorIds = this.directorsByFilm.remove(filmId);
+            if (directorIds != null) {
+                directorIds.forEach(directorId -> {
+                    Set<Long> filmIds = this.filmsByDirector.get(directorId);
+                    if (filmIds != null) {
+                        filmIds.remove(filmId);
+                    }
+                });
+            }
+        }
+
+        void putDirector(Director director) {
+            this.directorNames.put(director.getId(), director.getName());
+        }
+
+        void removeDirectorName(long directorId) {
+            this.directorNames.remove(directorId);
+        }
+
+        void removeDirector(long directorId) {
+            this.directorNames.remove(directorId);
+
+            Set<Long> filmIds = this.filmsByDirector.remove(directorId);
+            if (filmIds != null) {
+                filmIds.forEach(filmId -> this.directorsByFilm.getOrDefault(filmId, new HashSet<>()).remove(directorId));
+            }
+        }
+
+        Collection<Long> titleMatches(String folded) {
+            return this.titles.find(folded);
+        }
+
+        Collection<Long> directorMatches(String folded) {
+            Set<Long> filmIds = new HashSet<>();
+            this.directorNames.find(folded).forEach(directorId -> filmIds.addAll(this.filmsByDirector.getOrDefault(directorId, Set.of())));
+            return filmIds;
+        }
+    }
+
+    //endregion
+}
@@ -0,0 +1,540 @@
+package ru.yandex.practicum.filmorate.index;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.model.Director;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Suggestion;
+import ru.yandex.practicum.filmorate.model.SuggestionType;
+import ru.yandex.practicum.filmorate.storage.DirectorStorage;
+import ru.yandex.practicum.filmorate.storage.FilmStorage;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Индекс автодополнения по названиям фильмов и именам режиссёров.
+ * Строки, приведённые к виду для поиска, хранятся в сжатом префиксном дереве: каждое ребро несёт
+ * общий участок строк, а дочерние узлы адресуются отсортированным массивом первых символов.
+ * Вес фильма — количество его лайков, вес режиссёра — суммарное количество лайков его фильмов.
+ * Каждый узел кэширует лучшие по весу строки своего поддерева; изменения сбрасывают кэш только на пути к строке.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SuggestionIndex {
+    /**
+     * Количество подсказок, кэшируемых в каждом узле, и максимальное количество подсказок в ответе.
+     */
+    private static final int TOP_SIZE = 20;
+
+    private static final Entry[] NO_ENTRIES = new Entry[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final char[] NO_KEYS = new char[0];
+
+    /**
+     * Порядок подсказок: по убыванию веса, затем по строке и идентификатору.
+     */
+    private static final Comparator<Entry> TOP_ORDER = Comparator.comparingLong((Entry entry) -> entry.weight).reversed()
+            .thenComparing(entry -> entry.key)
+            .thenComparing(entry -> entry.type)
+            .thenComparingLong(entry -> entry.id);
+
+    /**
+     * Хранилище фильмов.
+     */
+    private final FilmStorage filmStorage;
+
+    /**
+     * Хранилище режиссёров.
+     */
+    private final DirectorStorage directorStorage;
+
+    /**
+     * Индекс популярности фильмов, из которого берутся веса добавляемых фильмов.
+     */
+    private final PopularityIndex popularityIndex;
+
+    /**
+     * Согласование изменений с перестройкой индекса.
+     */
+    private final IndexUpdateGate indexUpdateGate;
+
+    /**
+     * Текущее состояние индекса.
+     */
+    private final IndexState<State> state = new IndexState<>(new State());
+
+    /**
+     * Построить индекс при запуске приложения.
+     */
+    @PostConstruct
+    public void init() {
+        this.rebuild();
+    }
+
+    /**
+     * Полностью перестроить индекс по данным хранилищ; веса фильмов берутся из таблицы лайков.
+     * Изменения, выполненные во время перестройки, повторяются на перестроенном индексе.
+     */
+    public void rebuild() {
+        State rebuilt = this.state.rebuild(this.indexUpdateGate,
+                () -> new Snapshot(this.filmStorage.getAllFilms(), this.filmStorage.getFilmsLikesCount(),
+                        this.directorStorage.getAllDirectors()),
+                snapshot -> {
+                    State built = new State();
+                    snapshot.films().forEach(film -> built.putFilm(film, snapshot.likesCount().getOrDefault(film.getId(), 0L)));
+                    snapshot.directors().forEach(built::putDirector);
+                    return built;
+                });
+
+        log.debug("Индекс автодополнения перестроен, строк в индексе: {}", rebuilt.films.size() + rebuilt.directors.size());
+    }
+
+    /**
+     * Добавить фильм в индекс или обновить его название и режиссёров.
+     *
+     * @param film фильм.
+     */
+    public void putFilm(Film film) {
+        long likes = this.popularityIndex.getLikes(film.getId());
+        this.state.update(state -> state.putFilm(film, likes));
+    }
+
+    /**
+     * Удалить фильм из индекса.
+     *
+     * @param filmId идентификатор фильма.
+     */
+    public void removeFilm(long filmId) {
+        this.state.update(state -> state.removeFilm(filmId));
+    }
+
+    /**
+     * Добавить режиссёра в индекс или обновить его имя.
+     *
+     * @param director режиссёр.
+     */
+    public void putDirector(Director director) {
+        this.state.update(state -> state.putDirector(director));
+    }
+
+    /**
+     * Удалить режиссёра из индекса вместе с его связями с фильмами.
+     *
+     * @param directorId идентификатор режиссёра.
+     */
+    public void removeDirector(long directorId) {
+        this.state.update(state -> state.removeDirector(directorId));
+    }
+
+    /**
+     * Изменить вес фильма и его режиссёров на величину изменения количества лайков.
+     *
+     * @param filmId идентификатор фильма.
+     * @param delta  изменение количества лайков.
+     */
+    public void changeLikes(long filmId, long delta) {
+        this.state.update(state -> state.changeLikes(filmId, delta));
+    }
+
+    /**
+     * Получить подсказки, начинающиеся с префикса.
+     *
+     * @param prefix префикс; регистр и диакритические знаки не учитываются.
+     * @param limit  максимальное количество подсказок, не больше {@value TOP_SIZE}.
+     * @return подсказки, упорядоченные по убыванию веса.
+     */
+    public List<Suggestion> suggest(String prefix, int limit) {
+        String folded = SearchIndex.fold(prefix);
+
+        return this.state.read(state -> {
+            Node node = state.root.find(folded);
+            if (node == null) {
+                return List.<Suggestion>of();
+            }
+
+            return Arrays.stream(node.top())
+                    .limit(Math.min(limit, TOP_SIZE))
+                    .map(Entry::toSuggestion)
+                    .toList();
+        });
+    }
+
+    //region Facilities
+
+    private static int commonPrefixLength(String label, String key, int offset) {
+        int length = Math.min(label.length(), key.length() - offset);
+        int i = 0;
+        while (i < length && label.charAt(i) == key.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Данные для перестройки индекса.
+     *
+     * @param films      фильмы.
+     * @param likesCount количество лайков по идентификатору фильма.
+     * @param directors  режиссёры.
+     */
+    private record Snapshot(Collection<Film> films, Map<Long, Long> likesCount, Collection<Director> directors) {
+    }
+
+    /**
+     * Строка индекса: название фильма или имя режиссёра.
+     */
+    private static final class Entry {
+        private final SuggestionType type;
+        private final long id;
+        private final String text;
+        private final String key;
+        private long weight;
+
+        Entry(SuggestionType type, long id, String text, long weight) {
+            this.type = type;
+            this.id = id;
+            this.text = text;
+            this.key = SearchIndex.fold(text);
+            this.weight = weight;
+        }
+
+        Suggestion toSuggestion() {
+            return Suggestion.builder()
+                    .type(this.type)
+                    .id(this.id)
+                    .text(this.text)
+                    .build();
+        }
+    }
+
+    /**
+     * Узел сжатого префиксного дерева.
+     * Кэш лучших строк поддерева вычисляется при чтении; одновременное вычисление несколькими читателями
+     * даёт одинаковый результат, поэтому оно не требует блокировки на запись.
+     */
+    private static final class Node {
+        private String label;
+        private char[] keys = NO_KEYS;
+        private Node[] children = NO_CHILDREN;
+        private Entry[] entries = NO_ENTRIES;
+        private volatile Entry[] top;
+
+        Node(String label) {
+            this.label = label;
+        }
+
+        Node child(char key) {
+            int position = Arrays.binarySearch(this.keys, key);
+            return position < 0 ? null : this.children[position];
+        }
+
+        void putChild(Node child) {
+            char key = child.label.charAt(0);
+            int position = Arrays.binarySearch(this.keys, key);
+            if (position >= 0) {
+                this.children[position] = child;
+                return;
+            }
+
+            int insertion = -position - 1;
+            char[] keys = new char[this.keys.length + 1];
+            Node[] children = new Node[this.children.length + 1];
+            System.arraycopy(this.keys, 0, keys, 0, insertion);
+            System.arraycopy(this.children, 0, children, 0, insertion);
+            keys[insertion] = key;
+            children[insertion] = child;
+            System.arraycopy(this.keys, insertion, keys, insertion + 1, this.keys.length - insertion);
+            System.arraycopy(this.children, insertion, children, insertion + 1, this.children.length - insertion);
+            this.keys = keys;
+            this.children = children;
+        }
+
+        void removeChild(char key) {
+            int position = Arrays.binarySearch(this.keys, key);
+            if (position < 0) {
+                return;
+            }
+
+            char[] keys = new char[this.keys.length - 1];
+            Node[] children = new Node[this.children.length - 1];
+            System.arraycopy(this.keys, 0, keys, 0, position);
+            System.arraycopy(this.children, 0, children, 0, position);
+            System.arraycopy(this.keys, position + 1, keys, position, keys.length - position);
+            System.arraycopy(this.children, position + 1, children, position, children.length - position);
+            this.keys = keys;
+            this.children = children;
+        }
+
+        /**
+         * Присоединить единственного потомка к узлу без собственных строк.
+         */
+        void absorbChild() {
+            Node child = this.children[0];
+            this.label = this.label + child.label;
+            this.keys = child.keys;
+            this.children = child.children;
+            this.entries = child.entries;
+            this.top = child.top;
+        }
+
+        /**
+         * Найти узел, поддерево которого содержит все строки с префиксом.
+         */
+        Node find(String prefix) {
+            Node node = this;
+            int offset = 0;
+            while (offset < prefix.length()) {
+                Node child = node.child(prefix.charAt(offset));
+                if (child == null) {
+                    return null;
+                }
+
+                int common = commonPrefixLength(child.label, prefix, offset);
+                if (common < child.label.length() && offset + common < prefix.length()) {
+                    return null;
+                }
+
+                node = child;
+                offset += common;
+            }
+            return node;
+        }
+
+        /**
+         * Получить путь от корня до узла строки, создавая и разделяя узлы по необходимости.
+         */
+        List<Node> insertPath(String key) {
+            List<Node> path = new ArrayList<>();
+            Node node = this;
+            int offset = 0;
+            path.add(node);
+
+            while (offset < key.length()) {
+                Node child = node.child(key.charAt(offset));
+                if (child == null) {
+                    child = new Node(key.substring(offset));
+                    node.putChild(child);
+                    path.add(child);
+                    return path;
+                }
+
+                int common = commonPrefixLength(child.label, key, offset);
+                if (common < child.label.length()) {
+                    Node middle = new Node(child.label.substring(0, common));
+                    child.label = child.label.substring(common);
+                    middle.putChild(child);
+                    node.putChild(middle);
+                    child = middle;
+                }
+
+                node = child;
+                offset += common;
+                path.add(node);
+            }
+            return path;
+        }
+
+        /**
+         * Получить путь от корня до узла строки или {@code null}, если строки нет в дереве.
+         */
+        List<Node> path(String key) {
+            List<Node> path = new ArrayList<>();
+            Node node = this;
+            int offset = 0;
+            path.add(node);
+
+            while (offset < key.length()) {
+                Node child = node.child(key.charAt(offset));
+                if (child == null || commonPrefixLength(child.label, key, offset) < child.label.length()) {
+                    return null;
+                }
+
+                node = child;
+                offset += child.label.length();
+                path.add(node);
+            }
+            return path;
+        }
+
+        void insert(Entry entry) {
+            List<Node> path = this.insertPath(entry.key);
+            Node node = path.getLast();
+
+            Entry[] entries = Arrays.copyOf(node.entries, node.entries.length + 1);
+            entries[entries.length - 1] = entry;
+            node.entries = entries;
+
+            path.forEach(Node::invalidate);
+        }
+
+        void remove(Entry entry) {
+            List<Node> path = this.path(entry.key);
+            if (path == null) {
+                return;
+            }
+
+            Node node = path.getLast();
+            node.entries = Arrays.stream(node.entries).filter(other -> other != entry).toArray(Entry[]::new);
+            path.forEach(Node::invalidate);
+
+            for (int depth = path.size() - 1; depth > 0; depth--) {
+                Node current = path.get(depth);
+                if (current.entries.length > 0) {
+                    break;
+                }
+                if (current.children.length == 0) {
+                    path.get(depth - 1).removeChild(current.label.charAt(0));
+                    continue;
+                }
+                if (current.children.length == 1) {
+                    current.absorbChild();
+                }
+                break;
+            }
+        }
+
+        /**
+         * Сбросить кэш узлов на пути к строке после изменения её веса.
+         */
+        void touch(Entry entry) {
+            List<Node> path = this.path(entry.key);
+            if (path != null) {
+                path.forEach(Node::invalidate);
+            }
+        }
+
+        void invalidate() {
+            this.top = null;
+        }
+
+        Entry[] top() {
+            Entry[] top = this.top;
+            if (top != null) {
+                return top;
+            }
+
+            List<Entry> candidates = new ArrayList<>(Arrays.asList(this.entries));
+            for (Node child : this.children) {
+                candidates.addAll(Arrays.asList(child.top()));
+            }
+
+            top = candidates.stream()
+                    .sorted(TOP_ORDER)
+                    .limit(TOP_SIZE)
+                    .toArray(Entry[]::new);
+            this.top = top;
+
+            return top;
+        }
+    }
+
+    /**
+     * Содержимое индекса: дерево строк и связи фильмов с режиссёрами.
+     */
+    private static final class State {
+        private final Node root = new Node("");
+        private final Map<Long, Entry> films = new HashMap<>();
+        private final Map<Long, Entry> directors = new HashMap<>();
+        private final Map<Long, Set<Long>> directorsByFilm = new HashMap<>();
+        private final Map<Long, Set<Long>> filmsByDirector = new HashMap<>();
+
+        void putFilm(Film film, long likes) {
+            Entry previous = this.films.get(film.getId());
+            long weight = previous != null ? previous.weight : likes;
+            this.removeFilm(film.getId());
+
+            Entry entry = new Entry(SuggestionType.FILM, film.getId(), film.getName(), weight);
+            this.films.put(film.getId(), entry);
+            this.root.insert(entry);
+
+            Set<Long> directorIds = new HashSet<>();
+            if (film.getDirectors() != null) {
+                film.getDirectors().forEach(director -> directorIds.add(director.getId()));
+            }
+            this.directorsByFilm.put(film.getId(), directorIds);
+            directorIds.forEach(directorId -> {
+                this.filmsByDirector.computeIfAbsent(directorId, id -> new HashSet<>()).add(film.getId());
+                this.changeDirectorWeight(directorId, weight);
+            });
+        }
+
+        void removeFilm(long filmId) {
+            Entry entry = this.films.remove(filmId);
+            if (entry == null) {
+                return;
+            }
+            this.root.remove(entry);
+
+            Set<Long> directorIds = this.directorsByFilm.remove(filmId);
+            if (directorIds != null) {
+                directorIds.forEach(directorId -> {
+                    Set<Long> filmIds = this.filmsByDirector.get(directorId);
+                    if (filmIds != null) {
+                        filmIds.remove(filmId);
+                    }
+                    this.changeDirectorWeight(directorId, -entry.weight);
+                });
+            }
+        }
+
+        void putDirector(Director director) {
+            Entry previous = this.directors.remove(director.getId());
+            if (previous != null) {
+                this.root.remove(previous);
+            }
+
+            long weight = this.filmsByDirector.getOrDefault(director.getId(), Set.of()).stream()
+                    .map(this.films::get)
+                    .mapToLong(film -> film.weight)
+                    .sum();
+
+            Entry entry = new Entry(SuggestionType.DIRECTOR, director.getId(), director.getName(), weight);
+            this.directors.put(director.getId(), entry);
+            this.root.insert(entry);
+        }
+
+        void removeDirector(long directorId) {
+            Entry entry = this.directors.remove(directorId);
+            if (entry != null) {
+                this.root.remove(entry);
+            }
+
+            Set<Long> filmIds = this.filmsByDirector.remove(directorId);
+            if (filmIds != null) {
+                filmIds.forEach(filmId -> this.directorsByFilm.getOrDefault(filmId, new HashSet<>()).remove(directorId));
+            }
+        }
+
+        void changeLikes(long filmId, long delta) {
+            Entry entry = this.films.get(filmId);
+            if (entry == null) {
+                return;
+            }
+
+            entry.weight += delta;
+            this.root.touch(entry);
+            this.directorsByFilm.getOrDefault(filmId, Set.of()).forEach(directorId -> this.changeDirectorWeight(directorId, delta));
+        }
+
+        private void changeDirectorWeight(long directorId, long delta) {
+            Entry entry = this.directors.get(directorId);
+            if (entry != null && delta != 0) {
+                entry.weight += delta;
+                this.root.touch(entry);
+            }
+        }
+    }
+
+    //endregion
+}
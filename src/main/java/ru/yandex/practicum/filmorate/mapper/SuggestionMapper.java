@@ -0,0 +1,22 @@
+package ru.yandex.practicum.filmorate.mapper;
+
+import ru.yandex.practicum.filmorate.dto.suggestion.SuggestionDto;
+import ru.yandex.practicum.filmorate.model.Suggestion;
+
+import java.util.Collection;
+
+public final class SuggestionMapper {
+    public static SuggestionDto mapToSuggestionDto(Suggestion suggestion) {
+        SuggestionDto dto = new SuggestionDto();
+
+        dto.setType(suggestion.getType());
+        dto.setId(suggestion.getId());
+        dto.setText(suggestion.getText());
+
+        return dto;
+    }
+
+    public static Collection<SuggestionDto> mapToSuggestionDtoCollection(Collection<Suggestion> suggestionCollection) {
+        return suggestionCollection.stream().map(SuggestionMapper::mapToSuggestionDto).toList();
+    }
+}
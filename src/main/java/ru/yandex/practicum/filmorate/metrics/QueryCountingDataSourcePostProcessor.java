@@ -0,0 +1,156 @@
+package ru.yandex.practicum.filmorate.metrics;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * Оборачивает источник данных так, чтобы выполненные запросы, время их выполнения и прочитанные строки
+ * учитывались в {@link QueryStatistics} текущего HTTP-запроса.
+ * Вне HTTP-запроса обёртка только передаёт вызовы источнику данных.
+ */
+@Component
+@ConditionalOnProperty(value = "filmorate.jdbc.query-stats.enabled", havingValue = "true", matchIfMissing = true)
+public class QueryCountingDataSourcePostProcessor implements BeanPostProcessor {
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !Proxy.isProxyClass(bean.getClass())) {
+            // Обёртка сохраняет закрытие пула, иначе пул не будет закрыт при остановке приложения.
+            Class<?>[] types = bean instanceof AutoCloseable
+                    ? new Class<?>[]{DataSource.class, AutoCloseable.class}
+                    : new Class<?>[]{DataSource.class};
+            return Proxy.newProxyInstance(this.getClass().getClassLoader(), types, new DataSourceHandler(dataSource));
+        }
+        return bean;
+    }
+
+    //region Facilities
+
+    private static <T> T proxy(Class<T> type, T target, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(QueryCountingDataSourcePostProcessor.class.getClassLoader(),
+                new Class<?>[]{type}, handler));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Обработчик, сравнивающий обёртки по идентичности, а остальные вызовы передающий объекту.
+     */
+    private abstract static class DelegatingHandler implements InvocationHandler {
+        private final Object target;
+
+        DelegatingHandler(Object target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            return switch (method.getName()) {
+                case "equals" -> proxy == args[0];
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "toString" -> "QueryCounting[" + this.target + "]";
+                default -> this.handle(method, args);
+            };
+        }
+
+        Object handle(Method method, Object[] args) throws Throwable {
+            return QueryCountingDataSourcePostProcessor.invoke(this.target, method, args);
+        }
+    }
+
+    private static final class DataSourceHandler extends DelegatingHandler {
+        DataSourceHandler(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        Object handle(Method method, Object[] args) throws Throwable {
+            Object result = super.handle(method, args);
+            if (result instanceof Connection connection && method.getReturnType() == Connection.class) {
+                return proxy(Connection.class, connection, new ConnectionHandler(connection));
+            }
+            return result;
+        }
+    }
+
+    private static final class ConnectionHandler extends DelegatingHandler {
+        ConnectionHandler(Connection target) {
+            super(target);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        Object handle(Method method, Object[] args) throws Throwable {
+            Object result = super.handle(method, args);
+            if (result instanceof Statement statement && Statement.class.isAssignableFrom(method.getReturnType())) {
+                // Обёртка реализует тот же интерфейс, что объявлен методом: Statement, PreparedStatement или CallableStatement.
+                Class<Statement> type = (Class<Statement>) method.getReturnType();
+                return proxy(type, statement, new StatementHandler(statement));
+            }
+            return result;
+        }
+    }
+
+    private static final class StatementHandler extends DelegatingHandler {
+        StatementHandler(Statement target) {
+            super(target);
+        }
+
+        @Override
+        Object handle(Method method, Object[] args) throws Throwable {
+            QueryStatistics statistics = QueryStatistics.current();
+            if (statistics == null) {
+                return super.handle(method, args);
+            }
+
+            Object result;
+            if (method.getName().startsWith("execute")) {
+                long started = System.nanoTime();
+                result = super.handle(method, args);
+                statistics.statementExecuted(System.nanoTime() - started);
+            } else {
+                result = super.handle(method, args);
+            }
+
+            if (result instanceof ResultSet resultSet && method.getReturnType() == ResultSet.class) {
+                return proxy(ResultSet.class, resultSet, new ResultSetHandler(resultSet, statistics));
+            }
+            return result;
+        }
+    }
+
+    private static final class ResultSetHandler extends DelegatingHandler {
+        private final QueryStatistics statistics;
+
+        ResultSetHandler(ResultSet target, QueryStatistics statistics) {
+            super(target);
+            this.statistics = statistics;
+        }
+
+        @Override
+        Object handle(Method method, Object[] args) throws Throwable {
+            Object result = super.handle(method, args);
+            if ("next".equals(method.getName()) && Boolean.TRUE.equals(result)) {
+                this.statistics.rowFetched();
+            }
+            return result;
+        }
+    }
+
+    //endregion
+}
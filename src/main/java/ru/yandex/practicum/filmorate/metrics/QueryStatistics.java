@@ -0,0 +1,73 @@
+package ru.yandex.practicum.filmorate.metrics;
+
+/**
+ * Статистика запросов к БД, выполненных в рамках текущего HTTP-запроса.
+ * Статистика привязана к потоку, обрабатывающему запрос: запросы фоновых задач и асинхронной записи в неё не попадают.
+ */
+public final class QueryStatistics {
+    private static final ThreadLocal<QueryStatistics> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+    private long nanos;
+    private long rows;
+
+    private QueryStatistics() {
+    }
+
+    /**
+     * Начать сбор статистики в текущем потоке.
+     *
+     * @return статистика текущего потока.
+     */
+    static QueryStatistics start() {
+        QueryStatistics statistics = new QueryStatistics();
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    /**
+     * Закончить сбор статистики в текущем потоке.
+     */
+    static void stop() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Получить статистику текущего потока.
+     *
+     * @return статистика или {@code null}, если сбор статистики не начат.
+     */
+    static QueryStatistics current() {
+        return CURRENT.get();
+    }
+
+    void statementExecuted(long nanos) {
+        this.statements++;
+        this.nanos += nanos;
+    }
+
+    void rowFetched() {
+        this.rows++;
+    }
+
+    /**
+     * Количество выполненных запросов; пакет запросов считается одним запросом.
+     */
+    public int getStatements() {
+        return this.statements;
+    }
+
+    /**
+     * Суммарное время выполнения запросов без времени чтения результата.
+     */
+    public long getNanos() {
+        return this.nanos;
+    }
+
+    /**
+     * Количество прочитанных строк результатов.
+     */
+    public long getRows() {
+        return this.rows;
+    }
+}
@@ -0,0 +1,231 @@
+package ru.yandex.practicum.filmorate.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сбор статистики запросов к БД по HTTP-запросам.
+ * <ul>
+ *     <li>По каждому эндпоинту в метрики пишутся количество запросов, их суммарное время и количество прочитанных строк.</li>
+ *     <li>Если включены заголовки (для разработки и тестов), статистика возвращается в заголовках ответа
+ *     {@value #QUERY_COUNT_HEADER}, {@value #QUERY_TIME_HEADER} и {@value #QUERY_ROWS_HEADER}.</li>
+ *     <li>По каждому эндпоинту оценивается, сколько запросов добавляет каждая прочитанная строка.
+ *     Если количество запросов растёт вместе с объёмом результата, эндпоинт, вероятно, выполняет запрос на каждый
+ *     элемент результата (N+1); такой эндпоинт отмечается в журнале, а оценка доступна как метрика.</li>
+ * </ul>
+ */
+@Component
+@ConditionalOnProperty(value = "filmorate.jdbc.query-stats.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class QueryStatisticsFilter extends OncePerRequestFilter {
+    public static final String QUERY_COUNT_HEADER = "X-Query-Count";
+    public static final String QUERY_TIME_HEADER = "X-Query-Time-Ms";
+    public static final String QUERY_ROWS_HEADER = "X-Query-Rows";
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Признак, возвращать ли статистику в заголовках ответа.
+     */
+    private final boolean headers;
+
+    /**
+     * Количество запросов на прочитанную строку, начиная с которого эндпоинт считается выполняющим запрос на каждый элемент.
+     */
+    private final double growthThreshold;
+
+    /**
+     * Количество HTTP-запросов, после которого оценивается рост количества запросов.
+     */
+    private final int growthMinSamples;
+
+    /**
+     * Метрики и оценка роста количества запросов по эндпоинту, чтобы не искать метрики в реестре при каждом запросе.
+     */
+    private final Map<String, EndpointMeters> meters = new ConcurrentHashMap<>();
+
+    public QueryStatisticsFilter(MeterRegistry meterRegistry,
+                                 @Value("${filmorate.jdbc.query-stats.headers:false}") boolean headers,
+                                 @Value("${filmorate.jdbc.query-stats.growth-threshold:0.1}") double growthThreshold,
+                                 @Value("${filmorate.jdbc.query-stats.growth-min-samples:20}") int growthMinSamples) {
+        this.meterRegistry = meterRegistry;
+        this.headers = headers;
+        this.growthThreshold = growthThreshold;
+        this.growthMinSamples = growthMinSamples;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        QueryStatistics statistics = QueryStatistics.start();
+        try {
+            if (this.headers) {
+                StatisticsHeadersResponse wrapper = new StatisticsHeadersResponse(response, statistics);
+                chain.doFilter(request, wrapper);
+                wrapper.addStatisticsHeaders();
+            } else {
+                chain.doFilter(request, response);
+            }
+        } finally {
+            QueryStatistics.stop();
+            this.record(request, statistics);
+        }
+    }
+
+    //region Facilities
+
+    private void record(HttpServletRequest request, QueryStatistics statistics) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (pattern == null) {
+            return;
+        }
+
+        String uri = pattern.toString();
+        String method = request.getMethod();
+        String endpoint = method + " " + uri;
+        EndpointMeters endpointMeters = this.meters.computeIfAbsent(endpoint, key -> new EndpointMeters(method, uri));
+
+        endpointMeters.queries.record(statistics.getStatements());
+        endpointMeters.queryTime.record(statistics.getNanos(), TimeUnit.NANOSECONDS);
+        endpointMeters.rows.record(statistics.getRows());
+
+        QueryGrowth growth = endpointMeters.growth;
+        if (growth.add(statistics.getRows(), statistics.getStatements(), this.growthMinSamples, this.growthThreshold)) {
+            log.warn("Количество запросов к БД эндпоинта {} растёт с объёмом результата: {} запроса на прочитанную строку",
+                    endpoint, String.format(Locale.ROOT, "%.2f", growth.slope()));
+        }
+    }
+
+    /**
+     * Метрики эндпоинта.
+     */
+    private final class EndpointMeters {
+        private final DistributionSummary queries;
+        private final Timer queryTime;
+        private final DistributionSummary rows;
+        private final QueryGrowth growth = new QueryGrowth();
+
+        EndpointMeters(String method, String uri) {
+            MeterRegistry registry = QueryStatisticsFilter.this.meterRegistry;
+            this.queries = DistributionSummary.builder("filmorate.request.queries")
+                    .description("Количество запросов к БД за HTTP-запрос")
+                    .tags("method", method, "uri", uri)
+                    .serviceLevelObjectives(1, 2, 5, 10, 20, 50, 100)
+                    .register(registry);
+            this.queryTime = Timer.builder("filmorate.request.query.time")
+                    .description("Суммарное время запросов к БД за HTTP-запрос")
+                    .tags("method", method, "uri", uri)
+                    .register(registry);
+            this.rows = DistributionSummary.builder("filmorate.request.rows")
+                    .description("Количество строк, прочитанных из БД за HTTP-запрос")
+                    .baseUnit("rows")
+                    .tags("method", method, "uri", uri)
+                    .register(registry);
+            Gauge.builder("filmorate.request.queries.per.row", this.growth, QueryGrowth::slope)
+                    .description("Оценка количества запросов к БД, добавляемых каждой прочитанной строкой")
+                    .tags("method", method, "uri", uri)
+                    .register(registry);
+        }
+    }
+
+    /**
+     * Линейная регрессия количества запросов по количеству прочитанных строк.
+     */
+    private static final class QueryGrowth {
+        private long count;
+        private double sumRows;
+        private double sumStatements;
+        private double sumRowsSquared;
+        private double sumRowsStatements;
+        private boolean reported;
+
+        /**
+         * Учесть HTTP-запрос.
+         *
+         * @return признак, что рост количества запросов обнаружен впервые.
+         */
+        synchronized boolean add(long rows, int statements, int minSamples, double threshold) {
+            this.count++;
+            this.sumRows += rows;
+            this.sumStatements += statements;
+            this.sumRowsSquared += (double) rows * rows;
+            this.sumRowsStatements += (double) rows * statements;
+
+            if (this.reported || this.count < minSamples || this.slope() < threshold) {
+                return false;
+            }
+            this.reported = true;
+            return true;
+        }
+
+        synchronized double slope() {
+            double variance = this.count * this.sumRowsSquared - this.sumRows * this.sumRows;
+            if (this.count < 2 || variance <= 0) {
+                return 0;
+            }
+            return (this.count * this.sumRowsStatements - this.sumRows * this.sumStatements) / variance;
+        }
+    }
+
+    /**
+     * Ответ, добавляющий заголовки со статистикой перед началом записи тела:
+     * к этому моменту обработчик уже выполнил свои запросы, а заголовки ещё можно изменить.
+     */
+    private static final class StatisticsHeadersResponse extends HttpServletResponseWrapper {
+        private final QueryStatistics statistics;
+        private boolean added;
+
+        StatisticsHeadersResponse(HttpServletResponse response, QueryStatistics statistics) {
+            super(response);
+            this.statistics = statistics;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            this.addStatisticsHeaders();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            this.addStatisticsHeaders();
+            return super.getWriter();
+        }
+
+        /**
+         * Добавить заголовки, если они ещё не добавлены и ответ не отправлен.
+         */
+        void addStatisticsHeaders() {
+            if (this.added || this.isCommitted()) {
+                return;
+            }
+            this.added = true;
+            this.setHeader(QUERY_COUNT_HEADER, String.valueOf(this.statistics.getStatements()));
+            this.setHeader(QUERY_TIME_HEADER, String.format(Locale.ROOT, "%.3f", this.statistics.getNanos() / 1e6));
+            this.setHeader(QUERY_ROWS_HEADER, String.valueOf(this.statistics.getRows()));
+        }
+    }
+
+    //endregion
+}
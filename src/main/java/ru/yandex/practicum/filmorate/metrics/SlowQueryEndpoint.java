@@ -0,0 +1,49 @@
+package ru.yandex.practicum.filmorate.metrics;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Административный эндпоинт {@code /actuator/slowqueries}: запросы к БД с наибольшим суммарным временем выполнения.
+ * {@code GET /actuator/slowqueries} возвращает {@code filmorate.jdbc.slow-query.top-size} запросов,
+ * {@code GET /actuator/slowqueries/{limit}} — указанное количество запросов, {@code DELETE} сбрасывает статистику.
+ */
+@Component
+@Endpoint(id = "slowqueries")
+@ConditionalOnProperty(value = "filmorate.jdbc.slow-query.enabled", havingValue = "true", matchIfMissing = true)
+public class SlowQueryEndpoint {
+    private final SlowQueryLog slowQueryLog;
+
+    /**
+     * Количество запросов в отчёте по умолчанию.
+     */
+    private final int topSize;
+
+    public SlowQueryEndpoint(SlowQueryLog slowQueryLog,
+                             @Value("${filmorate.jdbc.slow-query.top-size:20}") int topSize) {
+        this.slowQueryLog = slowQueryLog;
+        this.topSize = topSize;
+    }
+
+    @ReadOperation
+    public List<SlowQueryLog.QueryReport> top() {
+        return this.slowQueryLog.top(this.topSize);
+    }
+
+    @ReadOperation
+    public List<SlowQueryLog.QueryReport> top(@Selector int limit) {
+        return this.slowQueryLog.top(limit);
+    }
+
+    @DeleteOperation
+    public void reset() {
+        this.slowQueryLog.reset();
+    }
+}
@@ -0,0 +1,245 @@
+package ru.yandex.practicum.filmorate.metrics;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Журнал медленных запросов к БД.
+ * <ul>
+ *     <li>По каждому тексту запроса накапливаются количество выполнений, количество ошибок, суммарное
+ *     и наибольшее время; отчёт {@link #top(int)} возвращает запросы с наибольшим суммарным временем.</li>
+ *     <li>Запрос, выполнявшийся дольше {@code filmorate.jdbc.slow-query.threshold}, записывается в журнал
+ *     вместе с параметрами. Строковые параметры маскируются: в журнал и отчёт попадает только их длина,
+ *     чтобы в журнале не оказались адреса электронной почты и другие данные пользователей.</li>
+ *     <li>План выполнения H2 ({@code EXPLAIN}) медленного запроса получается с теми же параметрами отдельным потоком,
+ *     чтобы не задерживать и без того медленный HTTP-запрос. План одного и того же запроса запрашивается не чаще
+ *     {@code filmorate.jdbc.slow-query.explain-interval}, а планы, не поместившиеся в очередь, пропускаются.</li>
+ * </ul>
+ */
+@Component
+@ConditionalOnProperty(value = "filmorate.jdbc.slow-query.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class SlowQueryLog {
+    /**
+     * Наибольшая длина значения параметра в журнале и отчёте.
+     */
+    private static final int MAX_PARAM_LENGTH = 100;
+
+    /**
+     * Количество запросов плана, ожидающих выполнения.
+     */
+    private static final int EXPLAIN_QUEUE_CAPACITY = 16;
+
+    private final JdbcTemplate jdbc;
+
+    /**
+     * Время выполнения, начиная с которого запрос считается медленным, нс.
+     */
+    private final long thresholdNanos;
+
+    /**
+     * Наименьший интервал между запросами плана одного и того же запроса, нс.
+     */
+    private final long explainIntervalNanos;
+
+    /**
+     * Поток, запрашивающий планы медленных запросов.
+     */
+    private final ThreadPoolExecutor explainExecutor;
+
+    /**
+     * Статистика по тексту запроса.
+     */
+    private final Map<String, QueryStatistic> statistics = new ConcurrentHashMap<>();
+
+    public SlowQueryLog(JdbcTemplate jdbc,
+                        @Value("${filmorate.jdbc.slow-query.threshold:100ms}") Duration threshold,
+                        @Value("${filmorate.jdbc.slow-query.explain-interval:1m}") Duration explainInterval) {
+        this.jdbc = jdbc;
+        this.thresholdNanos = threshold.toNanos();
+        this.explainIntervalNanos = explainInterval.toNanos();
+        this.explainExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(EXPLAIN_QUEUE_CAPACITY), runnable -> {
+                    Thread thread = new Thread(runnable, "slow-query-explain");
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    /**
+     * Остановить поток запроса планов, дождавшись уже поставленных запросов.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        // Поток не прерывается: прерывание во время запроса закрыло бы файл встроенной БД.
+        this.explainExecutor.shutdown();
+        this.explainExecutor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Учесть выполненный запрос.
+     *
+     * @param template шаблон запроса, по которому накапливается статистика.
+     * @param query    выполненный запрос; отличается от шаблона подставленным списком параметров условия IN.
+     * @param params   параметры запроса.
+     * @param nanos    время выполнения, нс.
+     * @param failed   признак, что запрос завершился ошибкой.
+     */
+    public void record(String template, String query, Object[] params, long nanos, boolean failed) {
+        QueryStatistic statistic = this.statistics.computeIfAbsent(template, key -> new QueryStatistic(normalize(key)));
+        statistic.add(nanos, failed);
+
+        if (nanos < this.thresholdNanos) {
+            return;
+        }
+
+        String formattedParams = formatParams(params);
+        statistic.slow(formattedParams);
+        log.warn("Медленный запрос ({} мс{}): {}; параметры: {}",
+                nanos / 1_000_000, failed ? ", ошибка" : "", statistic.query, formattedParams);
+
+        long now = System.nanoTime();
+        long explainedAt = statistic.explainedAt.get();
+        if ((explainedAt == 0 || now - explainedAt >= this.explainIntervalNanos)
+                && statistic.explainedAt.compareAndSet(explainedAt, now)) {
+            this.explainExecutor.execute(() -> {
+                statistic.plan = this.explain(query, params);
+                log.warn("План медленного запроса {}: {}", statistic.query, normalize(statistic.plan));
+            });
+        }
+    }
+
+    /**
+     * Получить запросы с наибольшим суммарным временем выполнения.
+     *
+     * @param limit количество запросов.
+     * @return запросы по убыванию суммарного времени.
+     */
+    public List<QueryReport> top(int limit) {
+        return this.statistics.values().stream()
+                .map(QueryStatistic::report)
+                .sorted(Comparator.comparingDouble(QueryReport::totalMillis).reversed())
+                .limit(Math.max(0, limit))
+                .toList();
+    }
+
+    /**
+     * Сбросить накопленную статистику.
+     */
+    public void reset() {
+        this.statistics.clear();
+    }
+
+    /**
+     * Строка отчёта о запросе.
+     *
+     * @param query          текст запроса.
+     * @param calls          количество выполнений.
+     * @param errors         количество выполнений, завершившихся ошибкой.
+     * @param totalMillis    суммарное время выполнения, мс.
+     * @param meanMillis     среднее время выполнения, мс.
+     * @param maxMillis      наибольшее время выполнения, мс.
+     * @param slowCalls      количество медленных выполнений.
+     * @param lastSlowParams параметры последнего медленного выполнения; строковые параметры замаскированы.
+     * @param plan           план последнего медленного выполнения.
+     */
+    public record QueryReport(String query, long calls, long errors, double totalMillis, double meanMillis,
+                              double maxMillis, long slowCalls, String lastSlowParams, String plan) {
+    }
+
+    //region Facilities
+
+    private String explain(String query, Object[] params) {
+        try {
+            return String.join("\n", this.jdbc.queryForList("EXPLAIN " + query, String.class, params));
+        } catch (Throwable ex) {
+            log.debug("Не удалось получить план запроса: [{}] {}", ex.getClass().getSimpleName(), ex.getMessage());
+            return "[" + ex.getClass().getSimpleName() + "] " + ex.getMessage();
+        }
+    }
+
+    /**
+     * Записать запрос в одну строку.
+     */
+    private static String normalize(String query) {
+        return query.strip().replaceAll("\\s+", " ");
+    }
+
+    /**
+     * Записать параметры запроса, заменив строковые параметры их длиной.
+     */
+    static String formatParams(Object[] params) {
+        if (params == null) {
+            return "[]";
+        }
+        return Arrays.stream(params)
+                .map(param -> {
+                    if (param instanceof CharSequence value) {
+                        return "'***'(" + value.length() + ")";
+                    }
+                    String value = String.valueOf(param);
+                    return value.length() > MAX_PARAM_LENGTH ? value.substring(0, MAX_PARAM_LENGTH) + "..." : value;
+                })
+                .collect(Collectors.joining(", ", "[", "]"));
+    }
+
+    /**
+     * Накопленная статистика запроса.
+     */
+    private static final class QueryStatistic {
+        private final String query;
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        private final LongAdder slowCalls = new LongAdder();
+        private final AtomicLong explainedAt = new AtomicLong();
+        private volatile String lastSlowParams;
+        private volatile String plan;
+
+        QueryStatistic(String query) {
+            this.query = query;
+        }
+
+        void add(long nanos, boolean failed) {
+            this.calls.increment();
+            if (failed) {
+                this.errors.increment();
+            }
+            this.totalNanos.add(nanos);
+            this.maxNanos.accumulate(nanos);
+        }
+
+        void slow(String params) {
+            this.slowCalls.increment();
+            this.lastSlowParams = params;
+        }
+
+        QueryReport report() {
+            long count = this.calls.sum();
+            long total = this.totalNanos.sum();
+            return new QueryReport(this.query, count, this.errors.sum(), total / 1e6, count == 0 ? 0 : total / 1e6 / count,
+                    this.maxNanos.get() / 1e6, this.slowCalls.sum(), this.lastSlowParams, this.plan);
+        }
+    }
+
+    //endregion
+}
@@ -0,0 +1,167 @@
+package ru.yandex.practicum.filmorate.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.storage.EventStorage;
+import ru.yandex.practicum.filmorate.storage.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.ReviewStorage;
+import ru.yandex.practicum.filmorate.storage.UserStorage;
+
+import java.lang.reflect.Array;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Метрики методов хранилищ фильмов, пользователей, отзывов и событий:
+ * <ul>
+ *     <li>{@code filmorate.storage.calls} — время выполнения метода;</li>
+ *     <li>{@code filmorate.storage.rows} — количество элементов в результате, если метод возвращает коллекцию,
+ *     словарь, массив или {@link Optional};</li>
+ *     <li>{@code filmorate.storage.errors} — количество исключений по типу исключения.</li>
+ * </ul>
+ * Метрики снабжены тегами {@code storage} (интерфейс хранилища), {@code class} (реализация: кэш или БД) и {@code method}.
+ * Время и размер результата измеряются у доли вызовов {@code filmorate.metrics.storage.sample-rate}:
+ * при доле меньше единицы количество вызовов в {@code filmorate.storage.calls} нужно делить на долю.
+ * Исключения учитываются всегда.
+ */
+@Aspect
+@Component
+@ConditionalOnProperty(value = "filmorate.metrics.storage.enabled", havingValue = "true", matchIfMissing = true)
+public class StorageMetricsAspect {
+    private static final Class<?>[] STORAGES = {FilmStorage.class, UserStorage.class, ReviewStorage.class, EventStorage.class};
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Доля вызовов, у которых измеряются время и размер результата.
+     */
+    private final double sampleRate;
+
+    /**
+     * Метрики по классу реализации и имени метода, чтобы не искать метрики в реестре при каждом вызове.
+     */
+    private final Map<Class<?>, Map<String, MethodMeters>> meters = new ConcurrentHashMap<>();
+
+    public StorageMetricsAspect(MeterRegistry meterRegistry,
+                                @Value("${filmorate.metrics.storage.sample-rate:1.0}") double sampleRate) {
+        this.meterRegistry = meterRegistry;
+        this.sampleRate = Math.max(0, Math.min(1, sampleRate));
+    }
+
+    @Around("execution(public * ru.yandex.practicum.filmorate.storage.FilmStorage+.*(..))"
+            + " || execution(public * ru.yandex.practicum.filmorate.storage.UserStorage+.*(..))"
+            + " || execution(public * ru.yandex.practicum.filmorate.storage.ReviewStorage+.*(..))"
+            + " || execution(public * ru.yandex.practicum.filmorate.storage.EventStorage+.*(..))")
+    public Object measure(ProceedingJoinPoint joinPoint) throws Throwable {
+        Class<?> targetClass = joinPoint.getTarget().getClass();
+        MethodMeters methodMeters = this.meters.computeIfAbsent(targetClass, key -> new ConcurrentHashMap<>())
+                .computeIfAbsent(joinPoint.getSignature().getName(),
+                        method -> this.register(targetClass, method, ((MethodSignature) joinPoint.getSignature()).getReturnType()));
+
+        boolean sampled = this.sampleRate >= 1 || ThreadLocalRandom.current().nextDouble() < this.sampleRate;
+        long started = sampled ? System.nanoTime() : 0;
+        Object result;
+        try {
+            result = joinPoint.proceed();
+        } catch (Throwable e) {
+            methodMeters.error(e.getClass());
+            throw e;
+        }
+
+        if (sampled) {
+            methodMeters.calls.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            if (methodMeters.rows != null) {
+                methodMeters.rows.record(rows(result));
+            }
+        }
+
+        return result;
+    }
+
+    //region Facilities
+
+    private MethodMeters register(Class<?> targetClass, String method, Class<?> returnType) {
+        String storage = "unknown";
+        for (Class<?> type : STORAGES) {
+            if (type.isAssignableFrom(targetClass)) {
+                storage = type.getSimpleName();
+                break;
+            }
+        }
+
+        boolean returnsRows = Collection.class.isAssignableFrom(returnType) || Map.class.isAssignableFrom(returnType)
+                || Optional.class.equals(returnType) || returnType.isArray();
+
+        return new MethodMeters(storage, targetClass.getSimpleName(), method, returnsRows);
+    }
+
+    /**
+     * Получить количество элементов результата.
+     *
+     * @return количество элементов; 0, если результата нет.
+     */
+    private static int rows(Object result) {
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        } else if (result instanceof Map<?, ?> map) {
+            return map.size();
+        } else if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        } else if (result != null && result.getClass().isArray()) {
+            return Array.getLength(result);
+        }
+        return 0;
+    }
+
+    /**
+     * Метрики метода хранилища.
+     */
+    private final class MethodMeters {
+        private final String storage;
+        private final String className;
+        private final String method;
+        private final Timer calls;
+        private final DistributionSummary rows;
+        private final Map<Class<?>, Counter> errors = new ConcurrentHashMap<>();
+
+        MethodMeters(String storage, String className, String method, boolean returnsRows) {
+            this.storage = storage;
+            this.className = className;
+            this.method = method;
+            this.calls = Timer.builder("filmorate.storage.calls")
+                    .description("Время выполнения метода хранилища")
+                    .tags("storage", storage, "class", className, "method", method)
+                    .register(StorageMetricsAspect.this.meterRegistry);
+            this.rows = !returnsRows ? null : DistributionSummary.builder("filmorate.storage.rows")
+                    .description("Количество элементов в результате метода хранилища")
+                    .baseUnit("rows")
+                    .tags("storage", storage, "class", className, "method", method)
+                    .serviceLevelObjectives(1, 10, 100, 1_000, 10_000)
+                    .register(StorageMetricsAspect.this.meterRegistry);
+        }
+
+        void error(Class<?> exceptionClass) {
+            this.errors.computeIfAbsent(exceptionClass, key -> Counter.builder("filmorate.storage.errors")
+                            .description("Количество исключений в методе хранилища")
+                            .tags("storage", this.storage, "class", this.className, "method", this.method,
+                                    "exception", key.getSimpleName())
+                            .register(StorageMetricsAspect.this.meterRegistry))
+                    .increment();
+        }
+    }
+
+    //endregion
+}
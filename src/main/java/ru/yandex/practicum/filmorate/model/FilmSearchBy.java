@@ -1,6 +1,32 @@
 package ru.yandex.practicum.filmorate.model;
 
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+
 public enum FilmSearchBy {
     TITLE,
-    DIRECTOR
+    DIRECTOR;
+
+    /**
+     * Разобрать список полей для поиска, перечисленных через запятую.
+     *
+     * @param by список полей; пустой, если не предоставлен.
+     * @return множество полей.
+     * @throws IllegalArgumentException если поле не распознано.
+     */
+    public static Set<FilmSearchBy> parse(String by) {
+        Set<FilmSearchBy> fields = EnumSet.noneOf(FilmSearchBy.class);
+        if (by == null || by.isBlank()) {
+            return fields;
+        }
+
+        Arrays.stream(by.split(","))
+                .map(String::trim)
+                .map(String::toUpperCase)
+                .map(FilmSearchBy::valueOf)
+                .forEach(fields::add);
+
+        return fields;
+    }
 }
@@ -0,0 +1,71 @@
+package ru.yandex.practicum.filmorate.model;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Позиция в списке отзывов, упорядоченном по убыванию полезности, затем по идентификатору.
+ * Клиенту передаётся в виде непрозрачной строки.
+ */
+@Builder(toBuilder = true)
+@Data
+public class ReviewCursor {
+    private static final String SEPARATOR = ":";
+
+    /**
+     * Полезность последнего отзыва страницы.
+     */
+    private int useful;
+
+    /**
+     * Идентификатор последнего отзыва страницы.
+     */
+    private long reviewId;
+
+    /**
+     * Получить позицию сразу после отзыва.
+     *
+     * @param review последний отзыв страницы.
+     * @return позиция.
+     */
+    public static ReviewCursor after(Review review) {
+        return ReviewCursor.builder()
+                .useful(review.getUseful())
+                .reviewId(review.getId())
+                .build();
+    }
+
+    /**
+     * Разобрать позицию из строки, полученной от клиента.
+     *
+     * @param token строка позиции.
+     * @return позиция.
+     * @throws IllegalArgumentException если строка не является позицией.
+     */
+    public static ReviewCursor decode(String token) {
+        String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+
+        String[] parts = decoded.split(SEPARATOR);
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Некорректная позиция: " + token);
+        }
+
+        return ReviewCursor.builder()
+                .useful(Integer.parseInt(parts[0]))
+                .reviewId(Long.parseLong(parts[1]))
+                .build();
+    }
+
+    /**
+     * Представить позицию в виде строки для клиента.
+     *
+     * @return строка позиции.
+     */
+    public String encode() {
+        String raw = this.useful + SEPARATOR + this.reviewId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,26 @@
+package ru.yandex.practicum.filmorate.model;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Подсказка автодополнения.
+ */
+@Builder(toBuilder = true)
+@Data
+public class Suggestion {
+    /**
+     * Источник подсказки.
+     */
+    private SuggestionType type;
+
+    /**
+     * Идентификатор фильма или режиссёра.
+     */
+    private long id;
+
+    /**
+     * Название фильма или имя режиссёра.
+     */
+    private String text;
+}
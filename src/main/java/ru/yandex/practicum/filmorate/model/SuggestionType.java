@@ -0,0 +1,16 @@
+package ru.yandex.practicum.filmorate.model;
+
+/**
+ * Источник подсказки автодополнения.
+ */
+public enum SuggestionType {
+    /**
+     * Название фильма.
+     */
+    FILM,
+
+    /**
+     * Имя режиссёра.
+     */
+    DIRECTOR
+}
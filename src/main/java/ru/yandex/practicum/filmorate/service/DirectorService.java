@@ -4,6 +4,9 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import ru.yandex.practicum.filmorate.exception.NotFoundException;
+import ru.yandex.practicum.filmorate.index.IndexUpdateGate;
+import ru.yandex.practicum.filmorate.index.SearchIndex;
+import ru.yandex.practicum.filmorate.index.SuggestionIndex;
 import ru.yandex.practicum.filmorate.model.Director;
 import ru.yandex.practicum.filmorate.storage.DirectorStorage;
 
@@ -22,6 +25,21 @@ public final class DirectorService {
      */
     private final DirectorStorage directorStorage;
 
+    /**
+     * Согласование изменений данных с перестройкой индексов.
+     */
+    private final IndexUpdateGate indexUpdateGate;
+
+    /**
+     * Поисковый индекс фильмов.
+     */
+    private final SearchIndex searchIndex;
+
+    /**
+     * Индекс автодополнения по названиям фильмов и именам режиссёров.
+     */
+    private final SuggestionIndex suggestionIndex;
+
     /**
      * Создать нового режиссёра.
      *
@@ -30,7 +48,14 @@ public final class DirectorService {
      */
     public Director createDirector(Director director) {
         log.debug("Добавление нового режиссёра с именем {}", director.getName());
-        return this.directorStorage.createDirector(director);
+
+        return this.indexUpdateGate.update(() -> {
+            Director created = this.directorStorage.createDirector(director);
+            this.searchIndex.putDirector(created);
+            this.suggestionIndex.putDirector(created);
+
+            return created;
+        });
     }
 
     /**
@@ -70,8 +95,15 @@ public final class DirectorService {
         throwIfDirectorNotFound(director.getId());
         log.debug("Обновление режиссёра с id = {}", director.getId());
 
-        this.directorStorage.updateDirector(director);
-        return this.getDirectorById(director.getId());
+        return this.indexUpdateGate.update(() -> {
+            this.directorStorage.updateDirector(director);
+
+            Director updated = this.getDirectorById(director.getId());
+            this.searchIndex.putDirector(updated);
+            this.suggestionIndex.putDirector(updated);
+
+            return updated;
+        });
     }
 
     /**
@@ -83,7 +115,11 @@ public final class DirectorService {
         throwIfDirectorNotFound(directorId);
         log.debug("Удаление режиссёра с id = {}", directorId);
 
-        this.directorStorage.deleteDirector(directorId);
+        this.indexUpdateGate.update(() -> {
+            this.directorStorage.deleteDirector(directorId);
+            this.searchIndex.removeDirector(directorId);
+            this.suggestionIndex.removeDirector(directorId);
+        });
     }
 
     //region Facilities
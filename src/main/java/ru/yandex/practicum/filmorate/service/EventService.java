@@ -3,9 +3,12 @@ package ru.yandex.practicum.filmorate.service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import ru.yandex.practicum.filmorate.cache.RequestIdentityMap;
 import ru.yandex.practicum.filmorate.exception.NotFoundException;
 import ru.yandex.practicum.filmorate.model.Event;
+import ru.yandex.practicum.filmorate.model.User;
 import ru.yandex.practicum.filmorate.storage.EventStorage;
+import ru.yandex.practicum.filmorate.storage.FriendFeedStorage;
 import ru.yandex.practicum.filmorate.storage.UserStorage;
 
 import java.util.Collection;
@@ -23,22 +26,51 @@ public final class EventService {
      */
     private final EventStorage eventStorage;
 
+    /**
+     * Хранилище лент событий друзей.
+     */
+    private final FriendFeedStorage friendFeedStorage;
+
     /**
      * Хранилище пользователй.
      */
     private final UserStorage userStorage;
 
     /**
-     * Получить список событий пользователя.
+     * Сущности, загруженные в рамках текущего запроса.
+     */
+    private final RequestIdentityMap requestIdentityMap;
+
+    /**
+     * Получить события пользователя в порядке их появления.
      *
-     * @param userId идентификатор пользователя.
+     * @param userId  идентификатор пользователя.
+     * @param sinceId идентификатор события, после которого начинается список; если не предоставлен,
+     *                возвращаются последние события.
+     * @param limit   максимальное количество событий.
+     * @return список событий.
+     */
+    public Collection<Event> getUserEvents(long userId, Long sinceId, int limit) {
+        throwIfUserNotFound(userId);
+        log.debug("Получение {} событий для пользователя с id = {} после события с id = {}", limit, userId, sinceId);
+
+        return this.eventStorage.getUserEvents(userId, sinceId, limit);
+    }
+
+    /**
+     * Получить события друзей пользователя в порядке их появления.
+     *
+     * @param userId  идентификатор пользователя.
+     * @param sinceId идентификатор события, после которого начинается список; если не предоставлен,
+     *                возвращаются последние события.
+     * @param limit   максимальное количество событий.
      * @return список событий.
      */
-    public Collection<Event> getUserEvents(long userId) {
+    public Collection<Event> getFriendEvents(long userId, Long sinceId, int limit) {
         throwIfUserNotFound(userId);
-        log.debug("Получение списка событий для пользователя с id = {}", userId);
+        log.debug("Получение {} событий друзей пользователя с id = {} после события с id = {}", limit, userId, sinceId);
 
-        return this.eventStorage.getUserEvents(userId);
+        return this.friendFeedStorage.getFriendEvents(userId, sinceId, limit);
     }
 
     //region Facilities
@@ -49,7 +81,7 @@ public final class EventService {
      * @param userId идентификатор пользователя.
      */
     private void throwIfUserNotFound(long userId) {
-        if (this.userStorage.getUserById(userId).isEmpty()) {
+        if (!this.requestIdentityMap.exists(User.class, userId, this.userStorage::isUserExist)) {
             throw new NotFoundException(String.format("Пользователь с id = %d не найден", userId));
         }
     }
@@ -3,18 +3,31 @@ package ru.yandex.practicum.filmorate.service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import ru.yandex.practicum.filmorate.cache.RequestIdentityMap;
+import ru.yandex.practicum.filmorate.exception.InternalServerException;
 import ru.yandex.practicum.filmorate.exception.NotFoundException;
+import ru.yandex.practicum.filmorate.index.IndexUpdateGate;
+import ru.yandex.practicum.filmorate.index.PopularityIndex;
+import ru.yandex.practicum.filmorate.index.RecommendationIndex;
+import ru.yandex.practicum.filmorate.index.SearchIndex;
+import ru.yandex.practicum.filmorate.index.SuggestionIndex;
 import ru.yandex.practicum.filmorate.model.EventOperation;
 import ru.yandex.practicum.filmorate.model.EventType;
 import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.FilmSearchBy;
 import ru.yandex.practicum.filmorate.model.SortBy;
+import ru.yandex.practicum.filmorate.model.Suggestion;
+import ru.yandex.practicum.filmorate.model.User;
 import ru.yandex.practicum.filmorate.storage.DirectorStorage;
 import ru.yandex.practicum.filmorate.storage.EventStorage;
 import ru.yandex.practicum.filmorate.storage.FilmStorage;
 import ru.yandex.practicum.filmorate.storage.UserStorage;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * Сервис для работы с фильмами.
@@ -23,6 +36,16 @@ import java.util.Optional;
 @Service
 @Slf4j
 public final class FilmService {
+    /**
+     * Размер страницы при потоковом чтении всех фильмов.
+     */
+    private static final int STREAM_PAGE_SIZE = 500;
+
+    /**
+     * Максимальное количество рекомендуемых пользователю фильмов.
+     */
+    private static final int RECOMMENDATIONS_LIMIT = 100;
+
     /**
      * Хранилище режиссёров.
      */
@@ -43,6 +66,36 @@ public final class FilmService {
      */
     private final UserStorage userStorage;
 
+    /**
+     * Сущности, загруженные в рамках текущего запроса.
+     */
+    private final RequestIdentityMap requestIdentityMap;
+
+    /**
+     * Согласование изменений данных с перестройкой индексов.
+     */
+    private final IndexUpdateGate indexUpdateGate;
+
+    /**
+     * Индекс популярности фильмов.
+     */
+    private final PopularityIndex popularityIndex;
+
+    /**
+     * Индекс лайков для рекомендаций фильмов.
+     */
+    private final RecommendationIndex recommendationIndex;
+
+    /**
+     * Поисковый индекс фильмов.
+     */
+    private final SearchIndex searchIndex;
+
+    /**
+     * Индекс автодополнения по названиям фильмов и именам режиссёров.
+     */
+    private final SuggestionIndex suggestionIndex;
+
     //region Фильмы
 
     /**
@@ -53,7 +106,15 @@ public final class FilmService {
      */
     public Film createFilm(Film film) {
         log.debug("Добавление нового фильма: {}", film.getName());
-        return this.filmStorage.createFilm(film);
+
+        return this.indexUpdateGate.update(() -> {
+            Film created = this.filmStorage.createFilm(film);
+            this.popularityIndex.putFilm(created);
+            this.searchIndex.putFilm(created);
+            this.suggestionIndex.putFilm(created);
+
+            return created;
+        });
     }
 
     /**
@@ -66,6 +127,37 @@ public final class FilmService {
         return this.filmStorage.getAllFilms();
     }
 
+    /**
+     * Получить страницу фильмов, упорядоченных по идентификатору.
+     *
+     * @param afterId идентификатор фильма, после которого начинается страница.
+     * @param limit   максимальное количество фильмов на странице.
+     * @return список фильмов.
+     */
+    public Collection<Film> getFilmsPage(long afterId, int limit) {
+        log.debug("Получение страницы из {} фильмов после фильма с id = {}", limit, afterId);
+        return this.filmStorage.getFilmsPage(afterId, limit);
+    }
+
+    /**
+     * Последовательно передать обработчику все фильмы, читая их из хранилища постранично.
+     *
+     * @param consumer обработчик фильма.
+     */
+    public void forEachFilm(Consumer<Film> consumer) {
+        log.debug("Потоковое получение списка всех фильмов");
+
+        long afterId = 0;
+        Collection<Film> page;
+        do {
+            page = this.filmStorage.getFilmsPage(afterId, STREAM_PAGE_SIZE);
+            for (Film film : page) {
+                consumer.accept(film);
+                afterId = film.getId();
+            }
+        } while (page.size() == STREAM_PAGE_SIZE);
+    }
+
     /**
      * Получить список популярных фильмов, отсортированный по количеству лайков.
      *
@@ -76,7 +168,7 @@ public final class FilmService {
      */
     public Collection<Film> getPopularFilms(long count, Long genreId, Integer year) {
         log.debug("Получение списка из {} популярных фильмов", count);
-        return this.filmStorage.getPopularFilms(count, genreId, year);
+        return this.filmStorage.getFilmsByIds(this.popularityIndex.getTopFilmIds(count, genreId, year));
     }
 
     /**
@@ -89,7 +181,7 @@ public final class FilmService {
         throwIfUserNotFound(userId);
         log.debug("Получение списка рекомендуемых фильмов для пользователя с id = {} ", userId);
 
-        return this.filmStorage.getRecommendedFilms(userId);
+        return this.filmStorage.getFilmsByIds(this.recommendationIndex.getRecommendedFilmIds(userId, RECOMMENDATIONS_LIMIT));
     }
 
     /**
@@ -101,16 +193,16 @@ public final class FilmService {
     public Film getFilmById(long filmId) {
         log.debug("Получение фильма с id = {}", filmId);
 
-        Optional<Film> filmOptional = this.filmStorage.getFilmById(filmId);
+        Optional<Film> filmOptional = this.requestIdentityMap.get(Film.class, filmId, id -> this.filmStorage.getFilmById(id).map(film -> {
+            film.setDirectors(this.filmStorage.getFilmDirectors(film.getId()));
+            film.setGenres(this.filmStorage.getFilmGenres(film.getId()));
+            return film;
+        }));
         if (filmOptional.isEmpty()) {
             throw new NotFoundException(String.format("Фильм с id = %d не найден", filmId));
         }
 
-        Film film = filmOptional.get();
-        film.setDirectors(this.filmStorage.getFilmDirectors(film.getId()));
-        film.setGenres(this.filmStorage.getFilmGenres(film.getId()));
-
-        return film;
+        return filmOptional.get();
     }
 
     /**
@@ -150,7 +242,32 @@ public final class FilmService {
      * @return список фильмов.
      */
     public Collection<Film> searchFilms(String query, String by) {
-        return this.filmStorage.searchFilms(query, by);
+        log.debug("Поиск фильмов по строке \"{}\" в полях {}", query, by);
+
+        Set<FilmSearchBy> fields;
+        try {
+            fields = FilmSearchBy.parse(by);
+        } catch (IllegalArgumentException ex) {
+            throw new InternalServerException("Некорректный набор полей для поиска");
+        }
+
+        if (fields.isEmpty()) {
+            return this.filmStorage.getFilmsByIds(this.popularityIndex.getTopFilmIds(Long.MAX_VALUE, null, null));
+        }
+
+        return this.filmStorage.getFilmsByIds(this.searchIndex.search(query, fields));
+    }
+
+    /**
+     * Получить подсказки автодополнения по началу названия фильма или имени режиссёра.
+     *
+     * @param prefix начало названия фильма или имени режиссёра.
+     * @param limit  максимальное количество подсказок.
+     * @return подсказки, упорядоченные по убыванию количества лайков.
+     */
+    public List<Suggestion> suggest(String prefix, int limit) {
+        log.debug("Получение {} подсказок по префиксу \"{}\"", limit, prefix);
+        return this.suggestionIndex.suggest(prefix, limit);
     }
 
     /**
@@ -163,8 +280,17 @@ public final class FilmService {
         this.throwIfFilmNotFound(film.getId());
         log.debug("Обновление фильма с id = {}", film.getId());
 
-        this.filmStorage.updateFilm(film);
-        return this.getFilmById(film.getId());
+        return this.indexUpdateGate.update(() -> {
+            this.filmStorage.updateFilm(film);
+            this.requestIdentityMap.evict(Film.class, film.getId());
+
+            Film updated = this.getFilmById(film.getId());
+            this.popularityIndex.putFilm(updated);
+            this.searchIndex.putFilm(updated);
+            this.suggestionIndex.putFilm(updated);
+
+            return updated;
+        });
     }
 
     /**
@@ -176,7 +302,14 @@ public final class FilmService {
         this.throwIfFilmNotFound(filmId);
         log.debug("Удаление фильма с id = {}", filmId);
 
-        this.filmStorage.deleteFilm(filmId);
+        this.indexUpdateGate.update(() -> {
+            this.filmStorage.deleteFilm(filmId);
+            this.requestIdentityMap.evict(Film.class, filmId);
+            this.popularityIndex.removeFilm(filmId);
+            this.recommendationIndex.removeFilm(filmId);
+            this.searchIndex.removeFilm(filmId);
+            this.suggestionIndex.removeFilm(filmId);
+        });
     }
 
     //endregion
@@ -200,7 +333,12 @@ public final class FilmService {
 
         log.debug("Добавление лайка фильму с id = {} от пользователя с id = {}", filmId, userId);
 
-        this.filmStorage.addLikeToFilm(filmId, userId);
+        this.indexUpdateGate.update(() -> {
+            this.filmStorage.addLikeToFilm(filmId, userId);
+            this.popularityIndex.changeLikes(filmId, 1);
+            this.suggestionIndex.changeLikes(filmId, 1);
+            this.recommendationIndex.addLike(userId, filmId);
+        });
         this.eventStorage.createEvent(userId, EventType.LIKE, EventOperation.ADD, filmId);
     }
 
@@ -221,7 +359,12 @@ public final class FilmService {
 
         log.debug("Удаление лайка фильму с id = {} от пользователя с id = {}", filmId, userId);
 
-        this.filmStorage.removeLikeFromFilm(filmId, userId);
+        this.indexUpdateGate.update(() -> {
+            this.filmStorage.removeLikeFromFilm(filmId, userId);
+            this.popularityIndex.changeLikes(filmId, -1);
+            this.suggestionIndex.changeLikes(filmId, -1);
+            this.recommendationIndex.removeLike(userId, filmId);
+        });
         this.eventStorage.createEvent(userId, EventType.LIKE, EventOperation.REMOVE, filmId);
     }
 
@@ -246,7 +389,7 @@ public final class FilmService {
      * @param filmId идентификатор фильма.
      */
     private void throwIfFilmNotFound(long filmId) {
-        if (this.filmStorage.getFilmById(filmId).isEmpty()) {
+        if (!this.requestIdentityMap.exists(Film.class, filmId, this.filmStorage::isFilmExist)) {
             throw new NotFoundException(String.format("Фильм с id = %d не найден", filmId));
         }
     }
@@ -257,7 +400,7 @@ public final class FilmService {
      * @param userId идентификатор пользователя.
      */
     private void throwIfUserNotFound(long userId) {
-        if (this.userStorage.getUserById(userId).isEmpty()) {
+        if (!this.requestIdentityMap.exists(User.class, userId, this.userStorage::isUserExist)) {
             throw new NotFoundException(String.format("Пользователь с id = %d не найден", userId));
         }
     }
@@ -3,7 +3,9 @@ package ru.yandex.practicum.filmorate.service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import ru.yandex.practicum.filmorate.cache.RequestIdentityMap;
 import ru.yandex.practicum.filmorate.exception.NotFoundException;
+import ru.yandex.practicum.filmorate.exception.ValidationException;
 import ru.yandex.practicum.filmorate.model.*;
 import ru.yandex.practicum.filmorate.storage.EventStorage;
 import ru.yandex.practicum.filmorate.storage.FilmStorage;
@@ -37,6 +39,11 @@ public final class ReviewService {
      */
     private final UserStorage userStorage;
 
+    /**
+     * Сущности, загруженные в рамках текущего запроса.
+     */
+    private final RequestIdentityMap requestIdentityMap;
+
     //region Отзывы
 
     /**
@@ -57,28 +64,30 @@ public final class ReviewService {
     }
 
     /**
-     * Получить список отзывов.
+     * Получить страницу отзывов, упорядоченных по убыванию полезности, затем по идентификатору.
      *
-     * @param count количество отзывов, которое необходимо получить.
+     * @param cursor позиция, полученная вместе с предыдущей страницей; {@code null} для первой страницы.
+     * @param count  количество отзывов, которое необходимо получить.
      * @return список отзывов.
      */
-    public Collection<Review> getReviews(int count) {
+    public Collection<Review> getReviews(String cursor, int count) {
         log.debug("Получение {} отзывов", count);
-        return this.reviewStorage.getReviews(count);
+        return this.reviewStorage.getReviews(parseCursor(cursor), count);
     }
 
     /**
-     * Получить список отзывов к фильму.
+     * Получить страницу отзывов к фильму, упорядоченных по убыванию полезности, затем по идентификатору.
      *
      * @param filmId идентификатор фильма.
+     * @param cursor позиция, полученная вместе с предыдущей страницей; {@code null} для первой страницы.
      * @param count  количество отзывов, которое необходимо получить.
      * @return список отзывов.
      */
-    public Collection<Review> getFilmReviews(long filmId, int count) {
+    public Collection<Review> getFilmReviews(long filmId, String cursor, int count) {
         throwIfFilmNotFound(filmId);
         log.debug("Получение {} отзывов к фильму с id = {}", count, filmId);
 
-        return this.reviewStorage.getFilmReviews(filmId, count);
+        return this.reviewStorage.getFilmReviews(filmId, parseCursor(cursor), count);
     }
 
     /**
@@ -90,7 +99,7 @@ public final class ReviewService {
     public Review getReviewById(long reviewId) {
         log.debug("Получение отзыва с id = {}", reviewId);
 
-        Optional<Review> reviewOptional = this.reviewStorage.getReviewById(reviewId);
+        Optional<Review> reviewOptional = this.requestIdentityMap.get(Review.class, reviewId, this.reviewStorage::getReviewById);
         if (reviewOptional.isEmpty()) {
             throw new NotFoundException(String.format("Отзыв с id = %d не найден", reviewId));
         }
@@ -111,6 +120,7 @@ public final class ReviewService {
         log.debug("Обновление отзыва с id = {}", review.getId());
 
         this.reviewStorage.updateReview(review);
+        this.requestIdentityMap.evict(Review.class, review.getId());
 
         Review updatedReview = this.getReviewById(review.getId());
         this.eventStorage.createEvent(updatedReview.getUserId(), EventType.REVIEW, EventOperation.UPDATE, updatedReview.getId());
@@ -124,12 +134,11 @@ public final class ReviewService {
      * @param reviewId идентификатор отзыва.
      */
     public void deleteReview(long reviewId) {
-        throwIfReviewNotFound(reviewId);
-        log.debug("Удаление отзыва с id = {}", reviewId);
-
         Review review = this.getReviewById(reviewId);
+        log.debug("Удаление отзыва с id = {}", reviewId);
 
         this.reviewStorage.deleteReview(reviewId);
+        this.requestIdentityMap.evict(Review.class, reviewId);
         this.eventStorage.createEvent(review.getUserId(), EventType.REVIEW, EventOperation.REMOVE, reviewId);
     }
 
@@ -186,13 +195,31 @@ public final class ReviewService {
 
     //region Facilities
 
+    /**
+     * Разобрать позицию страницы отзывов.
+     *
+     * @param cursor строка позиции; {@code null} для первой страницы.
+     * @return позиция или {@code null}.
+     */
+    private static ReviewCursor parseCursor(String cursor) {
+        if (cursor == null) {
+            return null;
+        }
+
+        try {
+            return ReviewCursor.decode(cursor);
+        } catch (IllegalArgumentException ex) {
+            throw new ValidationException("Некорректная позиция страницы отзывов");
+        }
+    }
+
     /**
      * Выбросить исключение, если фильм не найден.
      *
      * @param filmId идентификатор фильма.
      */
     private void throwIfFilmNotFound(long filmId) {
-        if (this.filmStorage.getFilmById(filmId).isEmpty()) {
+        if (!this.requestIdentityMap.exists(Film.class, filmId, this.filmStorage::isFilmExist)) {
             throw new NotFoundException(String.format("Фильм с id = %d не найден", filmId));
         }
     }
@@ -203,7 +230,7 @@ public final class ReviewService {
      * @param reviewId идентификатор отзыва.
      */
     private void throwIfReviewNotFound(long reviewId) {
-        if (this.reviewStorage.getReviewById(reviewId).isEmpty()) {
+        if (!this.requestIdentityMap.exists(Review.class, reviewId, this.reviewStorage::isReviewExist)) {
             throw new NotFoundException(String.format("Отзыв с id = %d не найден", reviewId));
         }
     }
@@ -214,7 +241,7 @@ public final class ReviewService {
      * @param userId идентификатор пользователя.
      */
     private void throwIfUserNotFound(long userId) {
-        if (this.userStorage.getUserById(userId).isEmpty()) {
+        if (!this.requestIdentityMap.exists(User.class, userId, this.userStorage::isUserExist)) {
             throw new NotFoundException(String.format("Пользователь с id = %d не найден", userId));
         }
     }
@@ -3,11 +3,19 @@ package ru.yandex.practicum.filmorate.service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import ru.yandex.practicum.filmorate.dao.EventRepository;
+import ru.yandex.practicum.filmorate.cache.RequestIdentityMap;
 import ru.yandex.practicum.filmorate.exception.NotFoundException;
+import ru.yandex.practicum.filmorate.index.FriendSuggestionIndex;
+import ru.yandex.practicum.filmorate.index.IndexUpdateGate;
+import ru.yandex.practicum.filmorate.index.PopularityIndex;
+import ru.yandex.practicum.filmorate.index.RecommendationIndex;
+import ru.yandex.practicum.filmorate.index.SuggestionIndex;
 import ru.yandex.practicum.filmorate.model.EventOperation;
 import ru.yandex.practicum.filmorate.model.EventType;
 import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.EventStorage;
+import ru.yandex.practicum.filmorate.storage.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.FriendFeedStorage;
 import ru.yandex.practicum.filmorate.storage.UserStorage;
 
 import java.util.Collection;
@@ -25,7 +33,50 @@ public final class UserService {
      */
     private final UserStorage userStorage;
 
-    private final EventRepository eventRepository;
+    /**
+     * Хранилище событий.
+     */
+    private final EventStorage eventStorage;
+
+    /**
+     * Хранилище фильмов.
+     */
+    private final FilmStorage filmStorage;
+
+    /**
+     * Хранилище лент событий друзей.
+     */
+    private final FriendFeedStorage friendFeedStorage;
+
+    /**
+     * Сущности, загруженные в рамках текущего запроса.
+     */
+    private final RequestIdentityMap requestIdentityMap;
+
+    /**
+     * Рекомендации друзей.
+     */
+    private final FriendSuggestionIndex friendSuggestionIndex;
+
+    /**
+     * Индекс популярности фильмов.
+     */
+    private final PopularityIndex popularityIndex;
+
+    /**
+     * Согласование изменений данных с перестройкой индексов.
+     */
+    private final IndexUpdateGate indexUpdateGate;
+
+    /**
+     * Индекс лайков для рекомендаций фильмов.
+     */
+    private final RecommendationIndex recommendationIndex;
+
+    /**
+     * Индекс автодополнения по названиям фильмов и именам режиссёров.
+     */
+    private final SuggestionIndex suggestionIndex;
 
     //region Пользователи
 
@@ -64,7 +115,7 @@ public final class UserService {
     public User getUserById(long userId) {
         log.debug("Получение пользователя с id = {}", userId);
 
-        Optional<User> userOptional = this.userStorage.getUserById(userId);
+        Optional<User> userOptional = this.requestIdentityMap.get(User.class, userId, this.userStorage::getUserById);
         if (userOptional.isEmpty()) {
             throw new NotFoundException(String.format("Пользователь с id = %d не найден", userId));
         }
@@ -87,6 +138,7 @@ public final class UserService {
         }
 
         this.userStorage.updateUser(user);
+        this.requestIdentityMap.evict(User.class, user.getId());
         return this.getUserById(user.getId());
     }
 
@@ -99,7 +151,18 @@ public final class UserService {
         this.throwIfUsersNotFound(userId);
         log.debug("Удаление пользователя с id = {}", userId);
 
-        this.userStorage.deleteUser(userId);
+        this.indexUpdateGate.update(() -> {
+            Collection<Long> likedFilmIds = this.filmStorage.getUserLikedFilmIds(userId);
+            this.userStorage.deleteUser(userId);
+            this.requestIdentityMap.evict(User.class, userId);
+            likedFilmIds.forEach(filmId -> {
+                this.popularityIndex.changeLikes(filmId, -1);
+                this.suggestionIndex.changeLikes(filmId, -1);
+            });
+            this.recommendationIndex.removeUser(userId);
+        });
+        this.friendFeedStorage.removeUser(userId);
+        this.friendSuggestionIndex.removeUser(userId);
     }
 
     //endregion
@@ -118,7 +181,8 @@ public final class UserService {
         log.debug("Добавление пользователя с id = {} в друзья к пользователю с id = {}", friendId, userId);
 
         this.userStorage.addFriend(userId, friendId);
-        this.eventRepository.createEvent(userId, EventType.FRIEND, EventOperation.ADD, friendId);
+        this.friendSuggestionIndex.invalidate(userId);
+        this.eventStorage.createEvent(userId, EventType.FRIEND, EventOperation.ADD, friendId);
     }
 
     /**
@@ -149,6 +213,20 @@ public final class UserService {
         return userStorage.getCommonFriends(firstUserId, secondUserId);
     }
 
+    /**
+     * Получить пользователей, рекомендуемых в друзья: друзей друзей в порядке убывания количества общих друзей.
+     *
+     * @param userId идентификатор пользователя.
+     * @param limit  максимальное количество пользователей.
+     * @return список пользователей.
+     */
+    public Collection<User> getFriendSuggestions(long userId, int limit) {
+        this.throwIfUsersNotFound(userId);
+        log.debug("Получение {} рекомендаций друзей для пользователя с id = {}", limit, userId);
+
+        return this.userStorage.getUsersByIds(this.friendSuggestionIndex.getSuggestedUserIds(userId, limit));
+    }
+
     /**
      * Удалить пользователя из друзей.
      *
@@ -161,7 +239,9 @@ public final class UserService {
         log.debug("Удаление пользователя с id = {} из друзей пользователя с id = {}", friendId, userId);
 
         this.userStorage.deleteFriend(userId, friendId);
-        this.eventRepository.createEvent(userId, EventType.FRIEND, EventOperation.REMOVE, friendId);
+        this.friendFeedStorage.removeFriend(userId, friendId);
+        this.friendSuggestionIndex.invalidate(userId);
+        this.eventStorage.createEvent(userId, EventType.FRIEND, EventOperation.REMOVE, friendId);
     }
 
     //endregion
@@ -174,7 +254,7 @@ public final class UserService {
      * @param userId идентификатор пользователя.
      */
     private void throwIfUsersNotFound(long userId) {
-        if (this.userStorage.getUserById(userId).isEmpty()) {
+        if (!this.requestIdentityMap.exists(User.class, userId, this.userStorage::isUserExist)) {
             throw new NotFoundException(String.format("Пользователь с id = %d не найден", userId));
         }
     }
@@ -32,6 +32,14 @@ public interface DirectorStorage {
      */
     Optional<Director> getDirectorById(long directorId);
 
+    /**
+     * Получить режиссёров по их идентификаторам.
+     *
+     * @param directorIds идентификаторы режиссёров.
+     * @return список найденных режиссёров.
+     */
+    Collection<Director> getDirectorsByIds(Collection<Long> directorIds);
+
     /**
      * Обновить режиссёра.
      *
@@ -17,14 +17,19 @@ public interface EventStorage {
      * @param eventType тип события.
      * @param operation тип операции.
      * @param entityId  идентификатор сущности, связанной с событием.
+     * @return событие.
      */
-    void createEvent(long userId, EventType eventType, EventOperation operation, long entityId);
+    Event createEvent(long userId, EventType eventType, EventOperation operation, long entityId);
 
     /**
-     * Получить список событий пользователя.
+     * Получить события пользователя в порядке их появления.
+     * Если {@code sinceId} не предоставлен, возвращаются последние {@code limit} событий,
+     * иначе — первые {@code limit} событий, следующих за событием {@code sinceId}.
      *
-     * @param userId идентификатор пользователя.
+     * @param userId  идентификатор пользователя.
+     * @param sinceId идентификатор события, после которого начинается список, если предоставлен.
+     * @param limit   максимальное количество событий.
      * @return список событий.
      */
-    Collection<Event> getUserEvents(long userId);
+    Collection<Event> getUserEvents(long userId, Long sinceId, int limit);
 }
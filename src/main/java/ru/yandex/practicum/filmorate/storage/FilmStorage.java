@@ -6,6 +6,8 @@ import ru.yandex.practicum.filmorate.model.Genre;
 import ru.yandex.practicum.filmorate.model.SortBy;
 
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -30,6 +32,15 @@ public interface FilmStorage {
      */
     Collection<Film> getAllFilms();
 
+    /**
+     * Получить страницу фильмов, упорядоченных по идентификатору.
+     *
+     * @param afterId идентификатор фильма, после которого начинается страница.
+     * @param limit   максимальное количество фильмов на странице.
+     * @return список фильмов.
+     */
+    Collection<Film> getFilmsPage(long afterId, int limit);
+
     /**
      * Получить список популярных фильмов, отсортированный по количеству лайков.
      *
@@ -41,20 +52,28 @@ public interface FilmStorage {
     Collection<Film> getPopularFilms(long count, Long genreId, Integer year);
 
     /**
-     * Получить список фильмов, рекомендуемых для пользователя.
+     * Получить фильм по его идентификатору.
      *
-     * @param userId идентификатор пользователя.
-     * @return список фильмов.
+     * @param filmId идентификатор фильма.
+     * @return фильм.
      */
-    Collection<Film> getRecommendedFilms(long userId);
+    Optional<Film> getFilmById(long filmId);
 
     /**
-     * Получить фильм по его идентификатору.
+     * Проверить существование фильма, не загружая его.
      *
      * @param filmId идентификатор фильма.
-     * @return фильм.
+     * @return признак, существует ли фильм.
      */
-    Optional<Film> getFilmById(long filmId);
+    boolean isFilmExist(long filmId);
+
+    /**
+     * Получить фильмы по списку идентификаторов.
+     *
+     * @param filmIds список идентификаторов фильмов.
+     * @return список фильмов в порядке следования идентификаторов; отсутствующие фильмы пропускаются.
+     */
+    Collection<Film> getFilmsByIds(List<Long> filmIds);
 
     /**
      * Получить список фильмов режиссёра.
@@ -150,5 +169,34 @@ public interface FilmStorage {
      */
     void removeLikeFromFilm(long filmId, long userId);
 
+    /**
+     * Подсчитать лайки всех фильмов по таблице лайков.
+     *
+     * @return количество лайков по идентификатору фильма; фильмы без лайков отсутствуют.
+     */
+    Map<Long, Long> getFilmsLikesCount();
+
+    /**
+     * Получить идентификаторы фильмов, которые понравились пользователю.
+     *
+     * @param userId идентификатор пользователя.
+     * @return список идентификаторов фильмов.
+     */
+    Collection<Long> getUserLikedFilmIds(long userId);
+
+    /**
+     * Получить идентификаторы понравившихся фильмов всех пользователей.
+     *
+     * @return идентификаторы фильмов по идентификатору пользователя.
+     */
+    Map<Long, List<Long>> getAllUsersLikedFilmIds();
+
+    /**
+     * Пересчитать счётчики лайков фильмов, разошедшиеся с таблицей лайков.
+     *
+     * @return количество исправленных фильмов.
+     */
+    int reconcileLikesCount();
+
     //endregion
-}
\ No newline at end of file
+}
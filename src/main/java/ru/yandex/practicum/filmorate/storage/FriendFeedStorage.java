@@ -0,0 +1,37 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import ru.yandex.practicum.filmorate.model.Event;
+
+import java.util.Collection;
+
+/**
+ * Контракт хранилища лент событий друзей.
+ */
+public interface FriendFeedStorage {
+    /**
+     * Получить события друзей пользователя в порядке их появления.
+     * Если {@code sinceId} не предоставлен, возвращаются последние {@code limit} событий,
+     * иначе — первые {@code limit} событий, следующих за событием {@code sinceId}.
+     *
+     * @param userId  идентификатор пользователя.
+     * @param sinceId идентификатор события, после которого начинается список, если предоставлен.
+     * @param limit   максимальное количество событий.
+     * @return список событий.
+     */
+    Collection<Event> getFriendEvents(long userId, Long sinceId, int limit);
+
+    /**
+     * Удалить ленты, связанные с удалённым пользователем.
+     *
+     * @param userId идентификатор пользователя.
+     */
+    void removeUser(long userId);
+
+    /**
+     * Удалить события бывшего друга из ленты пользователя.
+     *
+     * @param userId   идентификатор пользователя.
+     * @param friendId идентификатор бывшего друга.
+     */
+    void removeFriend(long userId, long friendId);
+}
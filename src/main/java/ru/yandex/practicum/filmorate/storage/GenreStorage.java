@@ -23,4 +23,12 @@ public interface GenreStorage {
      * @return жанр.
      */
     Optional<Genre> getGenreById(long genreId);
+
+    /**
+     * Получить жанры по их идентификаторам.
+     *
+     * @param genreIds идентификаторы жанров.
+     * @return список найденных жанров.
+     */
+    Collection<Genre> getGenresByIds(Collection<Long> genreIds);
 }
@@ -1,6 +1,7 @@
 package ru.yandex.practicum.filmorate.storage;
 
 import ru.yandex.practicum.filmorate.model.Review;
+import ru.yandex.practicum.filmorate.model.ReviewCursor;
 
 import java.util.Collection;
 import java.util.Optional;
@@ -21,21 +22,23 @@ public interface ReviewStorage {
     Review createReview(Review review);
 
     /**
-     * Получить список отзывов.
+     * Получить страницу отзывов, упорядоченных по убыванию полезности, затем по идентификатору.
      *
+     * @param after позиция, после которой начинается страница; {@code null} для первой страницы.
      * @param count количество отзывов, которое необходимо получить.
      * @return список отзывов.
      */
-    Collection<Review> getReviews(int count);
+    Collection<Review> getReviews(ReviewCursor after, int count);
 
     /**
-     * Получить список отзывов к фильму.
+     * Получить страницу отзывов к фильму, упорядоченных по убыванию полезности, затем по идентификатору.
      *
      * @param filmId идентификатор фильма.
+     * @param after  позиция, после которой начинается страница; {@code null} для первой страницы.
      * @param count  количество отзывов, которое необходимо получить.
      * @return список отзывов.
      */
-    Collection<Review> getFilmReviews(long filmId, int count);
+    Collection<Review> getFilmReviews(long filmId, ReviewCursor after, int count);
 
     /**
      * Получить отзыв по его идентификатору.
@@ -45,6 +48,14 @@ public interface ReviewStorage {
      */
     Optional<Review> getReviewById(long reviewId);
 
+    /**
+     * Проверить существование отзыва, не загружая его.
+     *
+     * @param reviewId идентификатор отзыва.
+     * @return признак, существует ли отзыв.
+     */
+    boolean isReviewExist(long reviewId);
+
     /**
      * Обновить отзыв.
      *
@@ -3,6 +3,8 @@ package ru.yandex.practicum.filmorate.storage;
 import ru.yandex.practicum.filmorate.model.User;
 
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -35,6 +37,22 @@ public interface UserStorage {
      */
     Optional<User> getUserById(long userId);
 
+    /**
+     * Проверить существование пользователя, не загружая его.
+     *
+     * @param userId идентификатор пользователя.
+     * @return признак, существует ли пользователь.
+     */
+    boolean isUserExist(long userId);
+
+    /**
+     * Получить пользователей по списку идентификаторов.
+     *
+     * @param userIds список идентификаторов пользователей.
+     * @return список пользователей в порядке следования идентификаторов; отсутствующие пользователи пропускаются.
+     */
+    Collection<User> getUsersByIds(List<Long> userIds);
+
     /**
      * Обновить пользователя.
      *
@@ -69,6 +87,21 @@ public interface UserStorage {
      */
     Collection<User> getFriends(long userId);
 
+    /**
+     * Получить идентификаторы друзей пользователя.
+     *
+     * @param userId идентификатор пользователя.
+     * @return идентификаторы друзей по возрастанию.
+     */
+    long[] getFriendIds(long userId);
+
+    /**
+     * Получить идентификаторы друзей всех пользователей.
+     *
+     * @return идентификаторы друзей по возрастанию по идентификатору пользователя.
+     */
+    Map<Long, List<Long>> getAllFriendIds();
+
     /**
      * Получить список общих друзей двух пользователей.
      *
@@ -0,0 +1,345 @@
+package ru.yandex.practicum.filmorate.task;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.yandex.practicum.filmorate.dao.EventRepository;
+import ru.yandex.practicum.filmorate.exception.InternalServerException;
+import ru.yandex.practicum.filmorate.model.Event;
+import ru.yandex.practicum.filmorate.model.EventOperation;
+import ru.yandex.practicum.filmorate.model.EventType;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Фоновая запись журнала событий.
+ * События получают идентификатор сразу, помещаются в ограниченную очередь и записываются в БД отдельным потоком
+ * пакетами: как только набрался полный пакет либо истёк интервал ожидания с момента первого события пакета.
+ * Событие, созданное внутри транзакции, ставится в очередь только после её фиксации; события откаченной транзакции не записываются.
+ * Если очередь переполнена дольше допустимого, событие записывается синхронно вызывающим потоком.
+ * События, ещё не записанные из очереди, теряются при аварийном завершении приложения; если это недопустимо,
+ * фоновая запись отключается и каждое событие записывается синхронно.
+ * Очередь обслуживается в порядке поступления одним потоком, поэтому события из очереди записываются по порядку,
+ * а счётчик записанных событий позволяет дождаться записи всех событий, поставленных до заданного момента.
+ * При остановке приложения очередь дописывается полностью.
+ * Подписчики получают записанные события сразу после их записи, до того как запись будет учтена в {@link #flush()}.
+ */
+@Component
+@Slf4j
+public class EventJournalWriter {
+    /**
+     * Период, с которым поток записи, добирающий пакет, проверяет ожидание записи в {@link #flush()}.
+     */
+    private static final long FLUSH_CHECK_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+    /**
+     * Хранилище событий в БД.
+     */
+    private final EventRepository eventRepository;
+
+    /**
+     * Очередь событий, ожидающих записи.
+     */
+    private final BlockingQueue<Event> queue;
+
+    /**
+     * Максимальное количество событий в пакете.
+     */
+    private final int batchSize;
+
+    /**
+     * Максимальное время ожидания заполнения пакета.
+     */
+    private final Duration flushInterval;
+
+    /**
+     * Максимальное время ожидания места в очереди.
+     */
+    private final Duration offerTimeout;
+
+    /**
+     * Признак фоновой записи; если он снят, события записываются синхронно вызывающим потоком.
+     */
+    private final boolean async;
+
+    /**
+     * Монитор ожидания записи: {@link #flush()} ожидает под ним записи поставленных событий.
+     * Запись в БД и вызов подписчиков выполняются вне монитора.
+     */
+    private final Object writeMonitor = new Object();
+
+    /**
+     * Количество событий, поставленных в очередь.
+     */
+    private final AtomicLong enqueued = new AtomicLong();
+
+    /**
+     * Количество событий очереди, запись которых завершена.
+     */
+    private final AtomicLong processed = new AtomicLong();
+
+    /**
+     * Подписчики на записанные события.
+     */
+    private final List<Consumer<List<Event>>> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Количество потоков, ожидающих записи в {@link #flush()}: пока оно не нулевое, поток записи не добирает пакет.
+     * Изменяется под монитором записи.
+     */
+    private volatile int flushWaiters;
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public EventJournalWriter(EventRepository eventRepository,
+                              @Value("${filmorate.event-journal.queue-capacity:10000}") int queueCapacity,
+                              @Value("${filmorate.event-journal.batch-size:100}") int batchSize,
+                              @Value("${filmorate.event-journal.flush-interval:50ms}") Duration flushInterval,
+                              @Value("${filmorate.event-journal.offer-timeout:1s}") Duration offerTimeout,
+                              @Value("${filmorate.event-journal.async:true}") boolean async) {
+        this.eventRepository = eventRepository;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.flushInterval = flushInterval;
+        this.offerTimeout = offerTimeout;
+        this.async = async;
+    }
+
+    /**
+     * Запустить поток записи.
+     */
+    @PostConstruct
+    public void start() {
+        if (!this.async) {
+            log.info("Фоновая запись журнала событий отключена, события записываются синхронно");
+            return;
+        }
+
+        this.running = true;
+        this.worker = new Thread(this::run, "event-journal-writer");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * Остановить поток записи и дописать оставшиеся в очереди события.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        // Поток не прерывается: прерывание во время записи закрыло бы файл встроенной БД.
+        this.running = false;
+        if (this.worker != null) {
+            this.worker.join();
+        }
+        this.flush();
+
+        log.info("Журнал событий остановлен, записано событий: {}", this.processed.get());
+    }
+
+    /**
+     * Подписаться на записанные события.
+     * Подписчик вызывается потоком, записавшим события, с событиями в порядке записи.
+     *
+     * @param listener подписчик.
+     */
+    public void addListener(Consumer<List<Event>> listener) {
+        this.listeners.add(listener);
+    }
+
+    /**
+     * Создать событие и поставить его в очередь на запись после фиксации текущей транзакции, если она есть.
+     *
+     * @param userId    идентификатор пользователя.
+     * @param eventType тип события.
+     * @param operation тип операции.
+     * @param entityId  идентификатор сущности, связанной с событием.
+     * @return событие.
+     */
+    public Event append(long userId, EventType eventType, EventOperation operation, long entityId) {
+        Event event = this.eventRepository.prepareEvent(userId, eventType, operation, entityId);
+        this.afterCommit(() -> this.enqueue(event));
+
+        return event;
+    }
+
+    /**
+     * Выполнить действие после фиксации текущей транзакции или сразу, если транзакции нет.
+     * Действие откаченной транзакции не выполняется.
+     *
+     * @param action действие.
+     */
+    public void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * Дождаться записи всех событий, поставленных в очередь до вызова.
+     * Поток записи записывает собранный пакет, не дожидаясь его заполнения; если поток записи остановлен,
+     * оставшиеся в очереди события записываются вызывающим потоком.
+     */
+    public void flush() {
+        synchronized (this.writeMonitor) {
+            long target = this.enqueued.get();
+
+            if (this.worker == null || !this.worker.isAlive()) {
+                List<Event> batch = new ArrayList<>(this.batchSize);
+                while (this.queue.drainTo(batch, this.batchSize) > 0) {
+                    this.write(batch);
+                    batch.clear();
+                }
+            }
+
+            this.flushWaiters++;
+            try {
+                while (this.processed.get() < target) {
+                    this.writeMonitor.wait();
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            } finally {
+                this.flushWaiters--;
+            }
+        }
+    }
+
+    //region Facilities
+
+    /**
+     * Поставить событие в очередь; если очередь переполнена дольше допустимого или фоновая запись не выполняется,
+     * записать событие синхронно.
+     */
+    private void enqueue(Event event) {
+        boolean queued = false;
+        try {
+            queued = this.running && this.queue.offer(event, this.offerTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (queued) {
+            this.enqueued.incrementAndGet();
+        } else {
+            if (this.running) {
+                log.warn("Очередь журнала событий переполнена, событие с id = {} записывается синхронно", event.getId());
+            }
+            this.eventRepository.saveEvents(List.of(event));
+            this.notifyListeners(List.of(event));
+        }
+    }
+
+    private void run() {
+        List<Event> batch = new ArrayList<>(this.batchSize);
+        boolean interrupted = false;
+        while (!interrupted && (this.running || !this.queue.isEmpty())) {
+            try {
+                this.collect(batch);
+            } catch (InterruptedException ex) {
+                log.warn("Поток записи журнала событий прерван, остаток очереди будет записан при остановке");
+                interrupted = true;
+            }
+
+            if (!batch.isEmpty()) {
+                this.write(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Собрать пакет: дождаться первого события, затем добирать события до полного пакета, истечения интервала
+     * или вызова {@link #flush()}.
+     */
+    private void collect(List<Event> batch) throws InterruptedException {
+        Event first = this.queue.poll(this.flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+
+        long deadline = System.nanoTime() + this.flushInterval.toNanos();
+        while (batch.size() < this.batchSize) {
+            this.queue.drainTo(batch, this.batchSize - batch.size());
+
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= this.batchSize || remaining <= 0 || this.flushWaiters > 0) {
+                return;
+            }
+
+            Event next = this.queue.poll(Math.min(remaining, FLUSH_CHECK_INTERVAL_NANOS), TimeUnit.NANOSECONDS);
+            if (next != null) {
+                batch.add(next);
+            }
+        }
+    }
+
+    /**
+     * Записать пакет событий. Если пакет не записался целиком, события записываются по одному,
+     * а не записавшиеся (например, события уже удалённого пользователя) пропускаются.
+     * Запись учитывается в {@link #flush()} после передачи событий подписчикам.
+     */
+    private void write(List<Event> batch) {
+        List<Event> written = batch;
+        try {
+            this.eventRepository.saveEvents(batch);
+        } catch (InternalServerException ex) {
+            written = new ArrayList<>(batch.size());
+            for (Event event : batch) {
+                try {
+                    this.eventRepository.saveEvents(List.of(event));
+                    written.add(event);
+                } catch (InternalServerException rowEx) {
+                    log.warn("Событие с id = {} пользователя с id = {} не записано в журнал", event.getId(), event.getUserId());
+                }
+            }
+        }
+
+        this.notifyListeners(written);
+        synchronized (this.writeMonitor) {
+            this.processed.addAndGet(batch.size());
+            this.writeMonitor.notifyAll();
+        }
+    }
+
+    /**
+     * Передать записанные события подписчикам. Ошибка подписчика не прерывает запись журнала.
+     */
+    private void notifyListeners(List<Event> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+
+        List<Event> written = List.copyOf(events);
+        for (Consumer<List<Event>> listener : this.listeners) {
+            try {
+                listener.accept(written);
+            } catch (Throwable ex) {
+                log.error("Ошибка при обработке {} записанных событий: [{}] {}", events.size(), ex.getClass().getSimpleName(), ex.getMessage());
+            }
+        }
+    }
+
+    //endregion
+}
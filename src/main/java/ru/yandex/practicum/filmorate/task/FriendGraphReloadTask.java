@@ -0,0 +1,28 @@
+package ru.yandex.practicum.filmorate.task;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.cache.CachedUserStorage;
+
+/**
+ * Фоновая задача, перечитывающая граф друзей из БД
+ * на случай изменений таблицы друзей в обход приложения.
+ */
+@Component
+@RequiredArgsConstructor
+public class FriendGraphReloadTask {
+    /**
+     * Хранилище пользователей с графом друзей в памяти.
+     */
+    private final CachedUserStorage userStorage;
+
+    /**
+     * Перечитать граф друзей.
+     */
+    @Scheduled(initialDelayString = "${filmorate.friends.reload-interval}",
+            fixedDelayString = "${filmorate.friends.reload-interval}")
+    public void reload() {
+        this.userStorage.reloadFriendGraph();
+    }
+}
@@ -0,0 +1,55 @@
+package ru.yandex.practicum.filmorate.task;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.index.PopularityIndex;
+import ru.yandex.practicum.filmorate.index.RecommendationIndex;
+import ru.yandex.practicum.filmorate.index.SuggestionIndex;
+import ru.yandex.practicum.filmorate.storage.FilmStorage;
+
+/**
+ * Фоновая задача, выравнивающая счётчики лайков фильмов с таблицей лайков
+ * и перестраивающая по ним индексы популярности, рекомендаций и автодополнения.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LikesCountReconciliationTask {
+    /**
+     * Хранилище фильмов.
+     */
+    private final FilmStorage filmStorage;
+
+    /**
+     * Индекс популярности фильмов.
+     */
+    private final PopularityIndex popularityIndex;
+
+    /**
+     * Индекс лайков для рекомендаций фильмов.
+     */
+    private final RecommendationIndex recommendationIndex;
+
+    /**
+     * Индекс автодополнения по названиям фильмов и именам режиссёров.
+     */
+    private final SuggestionIndex suggestionIndex;
+
+    /**
+     * Пересчитать счётчики лайков, разошедшиеся с таблицей лайков, и перестроить индексы популярности, рекомендаций и автодополнения.
+     */
+    @Scheduled(initialDelayString = "${filmorate.likes-count.reconcile-interval}",
+            fixedDelayString = "${filmorate.likes-count.reconcile-interval}")
+    public void reconcile() {
+        int updated = this.filmStorage.reconcileLikesCount();
+        if (updated > 0) {
+            log.warn("Исправлены счётчики лайков у {} фильмов", updated);
+        }
+
+        this.popularityIndex.rebuild();
+        this.recommendationIndex.rebuild();
+        this.suggestionIndex.rebuild();
+    }
+}
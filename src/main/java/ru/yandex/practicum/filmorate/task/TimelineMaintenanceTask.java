@@ -0,0 +1,55 @@
+package ru.yandex.practicum.filmorate.task;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.cache.FanOutFriendFeedStorage;
+import ru.yandex.practicum.filmorate.dao.TimelineRepository;
+
+/**
+ * Фоновая задача, ограничивающая размер лент событий друзей в БД
+ * и обновляющая список пользователей, чьи события не рассылаются.
+ */
+@Component
+@ConditionalOnProperty(value = "filmorate.feed.fan-out.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class TimelineMaintenanceTask {
+    /**
+     * Хранилище лент в БД.
+     */
+    private final TimelineRepository timelineRepository;
+
+    /**
+     * Хранилище лент событий друзей с рассылкой событий при записи.
+     */
+    private final FanOutFriendFeedStorage friendFeedStorage;
+
+    /**
+     * Количество последних событий, сохраняемых в ленте.
+     */
+    private final int timelineSize;
+
+    public TimelineMaintenanceTask(TimelineRepository timelineRepository,
+                                   FanOutFriendFeedStorage friendFeedStorage,
+                                   @Value("${filmorate.feed.fan-out.timeline-size:1000}") int timelineSize) {
+        this.timelineRepository = timelineRepository;
+        this.friendFeedStorage = friendFeedStorage;
+        this.timelineSize = timelineSize;
+    }
+
+    /**
+     * Удалить из лент события сверх допустимого количества и перечитать популярных пользователей.
+     */
+    @Scheduled(initialDelayString = "${filmorate.feed.fan-out.maintenance-interval}",
+            fixedDelayString = "${filmorate.feed.fan-out.maintenance-interval}")
+    public void maintain() {
+        int deleted = this.timelineRepository.trimTimelines(this.timelineSize);
+        if (deleted > 0) {
+            log.info("Из лент удалено устаревших записей: {}", deleted);
+        }
+
+        this.friendFeedStorage.refreshPopularUsers();
+    }
+}
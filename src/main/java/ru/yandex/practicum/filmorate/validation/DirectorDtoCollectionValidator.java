@@ -9,9 +9,10 @@ import ru.yandex.practicum.filmorate.storage.DirectorStorage;
 import ru.yandex.practicum.filmorate.validation.constraint.DirectorDtoCollectionConstraint;
 
 import java.util.Collection;
-import java.util.HashSet;
-import java.util.Optional;
+import java.util.List;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
 
 public class DirectorDtoCollectionValidator implements ConstraintValidator<DirectorDtoCollectionConstraint, Collection<DirectorDto>> {
     @Autowired
@@ -19,16 +20,18 @@ public class DirectorDtoCollectionValidator implements ConstraintValidator<Direc
 
     @Override
     public boolean isValid(Collection<DirectorDto> directorDtoCollection, ConstraintValidatorContext constraintValidatorContext) {
-        Set<String> errors = new HashSet<>();
+        Set<Long> missingIds = directorDtoCollection.stream()
+                .map(DirectorDto::getId)
+                .collect(Collectors.toCollection(TreeSet::new));
+        this.directorStorage.getDirectorsByIds(missingIds).stream()
+                .map(Director::getId)
+                .forEach(missingIds::remove);
+
+        if (!missingIds.isEmpty()) {
+            List<String> errors = missingIds.stream()
+                    .map(id -> String.format("Режиссёр с id = %d не найден", id))
+                    .toList();
 
-        directorDtoCollection.forEach(dto -> {
-            Optional<Director> genre = this.directorStorage.getDirectorById(dto.getId());
-            if (genre.isEmpty()) {
-                errors.add(String.format("Режиссёр с id = %d не найден", dto.getId()));
-            }
-        });
-
-        if (!errors.isEmpty()) {
             constraintValidatorContext.disableDefaultConstraintViolation();
             constraintValidatorContext.buildConstraintViolationWithTemplate(String.join(", ", errors)).addConstraintViolation();
 
@@ -9,9 +9,10 @@ import ru.yandex.practicum.filmorate.storage.GenreStorage;
 import ru.yandex.practicum.filmorate.validation.constraint.GenreDtoCollectionConstraint;
 
 import java.util.Collection;
-import java.util.HashSet;
-import java.util.Optional;
+import java.util.List;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
 
 public class GenreDtoCollectionValidator implements ConstraintValidator<GenreDtoCollectionConstraint, Collection<GenreDto>> {
     @Autowired
@@ -19,16 +20,18 @@ public class GenreDtoCollectionValidator implements ConstraintValidator<GenreDto
 
     @Override
     public boolean isValid(Collection<GenreDto> genreDtoCollection, ConstraintValidatorContext constraintValidatorContext) {
-        Set<String> errors = new HashSet<>();
+        Set<Long> missingIds = genreDtoCollection.stream()
+                .map(GenreDto::getId)
+                .collect(Collectors.toCollection(TreeSet::new));
+        this.genreStorage.getGenresByIds(missingIds).stream()
+                .map(Genre::getId)
+                .forEach(missingIds::remove);
+
+        if (!missingIds.isEmpty()) {
+            List<String> errors = missingIds.stream()
+                    .map(id -> String.format("Жанр с id = %d не найден", id))
+                    .toList();
 
-        genreDtoCollection.forEach(dto -> {
-            Optional<Genre> genre = this.genreStorage.getGenreById(dto.getId());
-            if (genre.isEmpty()) {
-                errors.add(String.format("Жанр с id = %d не найден", dto.getId()));
-            }
-        });
-
-        if (!errors.isEmpty()) {
             constraintValidatorContext.disableDefaultConstraintViolation();
             constraintValidatorContext.buildConstraintViolationWithTemplate(String.join(", ", errors)).addConstraintViolation();
 
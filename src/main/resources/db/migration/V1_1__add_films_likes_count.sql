@@ -0,0 +1,8 @@
+ALTER TABLE films ADD COLUMN IF NOT EXISTS likes_count INTEGER NOT NULL DEFAULT 0;
+
+UPDATE films f
+SET likes_count = (SELECT COUNT(*)
+                   FROM film_likes fl
+                   WHERE fl.film_id = f.id);
+
+CREATE INDEX IF NOT EXISTS films_likes_count_idx ON films (likes_count DESC, id);
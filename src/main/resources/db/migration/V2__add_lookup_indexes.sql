@@ -0,0 +1,16 @@
+ALTER TABLE films ADD COLUMN IF NOT EXISTS release_year INTEGER GENERATED ALWAYS AS (EXTRACT(YEAR FROM release_date));
+
+CREATE INDEX IF NOT EXISTS films_release_year_idx ON films (release_year, likes_count DESC, id);
+CREATE INDEX IF NOT EXISTS films_mpa_id_idx ON films (mpa_id);
+
+CREATE INDEX IF NOT EXISTS film_likes_user_id_idx ON film_likes (user_id, film_id);
+CREATE INDEX IF NOT EXISTS film_genres_genre_id_idx ON film_genres (genre_id, film_id);
+CREATE INDEX IF NOT EXISTS film_directors_director_id_idx ON film_directors (director_id, film_id);
+
+CREATE INDEX IF NOT EXISTS friends_friend_id_idx ON friends (friend_id, user_id);
+
+CREATE INDEX IF NOT EXISTS events_user_id_idx ON events (user_id, id);
+
+CREATE INDEX IF NOT EXISTS reviews_film_id_idx ON reviews (film_id, id);
+CREATE INDEX IF NOT EXISTS review_likes_review_id_idx ON review_likes (review_id, is_liked);
+CREATE INDEX IF NOT EXISTS review_likes_user_id_idx ON review_likes (user_id);
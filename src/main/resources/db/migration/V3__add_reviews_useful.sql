@@ -0,0 +1,10 @@
+ALTER TABLE reviews ADD COLUMN IF NOT EXISTS useful INTEGER DEFAULT 0 NOT NULL;
+
+UPDATE reviews r
+SET useful = (SELECT COALESCE(SUM(CASE WHEN rl.is_liked THEN 1 WHEN NOT rl.is_liked THEN -1 ELSE 0 END), 0)
+              FROM review_likes rl
+              WHERE rl.review_id = r.id);
+
+DROP INDEX IF EXISTS reviews_film_id_idx;
+CREATE INDEX IF NOT EXISTS reviews_film_id_useful_idx ON reviews (film_id, useful DESC, id);
+CREATE INDEX IF NOT EXISTS reviews_useful_idx ON reviews (useful DESC, id);
@@ -0,0 +1,3 @@
+CREATE SEQUENCE IF NOT EXISTS events_id_seq START WITH 1 INCREMENT BY 100;
+
+ALTER SEQUENCE events_id_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 1 FROM events);
@@ -1,5 +1,6 @@
 package ru.yandex.practicum.filmorate;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -7,22 +8,33 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import ru.yandex.practicum.filmorate.model.Film;
 import ru.yandex.practicum.filmorate.model.Mpa;
 
 import java.time.LocalDate;
 import java.time.Month;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
+import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
 @AutoConfigureMockMvc
+@ActiveProfiles("test")
 class FilmControllerTest {
 
     @Autowired
@@ -57,7 +69,8 @@ class FilmControllerTest {
                 .andExpect(jsonPath("$.name").value("Film 1"))
                 .andExpect(jsonPath("$.description").value("Description 1"))
                 .andExpect(jsonPath("$.releaseDate").value("1990-05-28"))
-                .andExpect(jsonPath("$.duration").value("150"));
+                .andExpect(jsonPath("$.duration").value("150"))
+                .andExpect(QueryBudget.atMost(5));
         mockMvc.perform(put("/films")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(newFilm)))
@@ -65,7 +78,8 @@ class FilmControllerTest {
                 .andExpect(jsonPath("$.name").value("Film 2"))
                 .andExpect(jsonPath("$.description").value("Description 1"))
                 .andExpect(jsonPath("$.releaseDate").value("1990-05-28"))
-                .andExpect(jsonPath("$.duration").value("150"));
+                .andExpect(jsonPath("$.duration").value("150"))
+                .andExpect(QueryBudget.atMost(10));
     }
 
     @Test
@@ -74,7 +88,8 @@ class FilmControllerTest {
         mockMvc.perform(post("/films")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(newFilm)))
-                .andExpect(status().isBadRequest());
+                .andExpect(status().isBadRequest())
+                .andExpect(QueryBudget.atMost(0));
     }
 
     @Test
@@ -83,7 +98,8 @@ class FilmControllerTest {
         mockMvc.perform(post("/films")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(newFilm)))
-                .andExpect(status().isBadRequest());
+                .andExpect(status().isBadRequest())
+                .andExpect(QueryBudget.atMost(0));
     }
 
     @Test
@@ -92,7 +108,8 @@ class FilmControllerTest {
         mockMvc.perform(post("/films")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(newFilm)))
-                .andExpect(status().isBadRequest());
+                .andExpect(status().isBadRequest())
+                .andExpect(QueryBudget.atMost(0));
     }
 
     @Test
@@ -101,7 +118,8 @@ class FilmControllerTest {
         mockMvc.perform(post("/films")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(newFilm)))
-                .andExpect(status().isBadRequest());
+                .andExpect(status().isBadRequest())
+                .andExpect(QueryBudget.atMost(0));
     }
 
     @Test
@@ -110,6 +128,73 @@ class FilmControllerTest {
         mockMvc.perform(post("/films")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(newFilm)))
+                .andExpect(status().isBadRequest())
+                .andExpect(QueryBudget.atMost(0));
+    }
+
+    @Test
+    void shouldReturnPageOfFilmsAfterId() throws Exception {
+        long firstId = createFilm();
+        long secondId = createFilm();
+        long thirdId = createFilm();
+
+        mockMvc.perform(get("/films").param("after", String.valueOf(firstId - 1)).param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").value(firstId))
+                .andExpect(jsonPath("$[1].id").value(secondId))
+                .andExpect(QueryBudget.atMost(3));
+        mockMvc.perform(get("/films").param("after", String.valueOf(secondId)).param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(thirdId));
+        mockMvc.perform(get("/films").param("after", String.valueOf(thirdId)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+    }
+
+    @Test
+    void shouldReturnBadRequestWhenPageParametersOutOfRange() throws Exception {
+        mockMvc.perform(get("/films").param("limit", "0"))
                 .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/films").param("limit", "1001"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/films").param("after", "-1"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/films").param("limit", "1000"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void shouldStreamFilmsAsNdjson() throws Exception {
+        long firstId = createFilm();
+        long secondId = createFilm();
+
+        MvcResult result = mockMvc.perform(get("/films").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        // По одному фильму в строке, каждая строка завершается переводом строки.
+        assertTrue(body.endsWith("\n"));
+        List<Long> ids = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            JsonNode node = objectMapper.readTree(line);
+            assertTrue(node.isObject());
+            ids.add(node.get("id").asLong());
+        }
+        assertEquals(ids.stream().sorted().toList(), ids);
+        assertEquals(List.of(firstId, secondId), ids.subList(ids.size() - 2, ids.size()));
+    }
+
+    private long createFilm() throws Exception {
+        String content = mockMvc.perform(post("/films")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(film)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(content).get("id").asLong();
     }
 }
\ No newline at end of file
@@ -0,0 +1,39 @@
+package ru.yandex.practicum.filmorate;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FlywayMigrationTest {
+    @Test
+    public void shouldMigrateDatabaseCreatedByBaselineSchema() {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:baseline;DB_CLOSE_DELAY=-1", "sa", "password");
+        new ResourceDatabasePopulator(new ClassPathResource("db/baseline/schema.sql")).execute(dataSource);
+
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.update("INSERT INTO users (id, email, login, name, birthday) VALUES (1, 'u1@mail.ru', 'u1', 'U1', '1990-01-01')");
+        jdbc.update("INSERT INTO users (id, email, login, name, birthday) VALUES (2, 'u2@mail.ru', 'u2', 'U2', '1990-01-02')");
+        jdbc.update("INSERT INTO films (id, name, description, release_date, duration, mpa_id) VALUES (1, 'F1', 'D1', '2000-05-01', 90, 1)");
+        jdbc.update("INSERT INTO film_likes (film_id, user_id) VALUES (1, 1), (1, 2)");
+        jdbc.update("INSERT INTO reviews (id, content, is_positive, user_id, film_id) VALUES (1, 'R1', TRUE, 1, 1)");
+        jdbc.update("INSERT INTO review_likes (review_id, user_id, is_liked) VALUES (1, 2, FALSE)");
+        jdbc.update("INSERT INTO events (id, user_id, event_type, operation, entity_id) VALUES (41, 1, 'LIKE', 'ADD', 1)");
+
+        // Настройки совпадают с spring.flyway.* в application.properties.
+        Flyway.configure().dataSource(dataSource).baselineOnMigrate(true).baselineVersion("1").load().migrate();
+
+        assertEquals(2, jdbc.queryForObject("SELECT likes_count FROM films WHERE id = 1", Integer.class));
+        assertEquals(2000, jdbc.queryForObject("SELECT release_year FROM films WHERE id = 1", Integer.class));
+        assertEquals(-1, jdbc.queryForObject("SELECT useful FROM reviews WHERE id = 1", Integer.class));
+        assertEquals(42, jdbc.queryForObject("SELECT NEXT VALUE FOR events_id_seq", Long.class));
+        assertEquals(142, jdbc.queryForObject("SELECT NEXT VALUE FOR events_id_seq", Long.class));
+        assertEquals(0, jdbc.queryForObject("SELECT COUNT(*) FROM \"flyway_schema_history\" WHERE NOT \"success\"", Integer.class));
+    }
+}
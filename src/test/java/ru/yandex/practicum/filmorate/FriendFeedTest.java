@@ -0,0 +1,130 @@
+package ru.yandex.practicum.filmorate;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Mpa;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.task.EventJournalWriter;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class FriendFeedTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Autowired
+    EventJournalWriter eventJournalWriter;
+
+    @Test
+    void shouldRemoveEventsOfFormerFriendFromFeed() throws Exception {
+        long userId = createUser();
+        long friendId = createUser();
+        long otherFriendId = createUser();
+        long filmId = createFilm();
+        mockMvc.perform(put("/users/{userId}/friends/{friendId}", userId, friendId)).andExpect(status().is2xxSuccessful());
+        mockMvc.perform(put("/users/{userId}/friends/{friendId}", userId, otherFriendId)).andExpect(status().is2xxSuccessful());
+
+        // Лента читается до событий друзей, чтобы буфер ленты был загружен и пополнялся рассылкой.
+        assertEquals(List.of(), getFriendEventAuthors(userId));
+        mockMvc.perform(put("/films/{filmId}/like/{userId}", filmId, friendId)).andExpect(status().is2xxSuccessful());
+        mockMvc.perform(put("/films/{filmId}/like/{userId}", filmId, otherFriendId)).andExpect(status().is2xxSuccessful());
+        assertEquals(List.of(friendId, otherFriendId), getFriendEventAuthors(userId));
+
+        mockMvc.perform(delete("/users/{userId}/friends/{friendId}", userId, otherFriendId)).andExpect(status().is2xxSuccessful());
+        assertEquals(List.of(friendId), getFriendEventAuthors(userId));
+    }
+
+    @Test
+    void shouldRemoveEventsOfDeletedUserFromFeed() throws Exception {
+        long userId = createUser();
+        long friendId = createUser();
+        long otherFriendId = createUser();
+        long filmId = createFilm();
+        mockMvc.perform(put("/users/{userId}/friends/{friendId}", userId, friendId)).andExpect(status().is2xxSuccessful());
+        mockMvc.perform(put("/users/{userId}/friends/{friendId}", userId, otherFriendId)).andExpect(status().is2xxSuccessful());
+        mockMvc.perform(put("/users/{userId}/friends/{friendId}", friendId, userId)).andExpect(status().is2xxSuccessful());
+
+        assertEquals(List.of(friendId), getFriendEventAuthors(userId));
+        mockMvc.perform(put("/films/{filmId}/like/{userId}", filmId, friendId)).andExpect(status().is2xxSuccessful());
+        mockMvc.perform(put("/films/{filmId}/like/{userId}", filmId, otherFriendId)).andExpect(status().is2xxSuccessful());
+        mockMvc.perform(put("/films/{filmId}/like/{userId}", filmId, userId)).andExpect(status().is2xxSuccessful());
+        assertEquals(List.of(friendId, friendId, otherFriendId), getFriendEventAuthors(userId));
+
+        mockMvc.perform(delete("/users/{userId}", friendId)).andExpect(status().is2xxSuccessful());
+        assertEquals(List.of(otherFriendId), getFriendEventAuthors(userId));
+    }
+
+    private List<Long> getFriendEventAuthors(long userId) throws Exception {
+        // События рассылаются в ленты после записи журнала.
+        eventJournalWriter.flush();
+        String content = mockMvc.perform(get("/users/{userId}/feed/friends", userId))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        List<Long> authorIds = new ArrayList<>();
+        objectMapper.readTree(content).forEach(event -> authorIds.add(event.get("userId").asLong()));
+        return authorIds;
+    }
+
+    private long createUser() throws Exception {
+        String login = "u" + UUID.randomUUID().toString().substring(0, 8);
+        User user = User.builder()
+                .email(login + "@mail.ru")
+                .login(login)
+                .name(login)
+                .birthday(LocalDate.of(1990, 1, 1))
+                .build();
+        return create("/users", user);
+    }
+
+    private long createFilm() throws Exception {
+        Film film = Film.builder()
+                .name("Feed film")
+                .description("Description")
+                .releaseDate(LocalDate.of(2000, 1, 1))
+                .duration(100)
+                .mpa(Mpa.builder().id(1).build())
+                .genres(new LinkedHashSet<>())
+                .directors(new HashSet<>())
+                .build();
+        return create("/films", film);
+    }
+
+    private long create(String path, Object body) throws Exception {
+        String content = mockMvc.perform(post(path)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(body)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+
+        JsonNode created = objectMapper.readTree(content);
+        return created.get("id").asLong();
+    }
+}
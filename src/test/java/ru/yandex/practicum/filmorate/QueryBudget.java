@@ -0,0 +1,29 @@
+package ru.yandex.practicum.filmorate;
+
+import org.springframework.test.web.servlet.ResultMatcher;
+import ru.yandex.practicum.filmorate.metrics.QueryStatisticsFilter;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Проверка количества запросов к БД, выполненных при обработке HTTP-запроса.
+ * Количество берётся из заголовка {@value QueryStatisticsFilter#QUERY_COUNT_HEADER},
+ * поэтому в тестовом профиле должна быть включена настройка {@code filmorate.jdbc.query-stats.headers}.
+ */
+final class QueryBudget {
+    private QueryBudget() {
+    }
+
+    /**
+     * Обработка запроса выполняет не больше заданного количества запросов к БД.
+     */
+    static ResultMatcher atMost(int queries) {
+        return result -> {
+            String header = result.getResponse().getHeader(QueryStatisticsFilter.QUERY_COUNT_HEADER);
+            assertNotNull(header, "Ответ не содержит заголовок " + QueryStatisticsFilter.QUERY_COUNT_HEADER);
+            int executed = Integer.parseInt(header);
+            assertTrue(executed <= queries, "Выполнено запросов к БД: " + executed + ", допустимо не больше " + queries);
+        };
+    }
+}
@@ -0,0 +1,108 @@
+package ru.yandex.practicum.filmorate;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.yandex.practicum.filmorate.dao.queries.EventQueries;
+import ru.yandex.practicum.filmorate.dao.queries.FilmQueries;
+import ru.yandex.practicum.filmorate.dao.queries.ReviewQueries;
+import ru.yandex.practicum.filmorate.dao.queries.TimelineQueries;
+import ru.yandex.practicum.filmorate.dao.queries.UserQueries;
+
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@JdbcTest
+@AutoConfigureTestDatabase
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class QueryPlanTest {
+    /**
+     * Таблицы-справочники из нескольких строк, полный просмотр которых допустим.
+     */
+    private static final Set<String> DICTIONARY_TABLES = Set.of("MPA", "GENRES");
+
+    /**
+     * Полный просмотр в плане H2: таблицы ({@code PUBLIC.TABLE.tableScan}) или индекса без условия ({@code PUBLIC.INDEX}).
+     */
+    private static final Pattern FULL_SCAN = Pattern.compile("/\\* PUBLIC\\.(\\w+)(?:\\.tableScan)? \\*/");
+
+    private final JdbcTemplate jdbc;
+
+    @Test
+    public void shouldUseIndexForUserLikes() {
+        assertNoTableScan(FilmQueries.GET_USER_LIKED_FILM_IDS_QUERY, 1);
+        assertNoTableScan(UserQueries.DECREMENT_LIKED_FILMS_LIKES_COUNT_QUERY, 1);
+        assertNoTableScan(UserQueries.REVERT_USER_REVIEW_LIKES_USEFUL_QUERY, 1, 1);
+    }
+
+    @Test
+    public void shouldUseIndexForPopularFilmsByYear() {
+        String query = FilmQueries.GET_POPULAR_FILMS_QUERY.replace("1 = 1", FilmQueries.POPULAR_FILMS_YEAR_CONDITION);
+        assertNoTableScan(query, 2000, 10);
+    }
+
+    @Test
+    public void shouldUseIndexForDirectorFilms() {
+        assertNoTableScan(FilmQueries.GET_DIRECTOR_FILMS_SORTED_BY_YEARS_QUERY, 1);
+        assertNoTableScan(FilmQueries.GET_DIRECTOR_FILMS_SORTED_BY_LIKES_QUERY, 1);
+    }
+
+    @Test
+    public void shouldUseIndexForCommonFilms() {
+        assertNoTableScan(FilmQueries.GET_COMMON_FILMS_QUERY, 1, 2);
+    }
+
+    @Test
+    public void shouldUseIndexForFilmsGenresAndDirectors() {
+        assertNoTableScan(String.format(FilmQueries.GET_FILMS_GENRES_QUERY, "?, ?"), 1, 2);
+        assertNoTableScan(String.format(FilmQueries.GET_FILMS_DIRECTORS_QUERY, "?, ?"), 1, 2);
+    }
+
+    @Test
+    public void shouldUseIndexForUserEvents() {
+        assertNoTableScan(EventQueries.GET_USER_LAST_EVENTS_QUERY, 1, 100);
+        assertNoTableScan(EventQueries.GET_USER_EVENTS_SINCE_QUERY, 1, 10, 100);
+    }
+
+    @Test
+    public void shouldUseIndexForTimelines() {
+        assertNoTableScan(TimelineQueries.GET_TIMELINE_LAST_EVENTS_QUERY, 1, 100);
+        assertNoTableScan(TimelineQueries.GET_TIMELINE_EVENTS_SINCE_QUERY, 1, 10, 100);
+        assertNoTableScan(TimelineQueries.GET_FRIENDS_LAST_EVENTS_QUERY, 1, 100);
+        assertNoTableScan(TimelineQueries.GET_FRIENDS_EVENTS_SINCE_QUERY, 1, 10, 100);
+        assertNoTableScan(String.format(TimelineQueries.GET_FOLLOWERS_QUERY, "?, ?"), 1, 2);
+        assertNoTableScan(String.format(TimelineQueries.GET_FOLLOWERS_COUNT_QUERY, "?, ?"), 1, 2);
+    }
+
+    @Test
+    public void shouldUseIndexForFriends() {
+        assertNoTableScan(UserQueries.GET_USER_FRIENDS_QUERY, 1);
+        assertNoTableScan(UserQueries.GET_USER_FRIEND_IDS_QUERY, 1);
+        assertNoTableScan(String.format(UserQueries.GET_USERS_BY_IDS_QUERY, "?, ?"), 1, 2);
+        assertNoTableScan(UserQueries.GET_COMMON_FRIENDS_QUERY, 1, 2);
+    }
+
+    @Test
+    public void shouldUseIndexForFilmReviews() {
+        assertNoTableScan(ReviewQueries.GET_REVIEWS_QUERY.replace("1 = 1", ReviewQueries.REVIEWS_FILM_CONDITION), 1, 10);
+        assertNoTableScan(ReviewQueries.GET_REVIEWS_QUERY.replace("1 = 1", ReviewQueries.REVIEWS_FILM_CONDITION + " AND " + ReviewQueries.REVIEWS_AFTER_CURSOR_CONDITION), 1, 0, 0, 5, 10);
+        assertNoTableScan(ReviewQueries.GET_REVIEW_BY_ID_QUERY, 1);
+        assertNoTableScan(ReviewQueries.REVERT_LIKE_USEFUL_QUERY, 1, 1, 1);
+    }
+
+    private void assertNoTableScan(String query, Object... params) {
+        String plan = String.join("\n", this.jdbc.queryForList("EXPLAIN " + query, String.class, params));
+
+        Matcher matcher = FULL_SCAN.matcher(plan);
+        while (matcher.find()) {
+            String source = matcher.group(1);
+            assertTrue(DICTIONARY_TABLES.contains(source), () -> String.format("Полный просмотр %s:%n%s", source, plan));
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package ru.yandex.practicum.filmorate.cache;
+
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.model.Event;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class EventBufferTest {
+    private final EventBuffer buffer = new EventBuffer(3);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    public void shouldLoadOnFirstReadOnly() {
+        assertEquals(List.of(1L, 2L), ids(this.buffer.read(null, 10, this.loader(1, 2))));
+        assertEquals(List.of(2L), ids(this.buffer.read(1L, 10, this.loader(1, 2))));
+        assertEquals(1, this.loads.get());
+    }
+
+    @Test
+    public void shouldIgnoreEventsBeforeLoad() {
+        this.buffer.append(event(3, 1));
+
+        assertEquals(List.of(1L, 2L), ids(this.buffer.read(null, 10, this.loader(1, 2))));
+    }
+
+    @Test
+    public void shouldServeFullBufferOnly() {
+        // Буфер заполнен при загрузке: более ранние события ленты в нём отсутствуют.
+        assertEquals(List.of(11L, 12L, 13L), ids(this.buffer.read(null, 3, this.loader(11, 12, 13))));
+        assertEquals(List.of(12L, 13L), ids(this.buffer.read(null, 2, this.loader())));
+        assertNull(this.buffer.read(null, 4, this.loader()));
+
+        assertEquals(List.of(11L, 12L, 13L), ids(this.buffer.read(10L, 10, this.loader())));
+        assertEquals(List.of(13L), ids(this.buffer.read(12L, 10, this.loader())));
+        assertEquals(List.of(), ids(this.buffer.read(13L, 10, this.loader())));
+    }
+
+    @Test
+    public void shouldNotServeRequestStartingBeforeOldestEvent() {
+        this.buffer.read(null, 10, this.loader(11, 12, 13));
+
+        assertNull(this.buffer.read(9L, 10, this.loader()));
+        assertNull(this.buffer.read(0L, 1, this.loader()));
+    }
+
+    @Test
+    public void shouldOverwriteOldestEventsOnWraparound() {
+        this.buffer.read(null, 10, this.loader(1, 2));
+
+        for (long id = 3; id <= 7; id++) {
+            this.buffer.append(event(id, 1));
+        }
+
+        assertEquals(List.of(5L, 6L, 7L), ids(this.buffer.read(null, 3, this.loader())));
+        assertEquals(List.of(6L, 7L), ids(this.buffer.read(5L, 10, this.loader())));
+        assertEquals(List.of(5L), ids(this.buffer.read(4L, 1, this.loader())));
+        // События 1-4 вытеснены из буфера.
+        assertNull(this.buffer.read(3L, 10, this.loader()));
+        assertNull(this.buffer.read(null, 4, this.loader()));
+        assertEquals(1, this.loads.get());
+    }
+
+    @Test
+    public void shouldSkipDuplicateAndReloadAfterOutOfOrderEvent() {
+        this.buffer.read(null, 10, this.loader(1, 2));
+
+        this.buffer.append(event(2, 1));
+        assertEquals(List.of(1L, 2L), ids(this.buffer.read(null, 10, this.loader())));
+
+        this.buffer.append(event(4, 1));
+        this.buffer.append(event(3, 1));
+        assertEquals(List.of(2L, 3L, 4L), ids(this.buffer.read(null, 3, this.loader(2, 3, 4))));
+        assertEquals(2, this.loads.get());
+    }
+
+    @Test
+    public void shouldRemoveUserEventsAfterWraparound() {
+        this.buffer.read(null, 10, this.loader(1, 2, 3));
+        this.buffer.append(event(4, 2));
+        this.buffer.append(event(5, 1));
+
+        this.buffer.removeUserEvents(2);
+
+        assertEquals(List.of(3L, 5L), ids(this.buffer.read(null, 2, this.loader())));
+        // Граница буфера сохраняется: событие 2 по-прежнему запрашивается из БД.
+        assertNull(this.buffer.read(1L, 10, this.loader()));
+
+        this.buffer.append(event(6, 1));
+        this.buffer.append(event(7, 1));
+        assertEquals(List.of(5L, 6L, 7L), ids(this.buffer.read(null, 3, this.loader())));
+        assertEquals(List.of(5L, 6L, 7L), ids(this.buffer.read(3L, 10, this.loader())));
+        assertNull(this.buffer.read(2L, 10, this.loader()));
+    }
+
+    //region Facilities
+
+    private Supplier<Collection<Event>> loader(long... ids) {
+        return () -> {
+            this.loads.incrementAndGet();
+            return LongStream.of(ids).mapToObj(id -> event(id, 1)).toList();
+        };
+    }
+
+    private static Event event(long id, long userId) {
+        return Event.builder()
+                .id(id)
+                .userId(userId)
+                .build();
+    }
+
+    private static List<Long> ids(List<Event> events) {
+        return events.stream().map(Event::getId).toList();
+    }
+
+    //endregion
+}
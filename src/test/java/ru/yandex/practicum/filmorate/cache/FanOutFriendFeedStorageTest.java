@@ -0,0 +1,110 @@
+package ru.yandex.practicum.filmorate.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.dao.TimelineRepository;
+import ru.yandex.practicum.filmorate.exception.InternalServerException;
+import ru.yandex.practicum.filmorate.model.Event;
+import ru.yandex.practicum.filmorate.storage.EventStorage;
+import ru.yandex.practicum.filmorate.storage.UserStorage;
+import ru.yandex.practicum.filmorate.task.EventJournalWriter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FanOutFriendFeedStorageTest {
+    private static final long DELETED_FOLLOWER_ID = 3;
+
+    private final TimelineRepository timelineRepository = mock(TimelineRepository.class);
+    private final EventJournalWriter eventJournalWriter = mock(EventJournalWriter.class);
+    private final List<long[]> saved = new ArrayList<>();
+    private final FanOutFriendFeedStorage storage = new FanOutFriendFeedStorage(this.timelineRepository,
+            mock(EventStorage.class), mock(UserStorage.class), this.eventJournalWriter, 10, 10, 10);
+
+    private Consumer<List<Event>> fanOut;
+
+    @BeforeEach
+    void beforeEach() {
+        when(this.timelineRepository.getPopularUserIds(anyInt())).thenReturn(List.of());
+        when(this.timelineRepository.getTimelineEvents(anyLong(), isNull(), anyInt())).thenReturn(List.of());
+        // Пользователи 1 и 2 в друзьях у пользователей 2, 3 и 4; пользователь 3 удалён одновременно с рассылкой.
+        when(this.timelineRepository.getFollowersCount(anyCollection())).thenReturn(Map.of(1L, 3L, 2L, 1L));
+        when(this.timelineRepository.getFollowerIds(anyCollection())).thenReturn(Map.of(
+                1L, List.of(2L, 3L, 4L),
+                2L, List.of(4L)));
+        doAnswer(invocation -> {
+            Map<Long, ? extends Collection<Long>> userIdsByEventId = invocation.getArgument(0);
+            List<long[]> entries = new ArrayList<>();
+            userIdsByEventId.forEach((eventId, userIds) -> userIds.forEach(userId -> {
+                if (userId == DELETED_FOLLOWER_ID) {
+                    throw new InternalServerException();
+                }
+                entries.add(new long[]{userId, eventId});
+            }));
+            this.saved.addAll(entries);
+            return null;
+        }).when(this.timelineRepository).saveTimelineEntries(any());
+        doAnswer(invocation -> {
+            this.fanOut = invocation.getArgument(0);
+            return null;
+        }).when(this.eventJournalWriter).addListener(any());
+
+        this.storage.init();
+    }
+
+    @Test
+    public void shouldSkipOnlyFailedEntriesWhenBatchFails() {
+        // Буферы лент загружаются до рассылки и пополняются ею.
+        this.storage.getFriendEvents(2, null, 10);
+        this.storage.getFriendEvents(4, null, 10);
+
+        this.fanOut.accept(List.of(event(1, 1), event(2, 2)));
+
+        assertEquals(List.of(List.of(2L, 1L), List.of(4L, 1L), List.of(4L, 2L)), this.saved());
+        assertEquals(List.of(1L), ids(this.storage.getFriendEvents(2, null, 10)));
+        assertEquals(List.of(1L, 2L), ids(this.storage.getFriendEvents(4, null, 10)));
+    }
+
+    @Test
+    public void shouldSaveBatchAtOnceWhenNoEntryFails() {
+        when(this.timelineRepository.getFollowerIds(anyCollection())).thenReturn(Map.of(1L, List.of(2L, 4L)));
+        this.storage.getFriendEvents(2, null, 10);
+
+        this.fanOut.accept(List.of(event(1, 1), event(2, 1)));
+
+        assertEquals(List.of(List.of(2L, 1L), List.of(4L, 1L), List.of(2L, 2L), List.of(4L, 2L)), this.saved());
+        assertEquals(List.of(1L, 2L), ids(this.storage.getFriendEvents(2, null, 10)));
+    }
+
+    //region Facilities
+
+    private List<List<Long>> saved() {
+        return this.saved.stream().map(entry -> List.of(entry[0], entry[1])).toList();
+    }
+
+    private static Event event(long id, long userId) {
+        return Event.builder()
+                .id(id)
+                .userId(userId)
+                .build();
+    }
+
+    private static List<Long> ids(Collection<Event> events) {
+        return events.stream().map(Event::getId).toList();
+    }
+
+    //endregion
+}
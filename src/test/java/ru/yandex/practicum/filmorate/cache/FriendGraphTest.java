@@ -0,0 +1,97 @@
+package ru.yandex.practicum.filmorate.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class FriendGraphTest {
+    private final FriendGraph graph = new FriendGraph();
+
+    @BeforeEach
+    void beforeEach() {
+        this.graph.load(Map.of(
+                1L, List.of(4L, 2L, 3L),
+                2L, List.of(1L, 3L),
+                3L, List.of(1L)));
+    }
+
+    @Test
+    public void shouldLoadSortedFriendIds() {
+        assertArrayEquals(new long[]{2, 3, 4}, this.graph.get(1));
+        assertArrayEquals(new long[]{1, 3}, this.graph.get(2));
+        assertArrayEquals(new long[]{}, this.graph.get(4));
+    }
+
+    @Test
+    public void shouldAddFriendKeepingOrder() {
+        long[] before = this.graph.get(2);
+
+        this.graph.add(2, 2);
+        this.graph.add(2, 5);
+        this.graph.add(2, 3);
+        this.graph.add(4, 1);
+
+        assertArrayEquals(new long[]{1, 2, 3, 5}, this.graph.get(2));
+        assertArrayEquals(new long[]{1}, this.graph.get(4));
+        // Опубликованный массив не изменяется.
+        assertArrayEquals(new long[]{1, 3}, before);
+    }
+
+    @Test
+    public void shouldRemoveFriend() {
+        this.graph.remove(1, 3);
+        this.graph.remove(1, 5);
+        this.graph.remove(3, 1);
+
+        assertArrayEquals(new long[]{2, 4}, this.graph.get(1));
+        assertArrayEquals(new long[]{}, this.graph.get(3));
+    }
+
+    @Test
+    public void shouldRemoveUserWithIncomingEdges() {
+        this.graph.removeUser(1);
+
+        assertArrayEquals(new long[]{}, this.graph.get(1));
+        assertArrayEquals(new long[]{3}, this.graph.get(2));
+        assertArrayEquals(new long[]{}, this.graph.get(3));
+    }
+
+    @Test
+    public void shouldIntersectSortedIds() {
+        assertArrayEquals(new long[]{3}, FriendGraph.intersect(this.graph.get(1), this.graph.get(2)));
+        assertArrayEquals(new long[]{2, 5}, FriendGraph.intersect(new long[]{1, 2, 5, 7}, new long[]{2, 3, 5}));
+        assertArrayEquals(new long[]{}, FriendGraph.intersect(new long[]{}, new long[]{1}));
+    }
+
+    @Test
+    public void shouldSerializeWritesWithoutBlockingReads() throws Exception {
+        CompletableFuture<Void> firstStarted = new CompletableFuture<>();
+        CompletableFuture<Void> firstReleased = new CompletableFuture<>();
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() -> this.graph.write(() -> {
+            firstStarted.complete(null);
+            firstReleased.join();
+            this.graph.add(5, 1);
+        }));
+        firstStarted.get(5, TimeUnit.SECONDS);
+
+        CompletableFuture<Void> second = CompletableFuture.runAsync(() -> this.graph.write(() -> this.graph.remove(5, 1)));
+
+        // Пока первая запись не завершена, граф читается, а вторая запись ожидает.
+        assertArrayEquals(new long[]{2, 3, 4}, this.graph.get(1));
+        Thread.sleep(100);
+        assertFalse(second.isDone());
+
+        firstReleased.complete(null);
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+
+        assertArrayEquals(new long[]{}, this.graph.get(5));
+    }
+}
@@ -0,0 +1,147 @@
+package ru.yandex.practicum.filmorate.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.storage.UserStorage;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class FriendSuggestionIndexTest {
+    private final UserStorage userStorage = mock(UserStorage.class);
+    private final Map<Long, long[]> friendIds = new HashMap<>();
+    private final FriendSuggestionIndex index = new FriendSuggestionIndex(this.userStorage, 3, 2);
+
+    @BeforeEach
+    void beforeEach() {
+        // 1 -> 2, 3; 2 -> 4, 5; 3 -> 4, 6; 7 -> 1, 8.
+        this.friendIds.put(1L, new long[]{2, 3});
+        this.friendIds.put(2L, new long[]{4, 5});
+        this.friendIds.put(3L, new long[]{4, 6});
+        this.friendIds.put(7L, new long[]{1, 8});
+        this.friendIds.put(8L, new long[]{5});
+        when(this.userStorage.getFriendIds(anyLong()))
+                .thenAnswer(invocation -> this.friendIds.getOrDefault(invocation.<Long>getArgument(0), new long[0]));
+    }
+
+    @Test
+    public void shouldCountValuesAcrossGrowth() {
+        FriendSuggestionIndex.LongIntCounter counter = new FriendSuggestionIndex.LongIntCounter(1);
+        for (long key = 1; key <= 1000; key++) {
+            for (int i = 0; i < key % 7; i++) {
+                counter.increment(key * 1_000_003);
+            }
+        }
+
+        // Наибольшее количество — 6 — у ключей, дающих остаток 6 при делении на 7, по возрастанию ключа.
+        assertArrayEquals(new long[]{6 * 1_000_003L, 13 * 1_000_003L, 20 * 1_000_003L}, counter.top(3));
+        assertEquals(858, counter.top(2000).length);
+        assertArrayEquals(new long[0], counter.top(0));
+    }
+
+    @Test
+    public void shouldSelectTopKeysWithHeap() {
+        Random random = new Random(42);
+        FriendSuggestionIndex.LongIntCounter counter = new FriendSuggestionIndex.LongIntCounter(16);
+        Map<Long, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 10_000; i++) {
+            long key = random.nextInt(500) - 250;
+            counter.increment(key);
+            expected.merge(key, 1, Integer::sum);
+        }
+
+        long[] top = expected.entrySet().stream()
+                .sorted(Map.Entry.<Long, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(50)
+                .mapToLong(Map.Entry::getKey)
+                .toArray();
+        assertArrayEquals(top, counter.top(50));
+        assertArrayEquals(LongStream.of(top).limit(1).toArray(), counter.top(1));
+    }
+
+    @Test
+    public void shouldSuggestFriendsOfFriendsByMutualCount() {
+        assertEquals(List.of(4L, 5L, 6L), this.index.getSuggestedUserIds(1, 10));
+        assertEquals(List.of(4L), this.index.getSuggestedUserIds(1, 1));
+        verify(this.userStorage, times(1)).getFriendIds(1);
+
+        assertEquals(List.of(2L, 3L, 5L), this.index.getSuggestedUserIds(7, 10));
+    }
+
+    @Test
+    public void shouldSkipFriendsWithTooManyFriends() {
+        this.friendIds.put(3L, new long[]{4, 6, 9, 10});
+
+        assertEquals(List.of(4L, 5L), this.index.getSuggestedUserIds(1, 10));
+    }
+
+    @Test
+    public void shouldInvalidateSuggestionsOfFollowers() {
+        assertEquals(List.of(4L, 5L, 6L), this.index.getSuggestedUserIds(1, 10));
+
+        // Изменился список друзей друга: рекомендации пользователя пересчитываются.
+        this.friendIds.put(2L, new long[]{4, 5, 6});
+        this.index.invalidate(2);
+
+        assertEquals(List.of(4L, 6L, 5L), this.index.getSuggestedUserIds(1, 10));
+    }
+
+    @Test
+    public void shouldInvalidateUsersTwoHopsFromRemovedUser() {
+        assertEquals(List.of(4L, 5L, 6L), this.index.getSuggestedUserIds(1, 10));
+        assertEquals(List.of(2L, 3L, 5L), this.index.getSuggestedUserIds(7, 10));
+
+        // Пользователь 5 удалён: он входил в рекомендации обоих пользователей.
+        this.friendIds.put(2L, new long[]{4});
+        this.friendIds.put(8L, new long[0]);
+        this.index.removeUser(5);
+
+        assertEquals(List.of(4L, 6L), this.index.getSuggestedUserIds(1, 10));
+        assertEquals(List.of(2L, 3L), this.index.getSuggestedUserIds(7, 10));
+    }
+
+    @Test
+    public void shouldForgetDependenciesOfEvictedSuggestions() {
+        this.index.getSuggestedUserIds(1, 10);
+        assertEquals(3, this.index.getDependenciesCount());
+
+        // Хранятся рекомендации не больше двух пользователей: рекомендации пользователя 1 вытесняются.
+        this.index.getSuggestedUserIds(7, 10);
+        this.index.getSuggestedUserIds(8, 10);
+        // Остались зависимости рекомендаций пользователей 7 (от 1, 7, 8) и 8 (от 8, 5).
+        assertEquals(4, this.index.getDependenciesCount());
+
+        this.index.invalidate(7);
+        this.index.invalidate(8);
+        assertEquals(0, this.index.getDependenciesCount());
+    }
+
+    @Test
+    public void shouldNotStoreSuggestionsComputedBeforeInvalidation() {
+        when(this.userStorage.getFriendIds(2)).thenAnswer(invocation -> {
+            Thread writer = new Thread(() -> {
+                this.friendIds.put(2L, new long[]{4});
+                this.index.invalidate(2);
+            });
+            writer.start();
+            writer.join();
+            return new long[]{4, 5};
+        });
+
+        assertEquals(List.of(4L, 5L, 6L), this.index.getSuggestedUserIds(1, 10));
+
+        when(this.userStorage.getFriendIds(2)).thenAnswer(invocation -> this.friendIds.get(2L));
+        assertEquals(List.of(4L, 6L), this.index.getSuggestedUserIds(1, 10));
+    }
+}
@@ -0,0 +1,111 @@
+package ru.yandex.practicum.filmorate.index;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Genre;
+import ru.yandex.practicum.filmorate.storage.FilmStorage;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PopularityIndexTest {
+    private final FilmStorage filmStorage = mock(FilmStorage.class);
+    private final IndexUpdateGate indexUpdateGate = new IndexUpdateGate();
+    private final PopularityIndex index = new PopularityIndex(this.filmStorage, new SimpleMeterRegistry(), this.indexUpdateGate);
+
+    @BeforeEach
+    void beforeEach() {
+        when(this.filmStorage.getAllFilms()).thenReturn(List.of(
+                film(1, 2000, 1),
+                film(2, 2000, 1, 2),
+                film(3, 2010, 2),
+                film(4, 2010)));
+        when(this.filmStorage.getFilmsLikesCount()).thenReturn(Map.of(1L, 5L, 2L, 7L, 3L, 5L));
+        this.index.rebuild();
+    }
+
+    @Test
+    public void shouldOrderByLikesThenById() {
+        assertEquals(List.of(2L, 1L, 3L, 4L), this.index.getTopFilmIds(10, null, null));
+        assertEquals(List.of(2L, 1L), this.index.getTopFilmIds(2, null, null));
+    }
+
+    @Test
+    public void shouldFilterByGenreAndYear() {
+        assertEquals(List.of(2L, 1L), this.index.getTopFilmIds(10, 1L, null));
+        assertEquals(List.of(3L, 4L), this.index.getTopFilmIds(10, null, 2010));
+        assertEquals(List.of(2L), this.index.getTopFilmIds(10, 2L, 2000));
+        assertEquals(List.of(), this.index.getTopFilmIds(10, 3L, null));
+    }
+
+    @Test
+    public void shouldReorderOnLikesChange() {
+        this.index.changeLikes(3, 3);
+        this.index.changeLikes(2, -2);
+
+        assertEquals(List.of(3L, 1L, 2L, 4L), this.index.getTopFilmIds(10, null, null));
+        assertEquals(List.of(3L, 2L), this.index.getTopFilmIds(10, 2L, null));
+        assertEquals(8, this.index.getLikes(3));
+    }
+
+    @Test
+    public void shouldKeepLikesWhenFilmIsUpdated() {
+        this.index.putFilm(film(2, 2010, 2));
+
+        assertEquals(7, this.index.getLikes(2));
+        assertEquals(List.of(1L), this.index.getTopFilmIds(10, 1L, null));
+        assertEquals(List.of(2L, 3L, 4L), this.index.getTopFilmIds(10, null, 2010));
+    }
+
+    @Test
+    public void shouldRemoveFilm() {
+        this.index.removeFilm(2);
+
+        assertEquals(List.of(1L, 3L, 4L), this.index.getTopFilmIds(10, null, null));
+        assertEquals(List.of(1L), this.index.getTopFilmIds(10, 1L, 2000));
+        assertEquals(0, this.index.getLikes(2));
+    }
+
+    @Test
+    public void shouldKeepLikeChangedDuringRebuild() {
+        // Лайк записан в БД после чтения данных для перестройки, но до замены состояния индекса.
+        when(this.filmStorage.getFilmsLikesCount()).thenAnswer(invocation -> {
+            Thread writer = new Thread(() -> this.index.changeLikes(4, 10));
+            writer.start();
+            writer.join();
+            return Map.of(1L, 5L, 2L, 7L, 3L, 5L);
+        });
+
+        this.index.rebuild();
+
+        assertEquals(10, this.index.getLikes(4));
+        assertEquals(List.of(4L, 2L, 1L, 3L), this.index.getTopFilmIds(10, null, null));
+    }
+
+    @Test
+    public void shouldNotRepeatChangeWrittenBeforeRebuild() {
+        this.indexUpdateGate.update(() -> this.index.changeLikes(4, 1));
+        when(this.filmStorage.getFilmsLikesCount()).thenReturn(Map.of(1L, 5L, 2L, 7L, 3L, 5L, 4L, 1L));
+
+        this.index.rebuild();
+
+        assertEquals(1, this.index.getLikes(4));
+    }
+
+    private static Film film(long id, int year, long... genreIds) {
+        return Film.builder()
+                .id(id)
+                .name("Film " + id)
+                .releaseDate(LocalDate.of(year, 1, 1))
+                .genres(Arrays.stream(genreIds).mapToObj(genreId -> new Genre(genreId, "Genre " + genreId)).toList())
+                .build();
+    }
+}
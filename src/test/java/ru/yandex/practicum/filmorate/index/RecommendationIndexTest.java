@@ -0,0 +1,76 @@
+package ru.yandex.practicum.filmorate.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.storage.FilmStorage;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RecommendationIndexTest {
+    private final FilmStorage filmStorage = mock(FilmStorage.class);
+    private final RecommendationIndex index = new RecommendationIndex(this.filmStorage, new IndexUpdateGate());
+
+    @BeforeEach
+    void beforeEach() {
+        when(this.filmStorage.getAllUsersLikedFilmIds()).thenReturn(Map.of(
+                1L, List.of(1L, 2L, 3L),
+                2L, List.of(1L, 2L, 4L),
+                3L, List.of(1L, 5L, 6L, 7L)));
+        this.index.rebuild();
+    }
+
+    @Test
+    public void shouldRankFilmsBySimilarityOfNeighbours() {
+        // Сходство с пользователем 2 — 2/4, с пользователем 3 — 1/6.
+        assertEquals(List.of(4L, 5L, 6L, 7L), this.index.getRecommendedFilmIds(1, 10));
+        assertEquals(List.of(4L, 5L), this.index.getRecommendedFilmIds(1, 2));
+    }
+
+    @Test
+    public void shouldNotRecommendWithoutLikes() {
+        assertEquals(List.of(), this.index.getRecommendedFilmIds(42, 10));
+
+        this.index.removeLike(3, 1);
+        assertEquals(List.of(4L), this.index.getRecommendedFilmIds(1, 10));
+    }
+
+    @Test
+    public void shouldRemoveUserAndReuseSlot() {
+        this.index.removeUser(2);
+        assertEquals(List.of(5L, 6L, 7L), this.index.getRecommendedFilmIds(1, 10));
+
+        // Новый пользователь получает номер удалённого и не наследует его лайки.
+        this.index.addLike(9, 8);
+        this.index.addLike(9, 1);
+        assertEquals(List.of(8L, 5L, 6L, 7L), this.index.getRecommendedFilmIds(1, 10));
+        assertEquals(List.of(2L, 3L, 5L, 6L, 7L), this.index.getRecommendedFilmIds(9, 10));
+    }
+
+    @Test
+    public void shouldRemoveFilmAndReuseSlot() {
+        this.index.removeFilm(4);
+        assertEquals(List.of(5L, 6L, 7L), this.index.getRecommendedFilmIds(1, 10));
+
+        this.index.addLike(2, 10);
+        assertEquals(List.of(10L, 5L, 6L, 7L), this.index.getRecommendedFilmIds(1, 10));
+    }
+
+    @Test
+    public void shouldKeepLikeAddedDuringRebuild() {
+        when(this.filmStorage.getAllUsersLikedFilmIds()).thenAnswer(invocation -> {
+            Thread writer = new Thread(() -> this.index.addLike(2, 11));
+            writer.start();
+            writer.join();
+            return Map.of(1L, List.of(1L, 2L, 3L), 2L, List.of(1L, 2L, 4L));
+        });
+
+        this.index.rebuild();
+
+        assertEquals(List.of(4L, 11L), this.index.getRecommendedFilmIds(1, 10));
+    }
+}
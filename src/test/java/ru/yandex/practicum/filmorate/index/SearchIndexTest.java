@@ -0,0 +1,128 @@
+package ru.yandex.practicum.filmorate.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.model.Director;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.FilmSearchBy;
+import ru.yandex.practicum.filmorate.storage.DirectorStorage;
+import ru.yandex.practicum.filmorate.storage.FilmStorage;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SearchIndexTest {
+    private static final Set<FilmSearchBy> TITLE = EnumSet.of(FilmSearchBy.TITLE);
+    private static final Set<FilmSearchBy> DIRECTOR = EnumSet.of(FilmSearchBy.DIRECTOR);
+    private static final Set<FilmSearchBy> BOTH = EnumSet.allOf(FilmSearchBy.class);
+
+    private static final Director NOLAN = new Director(1, "Christopher Nolan");
+    private static final Director ALMODOVAR = new Director(2, "Pedro Almodóvar");
+
+    private final FilmStorage filmStorage = mock(FilmStorage.class);
+    private final DirectorStorage directorStorage = mock(DirectorStorage.class);
+    private final PopularityIndex popularityIndex = mock(PopularityIndex.class);
+    private final SearchIndex index = new SearchIndex(this.filmStorage, this.directorStorage, this.popularityIndex,
+            new IndexUpdateGate());
+
+    @BeforeEach
+    void beforeEach() {
+        Map<Long, Long> likes = Map.of(1L, 3L, 2L, 10L, 3L, 3L, 4L, 0L);
+        when(this.popularityIndex.getLikes(anyLong())).thenAnswer(invocation -> likes.getOrDefault(invocation.<Long>getArgument(0), 0L));
+        when(this.directorStorage.getAllDirectors()).thenReturn(List.of(NOLAN, ALMODOVAR));
+        when(this.filmStorage.getAllFilms()).thenReturn(List.of(
+                film(1, "Inception", NOLAN),
+                film(2, "Interstellar", NOLAN),
+                film(3, "Todo sobre mi madre", ALMODOVAR),
+                film(4, "Crème brûlée")));
+        this.index.rebuild();
+    }
+
+    @Test
+    public void shouldFindSubstringOfTitle() {
+        assertEquals(List.of(2L), this.index.search("STELL", TITLE));
+        assertEquals(List.of(2L, 1L), this.index.search("in", TITLE));
+        assertEquals(List.of(), this.index.search("inte rstellar", TITLE));
+    }
+
+    @Test
+    public void shouldIgnoreCaseAndDiacritics() {
+        assertEquals(List.of(4L), this.index.search("CREME BRULEE", TITLE));
+        assertEquals(List.of(3L), this.index.search("almodovar", DIRECTOR));
+    }
+
+    @Test
+    public void shouldKeepShortIAndFoldYo() {
+        this.index.putFilm(film(5, "Мой друг Иван Лапшин"));
+        this.index.putFilm(film(6, "Мои университеты"));
+        this.index.putFilm(film(7, "Ёлки"));
+
+        assertEquals(List.of(5L), this.index.search("мой", TITLE));
+        assertEquals(List.of(6L), this.index.search("МОИ", TITLE));
+        assertEquals(List.of(7L), this.index.search("елки", TITLE));
+        assertEquals(List.of(7L), this.index.search("ёлк", TITLE));
+        assertEquals("мой еж", SearchIndex.fold("Мой ёж"));
+    }
+
+    @Test
+    public void shouldSearchByDirectorAndOrderByLikes() {
+        assertEquals(List.of(2L, 1L), this.index.search("nolan", DIRECTOR));
+        // Фильмы с равным количеством лайков упорядочены по идентификатору.
+        assertEquals(List.of(2L, 1L, 3L), this.index.search("o", DIRECTOR));
+        assertEquals(List.of(2L, 1L, 3L, 4L), this.index.search("e", BOTH));
+    }
+
+    @Test
+    public void shouldUpdateAndRemoveFilms() {
+        this.index.putFilm(film(1, "Memento", ALMODOVAR));
+        assertEquals(List.of(), this.index.search("incep", TITLE));
+        assertEquals(List.of(1L), this.index.search("mement", TITLE));
+        assertEquals(List.of(1L, 3L), this.index.search("pedro", DIRECTOR));
+        assertEquals(List.of(2L), this.index.search("nolan", DIRECTOR));
+
+        this.index.removeFilm(2);
+        assertEquals(List.of(), this.index.search("nolan", DIRECTOR));
+    }
+
+    @Test
+    public void shouldUpdateAndRemoveDirectors() {
+        this.index.putDirector(new Director(1, "Jonathan Nolan"));
+        assertEquals(List.of(), this.index.search("christopher", DIRECTOR));
+        assertEquals(List.of(2L, 1L), this.index.search("jonathan", DIRECTOR));
+
+        this.index.removeDirector(1);
+        assertEquals(List.of(), this.index.search("nolan", DIRECTOR));
+        assertEquals(List.of(2L, 1L), this.index.search("in", TITLE));
+    }
+
+    @Test
+    public void shouldKeepFilmAddedDuringRebuild() {
+        when(this.filmStorage.getAllFilms()).thenAnswer(invocation -> {
+            Thread writer = new Thread(() -> this.index.putFilm(film(5, "Tenet", NOLAN)));
+            writer.start();
+            writer.join();
+            return List.of(film(1, "Inception", NOLAN));
+        });
+
+        this.index.rebuild();
+
+        assertEquals(List.of(1L, 5L), this.index.search("nolan", DIRECTOR));
+        assertEquals(List.of(5L), this.index.search("tenet", TITLE));
+    }
+
+    private static Film film(long id, String name, Director... directors) {
+        return Film.builder()
+                .id(id)
+                .name(name)
+                .directors(Arrays.asList(directors))
+                .build();
+    }
+}
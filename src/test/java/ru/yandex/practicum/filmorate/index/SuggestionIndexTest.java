@@ -0,0 +1,118 @@
+package ru.yandex.practicum.filmorate.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.model.Director;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Suggestion;
+import ru.yandex.practicum.filmorate.storage.DirectorStorage;
+import ru.yandex.practicum.filmorate.storage.FilmStorage;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SuggestionIndexTest {
+    private static final Director NOLAN = new Director(1, "Christopher Nolan");
+    private static final Director ALMODOVAR = new Director(2, "Pedro Almodóvar");
+
+    private final FilmStorage filmStorage = mock(FilmStorage.class);
+    private final DirectorStorage directorStorage = mock(DirectorStorage.class);
+    private final PopularityIndex popularityIndex = mock(PopularityIndex.class);
+    private final SuggestionIndex index = new SuggestionIndex(this.filmStorage, this.directorStorage, this.popularityIndex,
+            new IndexUpdateGate());
+
+    @BeforeEach
+    void beforeEach() {
+        when(this.directorStorage.getAllDirectors()).thenReturn(List.of(NOLAN, ALMODOVAR));
+        when(this.filmStorage.getAllFilms()).thenReturn(List.of(
+                film(1, "Inception", NOLAN),
+                film(2, "Interstellar", NOLAN),
+                film(3, "Insomnia", NOLAN),
+                film(4, "Pain and Glory", ALMODOVAR),
+                film(5, "Crème brûlée")));
+        when(this.filmStorage.getFilmsLikesCount()).thenReturn(Map.of(1L, 3L, 2L, 10L, 3L, 3L, 4L, 20L));
+        this.index.rebuild();
+    }
+
+    @Test
+    public void shouldSuggestByPrefixOrderedByWeight() {
+        // Фильмы с равным весом упорядочены по строке.
+        assertEquals(List.of("Interstellar", "Inception", "Insomnia"), texts(this.index.suggest("in", 10)));
+        assertEquals(List.of("Interstellar"), texts(this.index.suggest("inte", 10)));
+        assertEquals(List.of("Interstellar", "Inception"), texts(this.index.suggest("in", 2)));
+        assertEquals(List.of(), texts(this.index.suggest("inx", 10)));
+        assertEquals(List.of(), texts(this.index.suggest("stellar", 10)));
+    }
+
+    @Test
+    public void shouldIgnoreCaseAndDiacritics() {
+        assertEquals(List.of("Crème brûlée"), texts(this.index.suggest("CREME BR", 10)));
+        assertEquals(List.of("Pedro Almodóvar"), texts(this.index.suggest("pedro almodov", 10)));
+    }
+
+    @Test
+    public void shouldWeighDirectorsBySumOfLikes() {
+        // Вес режиссёра Нолана — 16, Альмодовара — 20.
+        assertEquals(List.of("Pain and Glory", "Pedro Almodóvar"), texts(this.index.suggest("p", 10)));
+        assertEquals(List.of("Pedro Almodóvar", "Christopher Nolan"), texts(this.index.suggest("", 10)).subList(1, 3));
+    }
+
+    @Test
+    public void shouldReorderOnLikesChange() {
+        this.index.changeLikes(3, 10);
+        assertEquals(List.of("Insomnia", "Interstellar", "Inception"), texts(this.index.suggest("in", 10)));
+
+        this.index.changeLikes(1, 10);
+        assertEquals(List.of("Christopher Nolan", "Pain and Glory", "Pedro Almodóvar"),
+                texts(this.index.suggest("", 3)));
+    }
+
+    @Test
+    public void shouldUpdateAndRemoveEntries() {
+        this.index.putFilm(film(1, "Memento", NOLAN));
+        assertEquals(List.of("Interstellar", "Insomnia"), texts(this.index.suggest("in", 10)));
+        assertEquals(List.of("Memento"), texts(this.index.suggest("mem", 10)));
+
+        this.index.removeFilm(2);
+        this.index.removeFilm(3);
+        assertEquals(List.of(), texts(this.index.suggest("in", 10)));
+
+        this.index.removeDirector(2);
+        assertEquals(List.of("Pain and Glory"), texts(this.index.suggest("p", 10)));
+
+        this.index.putDirector(new Director(1, "Jonathan Nolan"));
+        assertEquals(List.of(), texts(this.index.suggest("chris", 10)));
+        assertEquals(List.of("Jonathan Nolan"), texts(this.index.suggest("jo", 10)));
+    }
+
+    @Test
+    public void shouldKeepLikeChangedDuringRebuild() {
+        when(this.filmStorage.getFilmsLikesCount()).thenAnswer(invocation -> {
+            Thread writer = new Thread(() -> this.index.changeLikes(5, 100));
+            writer.start();
+            writer.join();
+            return Map.of(1L, 3L, 2L, 10L, 3L, 3L, 4L, 20L);
+        });
+
+        this.index.rebuild();
+
+        assertEquals(List.of("Crème brûlée"), texts(this.index.suggest("", 1)));
+    }
+
+    private static List<String> texts(List<Suggestion> suggestions) {
+        return suggestions.stream().map(Suggestion::getText).toList();
+    }
+
+    private static Film film(long id, String name, Director... directors) {
+        return Film.builder()
+                .id(id)
+                .name(name)
+                .directors(Arrays.asList(directors))
+                .build();
+    }
+}
@@ -0,0 +1,58 @@
+package ru.yandex.practicum.filmorate.metrics;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SlowQueryLogTest {
+    private static final String QUERY = "SELECT ? + 1";
+
+    private final JdbcTemplate jdbc = new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:slow-query-log"));
+
+    @Test
+    public void shouldReportQueriesByTotalTime() throws InterruptedException {
+        SlowQueryLog slowQueryLog = new SlowQueryLog(this.jdbc, Duration.ofSeconds(1), Duration.ofMinutes(1));
+        slowQueryLog.record("SELECT 1", "SELECT 1", new Object[0], 1_000_000, false);
+        slowQueryLog.record("SELECT 2", "SELECT 2", new Object[0], 2_000_000, false);
+        slowQueryLog.record("SELECT 2", "SELECT 2", new Object[0], 3_000_000, true);
+        slowQueryLog.stop();
+
+        List<SlowQueryLog.QueryReport> top = slowQueryLog.top(1);
+        assertEquals(1, top.size());
+        assertEquals("SELECT 2", top.getFirst().query());
+        assertEquals(2, top.getFirst().calls());
+        assertEquals(1, top.getFirst().errors());
+        assertEquals(5.0, top.getFirst().totalMillis(), 1e-9);
+        assertEquals(3.0, top.getFirst().maxMillis(), 1e-9);
+        assertEquals(0, top.getFirst().slowCalls());
+        assertNull(top.getFirst().plan());
+    }
+
+    @Test
+    public void shouldExplainSlowQueryWithItsParameters() throws InterruptedException {
+        SlowQueryLog slowQueryLog = new SlowQueryLog(this.jdbc, Duration.ZERO, Duration.ofMinutes(1));
+        slowQueryLog.record(QUERY, QUERY, new Object[]{41}, 1_000_000, false);
+        slowQueryLog.stop();
+
+        SlowQueryLog.QueryReport report = slowQueryLog.top(10).getFirst();
+        assertEquals(1, report.slowCalls());
+        assertEquals("[41]", report.lastSlowParams());
+        assertNotNull(report.plan());
+        assertTrue(report.plan().startsWith("SELECT"), report.plan());
+    }
+
+    @Test
+    public void shouldMaskStringParameters() {
+        assertEquals("['***'(10), 7, 2000-01-01, null]",
+                SlowQueryLog.formatParams(new Object[]{"u1@mail.ru", 7, LocalDate.of(2000, 1, 1), null}));
+    }
+}
@@ -0,0 +1,217 @@
+package ru.yandex.practicum.filmorate.task;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.yandex.practicum.filmorate.dao.EventRepository;
+import ru.yandex.practicum.filmorate.exception.InternalServerException;
+import ru.yandex.practicum.filmorate.model.Event;
+import ru.yandex.practicum.filmorate.model.EventOperation;
+import ru.yandex.practicum.filmorate.model.EventType;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class EventJournalWriterTest {
+    private final EventRepository eventRepository = mock(EventRepository.class);
+    private final AtomicLong lastEventId = new AtomicLong();
+    private final List<List<Long>> saved = new ArrayList<>();
+    private final List<Long> written = new ArrayList<>();
+
+    private EventJournalWriter writer;
+
+    @BeforeEach
+    void beforeEach() {
+        when(this.eventRepository.prepareEvent(anyLong(), any(), any(), anyLong())).thenAnswer(invocation -> Event.builder()
+                .id(this.lastEventId.incrementAndGet())
+                .timestamp(Instant.now())
+                .userId(invocation.getArgument(0))
+                .eventType(invocation.getArgument(1))
+                .operation(invocation.getArgument(2))
+                .entityId(invocation.getArgument(3))
+                .build());
+        doAnswer(invocation -> {
+            this.save(invocation.getArgument(0));
+            return null;
+        }).when(this.eventRepository).saveEvents(any());
+    }
+
+    @AfterEach
+    void afterEach() throws InterruptedException {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        if (this.writer != null) {
+            this.writer.stop();
+        }
+    }
+
+    @Test
+    public void shouldWriteFullBatchAndKeepOrder() {
+        this.start(10, 3, Duration.ofMillis(500), Duration.ofSeconds(1));
+
+        for (int i = 0; i < 7; i++) {
+            this.append(1);
+        }
+        this.writer.flush();
+
+        assertEquals(List.of(1L, 2L, 3L), this.saved().getFirst());
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L), this.written());
+    }
+
+    @Test
+    public void shouldWriteIncompleteBatchAfterFlushInterval() throws InterruptedException {
+        this.start(10, 100, Duration.ofMillis(50), Duration.ofSeconds(1));
+
+        this.append(1);
+        this.append(1);
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (this.written().size() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(List.of(List.of(1L, 2L)), this.saved());
+    }
+
+    @Test
+    public void shouldDrainQueueOnStop() throws InterruptedException {
+        this.start(100, 100, Duration.ofMillis(200), Duration.ofSeconds(1));
+
+        for (int i = 0; i < 5; i++) {
+            this.append(1);
+        }
+        this.writer.stop();
+        this.writer = null;
+
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), this.written());
+    }
+
+    @Test
+    public void shouldRetryRowByRowAfterBatchFailure() {
+        doAnswer(invocation -> {
+            Collection<Event> events = invocation.getArgument(0);
+            if (events.stream().anyMatch(event -> event.getUserId() == 2)) {
+                throw new InternalServerException();
+            }
+            this.save(events);
+            return null;
+        }).when(this.eventRepository).saveEvents(any());
+        this.start(10, 3, Duration.ofMillis(500), Duration.ofSeconds(1));
+
+        this.append(1);
+        this.append(2);
+        this.append(1);
+        this.writer.flush();
+
+        assertEquals(List.of(List.of(1L), List.of(3L)), this.saved());
+        assertEquals(List.of(1L, 3L), this.written());
+    }
+
+    @Test
+    public void shouldWriteSynchronouslyAfterOfferTimeout() throws InterruptedException {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            Collection<Event> events = invocation.getArgument(0);
+            if (events.iterator().next().getId() == 1) {
+                writing.countDown();
+                release.await();
+            }
+            this.save(events);
+            return null;
+        }).when(this.eventRepository).saveEvents(any());
+        this.start(1, 1, Duration.ofMillis(500), Duration.ofMillis(50));
+
+        this.append(1);
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+        // Первое событие записывается, второе занимает очередь, третье не дожидается места и записывается синхронно.
+        this.append(1);
+        this.append(1);
+        assertEquals(List.of(List.of(3L)), this.saved());
+
+        release.countDown();
+        this.writer.flush();
+        assertEquals(List.of(List.of(3L), List.of(1L), List.of(2L)), this.saved());
+    }
+
+    @Test
+    public void shouldQueueEventAfterCommitOnly() {
+        this.start(10, 1, Duration.ofMillis(500), Duration.ofSeconds(1));
+        TransactionSynchronizationManager.initSynchronization();
+
+        this.append(1);
+        this.writer.flush();
+        assertEquals(List.of(), this.written());
+
+        List<TransactionSynchronization> committed = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        committed.forEach(TransactionSynchronization::afterCommit);
+        this.writer.flush();
+        assertEquals(List.of(1L), this.written());
+
+        TransactionSynchronizationManager.initSynchronization();
+        this.append(1);
+        // Транзакция откатывается: синхронизации не вызываются.
+        TransactionSynchronizationManager.clearSynchronization();
+        this.writer.flush();
+        assertEquals(List.of(1L), this.written());
+    }
+
+    @Test
+    public void shouldWriteSynchronouslyWhenAsyncDisabled() {
+        this.writer = new EventJournalWriter(this.eventRepository, 10, 10, Duration.ofMillis(500), Duration.ofSeconds(1), false);
+        this.writer.addListener(this::onWritten);
+        this.writer.start();
+
+        this.append(1);
+
+        assertEquals(List.of(List.of(1L)), this.saved());
+        assertEquals(List.of(1L), this.written());
+    }
+
+    //region Facilities
+
+    private void start(int queueCapacity, int batchSize, Duration flushInterval, Duration offerTimeout) {
+        this.writer = new EventJournalWriter(this.eventRepository, queueCapacity, batchSize, flushInterval, offerTimeout, true);
+        this.writer.addListener(this::onWritten);
+        this.writer.start();
+    }
+
+    private void append(long userId) {
+        this.writer.append(userId, EventType.LIKE, EventOperation.ADD, 1);
+    }
+
+    private synchronized void save(Collection<Event> events) {
+        this.saved.add(events.stream().map(Event::getId).toList());
+    }
+
+    private synchronized void onWritten(List<Event> events) {
+        events.forEach(event -> this.written.add(event.getId()));
+    }
+
+    private synchronized List<List<Long>> saved() {
+        return List.copyOf(this.saved);
+    }
+
+    private synchronized List<Long> written() {
+        return List.copyOf(this.written);
+    }
+
+    //endregion
+}